@@ -0,0 +1,60 @@
+package com.utn.productos_api.benchmark;
+
+import com.utn.productos_api.dto.ProductoDTO;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.model.Categoria;
+import com.utn.productos_api.model.Producto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Datos sintéticos compartidos por los benchmarks
+
+public final class DatosBenchmark {
+
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+
+    private DatosBenchmark() {
+    }
+
+    public static Producto producto(long i) {
+        return Producto.builder()
+                .id(i)
+                .nombre("Producto " + i)
+                .descripcion("Descripción del producto número " + i + " para pruebas de rendimiento")
+                .precio(10.0 + (i % 1000))
+                .stock((int) (i % 500))
+                .categoria(CATEGORIAS[(int) (i % CATEGORIAS.length)])
+                .build();
+    }
+
+    public static ProductoDTO productoDTO(long i) {
+        Producto producto = producto(i);
+        return new ProductoDTO(
+                producto.getNombre(),
+                producto.getDescripcion(),
+                producto.getPrecio(),
+                producto.getStock(),
+                producto.getCategoria()
+        );
+    }
+
+    public static List<ProductoResponseDTO> responseDTOs(int cantidad) {
+        List<ProductoResponseDTO> productos = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            Producto producto = producto(i);
+            productos.add(new ProductoResponseDTO(
+                    producto.getId(),
+                    producto.getNombre(),
+                    producto.getDescripcion(),
+                    producto.getPrecio(),
+                    producto.getStock(),
+                    producto.getCategoria(),
+                    0L,
+                    LocalDateTime.of(2025, 1, 1, 0, 0)
+            ));
+        }
+        return productos;
+    }
+}
@@ -0,0 +1,113 @@
+package com.utn.productos_api.controller;
+
+import com.utn.productos_api.ProductosApiApplication;
+import com.utn.productos_api.benchmark.DatosBenchmark;
+import com.utn.productos_api.dto.ProductoDTO;
+import com.utn.productos_api.model.Categoria;
+import com.utn.productos_api.service.ProductoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga HTTP de ProductoController con alta concurrencia (256 clientes),
+ * comparando el pool de hilos de plataforma de Tomcat contra el perfil "virtual"
+ * El perfil virtual solo tiene efecto si el benchmark corre con Java 21+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(256)
+public class CargaHttpBenchmark {
+
+    private static final int PRODUCTOS = 5_000;
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+
+    @Param({"plataforma", "virtual"})
+    public String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ProductosApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:carga-" + modo + ";LOCK_TIMEOUT=10000",
+                        "spring.jpa.show-sql=false",
+                        // La carga sale de un solo cliente: sin el límite por cliente todo respondería 429
+                        "productos.limites.habilitado=false"
+                );
+        if (modo.equals("virtual")) {
+            builder.profiles("virtual");
+        }
+        contexto = builder.run();
+
+        List<ProductoDTO> productos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            productos.add(DatosBenchmark.productoDTO(i));
+        }
+        contexto.getBean(ProductoService.class).crearProductosEnLote(productos);
+
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/productos";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    // Lectura con consulta a la base (la búsqueda no pasa por la caché)
+    @Benchmark
+    public int lecturaBusqueda() throws IOException, InterruptedException {
+        Categoria categoria = CATEGORIAS[ThreadLocalRandom.current().nextInt(CATEGORIAS.length)];
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/buscar?categorias=" + categoria
+                + "&soloConStock=true&orden=precio,asc&tamanio=20")).GET().build());
+    }
+
+    @Benchmark
+    public int lecturaPorId() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/" + idAlAzar())).GET().build());
+    }
+
+    // Escritura: una transacción con UPDATE por solicitud
+    @Benchmark
+    public int escrituraLiberarStock() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/" + idAlAzar() + "/stock/liberar"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"cantidad\":1}"))
+                .build());
+    }
+
+    private int enviar(HttpRequest request) throws IOException, InterruptedException {
+        return cliente.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Los IDs salen de una secuencia que arranca en 1
+    private long idAlAzar() {
+        return 1 + ThreadLocalRandom.current().nextInt(PRODUCTOS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.utn.productos_api.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.utn.productos_api.benchmark.DatosBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Tamaño y costo de codificar/decodificar un listado en cada formato negociable (JSON, CBOR, Smile)
+// Los tamaños (sin comprimir y con gzip) se imprimen al preparar cada combinación de parámetros
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatosBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public String formato;
+
+    @Param({"10000"})
+    public int cantidad;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<ProductoResponseDTO> productos;
+    private byte[] serializado;
+
+    @Setup
+    public void preparar() throws IOException {
+        JsonFactory factory = switch (formato) {
+            case "CBOR" -> new CBORFactory();
+            case "SMILE" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        JavaType tipo = objectMapper.getTypeFactory().constructCollectionType(List.class, ProductoResponseDTO.class);
+        writer = objectMapper.writerFor(tipo);
+        reader = objectMapper.readerFor(tipo);
+        productos = DatosBenchmark.responseDTOs(cantidad);
+        serializado = writer.writeValueAsBytes(productos);
+        System.out.printf("%n# %s, %d productos: %d bytes, %d bytes con gzip%n",
+                formato, cantidad, serializado.length, comprimir(serializado).length);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return writer.writeValueAsBytes(productos);
+    }
+
+    @Benchmark
+    public byte[] serializarConGzip() throws IOException {
+        return comprimir(writer.writeValueAsBytes(productos));
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> deserializar() throws IOException {
+        return reader.readValue(serializado);
+    }
+
+    private static byte[] comprimir(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,67 @@
+package com.utn.productos_api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.utn.productos_api.benchmark.DatosBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización Jackson de listados de ProductoResponseDTO (mismo ObjectMapper que arma Spring)
+// "bean" usa el serializador por reflexión de Jackson y "dedicado" el ProductoResponseSerializer que registra la app;
+// con -prof gc (activado en build.gradle) se comparan los bytes asignados por operación (gc.alloc.rate.norm)
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int cantidad;
+
+    @Param({"bean", "dedicado"})
+    public String serializador;
+
+    private ObjectWriter writer;
+    private List<ProductoResponseDTO> productos;
+
+    @Setup
+    public void preparar() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("dedicado".equals(serializador)) {
+            builder.modulesToInstall(new SimpleModule()
+                    .addSerializer(ProductoResponseDTO.class, new ProductoResponseSerializer()));
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ProductoResponseDTO.class));
+        productos = DatosBenchmark.responseDTOs(cantidad);
+    }
+
+    @Benchmark
+    public byte[] serializarListado() throws JsonProcessingException {
+        return writer.writeValueAsBytes(productos);
+    }
+
+    // Escritura directa al stream de la respuesta, sin armar el arreglo de bytes completo
+    @Benchmark
+    public void serializarEnStream(Blackhole blackhole) throws IOException {
+        OutputStream salida = OutputStream.nullOutputStream();
+        writer.writeValue(salida, productos);
+        blackhole.consume(salida);
+    }
+}
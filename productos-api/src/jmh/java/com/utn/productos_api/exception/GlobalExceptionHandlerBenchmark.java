@@ -0,0 +1,62 @@
+package com.utn.productos_api.exception;
+
+import com.utn.productos_api.controller.ProductoController;
+import com.utn.productos_api.dto.ProductoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Caminos de error de GlobalExceptionHandler: 404, 400 por validación y 500
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private MethodArgumentNotValidException errorValidacion;
+
+    @Setup
+    public void preparar() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("POST", "/api/productos");
+
+        ProductoDTO dto = new ProductoDTO();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(dto, "productoDTO");
+        bindingResult.rejectValue("nombre", "NotBlank", "El nombre no puede estar vacío");
+        bindingResult.rejectValue("precio", "NotNull", "El precio no puede ser nulo");
+        bindingResult.rejectValue("stock", "NotNull", "El stock no puede ser nulo");
+        MethodParameter parametro = new MethodParameter(
+                ProductoController.class.getMethod("crearProducto", ProductoDTO.class), 0);
+        errorValidacion = new MethodArgumentNotValidException(parametro, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> productoNoEncontrado() {
+        return handler.handleProductoNotFound(new ProductoNotFoundException(42L), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> errorDeValidacion() {
+        return handler.handleValidationExceptions(errorValidacion, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> errorGeneral() {
+        return handler.handleGeneralException(new IllegalStateException("falla inesperada"), request);
+    }
+}
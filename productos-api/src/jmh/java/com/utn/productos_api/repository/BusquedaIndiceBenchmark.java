@@ -0,0 +1,112 @@
+package com.utn.productos_api.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de la consulta de /buscar (categoría + rango de precios) sobre 1M de filas en H2,
+ * con y sin los índices compuestos que declara Producto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BusquedaIndiceBenchmark {
+
+    private static final String[] CATEGORIAS = {"ELECTRONICA", "ROPA", "HOGAR", "ALIMENTOS", "DEPORTES"};
+
+    @Param({"1000000"})
+    public int filas;
+
+    @Param({"false", "true"})
+    public boolean conIndices;
+
+    private Connection conexion;
+    private PreparedStatement porCategoriaYPrecio;
+    private PreparedStatement porCategoriaConStock;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        conexion = DriverManager.getConnection("jdbc:h2:mem:busqueda-" + conIndices, "sa", "");
+        try (Statement st = conexion.createStatement()) {
+            st.execute("CREATE TABLE producto (id BIGINT PRIMARY KEY, nombre VARCHAR(100) NOT NULL, " +
+                    "precio DOUBLE PRECISION NOT NULL, stock INTEGER NOT NULL, categoria VARCHAR(255) NOT NULL)");
+        }
+        conexion.setAutoCommit(false);
+        try (PreparedStatement insert = conexion.prepareStatement(
+                "INSERT INTO producto (id, nombre, precio, stock, categoria) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= filas; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "Producto " + i);
+                insert.setDouble(3, 1 + (i * 7919L % 100_000) / 10.0);
+                insert.setInt(4, i % 50);
+                insert.setString(5, CATEGORIAS[i % CATEGORIAS.length]);
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        conexion.commit();
+        conexion.setAutoCommit(true);
+
+        if (conIndices) {
+            try (Statement st = conexion.createStatement()) {
+                st.execute("CREATE INDEX idx_producto_categoria_precio ON producto (categoria, precio)");
+                st.execute("CREATE INDEX idx_producto_categoria_stock ON producto (categoria, stock)");
+                st.execute("CREATE INDEX idx_producto_precio ON producto (precio)");
+                st.execute("ANALYZE");
+            }
+        }
+
+        porCategoriaYPrecio = conexion.prepareStatement(
+                "SELECT id, nombre, precio, stock FROM producto " +
+                        "WHERE categoria = ? AND precio BETWEEN ? AND ? ORDER BY precio, id LIMIT 20");
+        porCategoriaConStock = conexion.prepareStatement(
+                "SELECT COUNT(*) FROM producto WHERE categoria = ? AND stock > 0");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public long categoriaYRangoDePrecio() throws SQLException {
+        porCategoriaYPrecio.setString(1, "HOGAR");
+        porCategoriaYPrecio.setDouble(2, 500.0);
+        porCategoriaYPrecio.setDouble(3, 510.0);
+        long suma = 0;
+        try (ResultSet rs = porCategoriaYPrecio.executeQuery()) {
+            while (rs.next()) {
+                suma += rs.getLong(1);
+            }
+        }
+        return suma;
+    }
+
+    @Benchmark
+    public long categoriaConStock() throws SQLException {
+        porCategoriaConStock.setString(1, "ROPA");
+        try (ResultSet rs = porCategoriaConStock.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
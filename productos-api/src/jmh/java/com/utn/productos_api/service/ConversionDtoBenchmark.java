@@ -0,0 +1,34 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.benchmark.DatosBenchmark;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.model.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Costo de convertir una entidad en ProductoResponseDTO
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConversionDtoBenchmark {
+
+    private Producto producto;
+
+    @Setup
+    public void preparar() {
+        producto = DatosBenchmark.producto(42);
+    }
+
+    @Benchmark
+    public ProductoResponseDTO convertirEntidadAResponseDTO() {
+        return ProductoService.convertirEntidadAResponseDTO(producto);
+    }
+}
@@ -0,0 +1,63 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.model.Categoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latencia (percentiles) de búsquedas sobre el índice invertido con un catálogo de 1M de productos
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceTextoBenchmark {
+
+    private static final String[] MARCAS = {"Samsung", "Adidas", "Philips", "Nike", "Arcor", "Lenovo", "Puma", "Atma"};
+    private static final String[] TIPOS = {"Zapatillas", "Televisor", "Campera", "Notebook", "Licuadora",
+            "Pelota", "Café", "Remera", "Cafetera", "Auriculares", "Mochila", "Heladera"};
+    private static final String[] ADJETIVOS = {"inalámbricos", "térmica", "deportiva", "eléctrica", "clásica",
+            "ultraliviana", "impermeable", "orgánico", "compacto", "reforzada"};
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+
+    @Param({"1000000"})
+    public int productos;
+
+    private IndiceTextoProductos indice;
+
+    @Setup(Level.Trial)
+    public void construir() {
+        indice = new IndiceTextoProductos();
+        for (int i = 1; i <= productos; i++) {
+            String nombre = TIPOS[i % TIPOS.length] + " " + MARCAS[(i / 7) % MARCAS.length] + " " + (i % 997);
+            String descripcion = TIPOS[(i / 3) % TIPOS.length] + " " + ADJETIVOS[i % ADJETIVOS.length]
+                    + " modelo " + i;
+            indice.indexar(new ProductoResponseDTO((long) i, nombre, descripcion, 100.0, 10,
+                    CATEGORIAS[i % CATEGORIAS.length], 0L, null));
+        }
+    }
+
+    @Benchmark
+    public List<Long> palabraExactaSelectiva() {
+        return indice.buscar("licuadora philips 512", 20);
+    }
+
+    @Benchmark
+    public List<Long> prefijoConAcentos() {
+        return indice.buscar("cafe electr", 20);
+    }
+
+    @Benchmark
+    public List<Long> terminoFrecuente() {
+        return indice.buscar("zapatillas", 20);
+    }
+}
@@ -0,0 +1,97 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.ProductosApiApplication;
+import com.utn.productos_api.benchmark.DatosBenchmark;
+import com.utn.productos_api.dto.ProductoDTO;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.model.Categoria;
+import com.utn.productos_api.repository.ProductoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listados de ProductoService contra H2 en memoria con distintos tamaños de catálogo
+ * La caché por categoría se desactiva para medir siempre el camino a la base de datos
+ * obtenerTodosConEntidades es el camino anterior (entidades administradas + conversión) para comparar
+ * con la proyección a DTO que usa el servicio
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductoServiceBenchmark {
+
+    private static final int LOTE_CARGA = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int filas;
+
+    private ConfigurableApplicationContext contexto;
+    private ProductoService productoService;
+    private ProductoRepository productoRepository;
+    private TransactionTemplate soloLectura;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(ProductosApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + filas + ";LOCK_TIMEOUT=10000",
+                        "spring.jpa.show-sql=false",
+                        "productos.cache.tamanio-maximo-categorias=0",
+                        "productos.bulk.maximo-items=" + LOTE_CARGA
+                )
+                .run();
+        productoService = contexto.getBean(ProductoService.class);
+        productoRepository = contexto.getBean(ProductoRepository.class);
+        soloLectura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        soloLectura.setReadOnly(true);
+
+        for (int desde = 0; desde < filas; desde += LOTE_CARGA) {
+            int hasta = Math.min(desde + LOTE_CARGA, filas);
+            List<ProductoDTO> lote = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                lote.add(DatosBenchmark.productoDTO(i));
+            }
+            productoService.crearProductosEnLote(lote);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> obtenerTodos() {
+        return productoService.obtenerTodos();
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> obtenerTodosConEntidades() {
+        return soloLectura.execute(estado -> productoRepository.findAll().stream()
+                .map(ProductoService::convertirEntidadAResponseDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> obtenerPorCategoria() {
+        return productoService.obtenerPorCategoria(Categoria.HOGAR);
+    }
+}
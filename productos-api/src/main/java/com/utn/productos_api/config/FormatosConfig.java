@@ -0,0 +1,38 @@
+package com.utn.productos_api.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.dto.ProductoResponseSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class FormatosConfig {
+
+    // Spring Boot registra los módulos en todos los builders: el serializador dedicado de ProductoResponseDTO
+    // se usa en JSON, CBOR, Smile y en los mensajes de cambios
+    @Bean
+    public Module productosJacksonModule() {
+        return new SimpleModule("productos")
+                .addSerializer(ProductoResponseDTO.class, new ProductoResponseSerializer());
+    }
+
+    // Formatos binarios para servicios internos, elegidos con el encabezado Accept (JSON sigue siendo el default)
+    // Cada builder es una instancia nueva con la misma configuración de Spring Boot que el ObjectMapper JSON
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
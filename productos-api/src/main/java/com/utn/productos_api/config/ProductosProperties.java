@@ -0,0 +1,251 @@
+package com.utn.productos_api.config;
+
+import com.utn.productos_api.dto.FormatoExportacion;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Propiedades configurables de la aplicación (prefijo "productos" en application.properties)
+// Se validan al arrancar: un valor fuera de rango impide iniciar en lugar de fallar con el tráfico
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "productos")
+public class ProductosProperties {
+
+    private Cache cache = new Cache();
+    private Bulk bulk = new Bulk();
+    private StockCaliente stockCaliente = new StockCaliente();
+    private Snapshot snapshot = new Snapshot();
+    private Replica replica = new Replica();
+    private Estadisticas estadisticas = new Estadisticas();
+    private Importacion importacion = new Importacion();
+    private Exportacion exportacion = new Exportacion();
+    private Cambios cambios = new Cambios();
+    @Valid
+    private Limites limites = new Limites();
+    private EscrituraDiferida escrituraDiferida = new EscrituraDiferida();
+    private ListadosCategoria listadosCategoria = new ListadosCategoria();
+
+    @Data
+    public static class Cache {
+
+        // Cantidad máxima de productos cacheados por ID
+        private long tamanioMaximo = 10_000;
+
+        // Cantidad máxima de productos sumando todas las listas cacheadas por categoría
+        private long tamanioMaximoCategorias = 50_000;
+
+        // Tiempo de vida de cada entrada desde que se cargó
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Bulk {
+
+        // Cantidad de productos persistidos por transacción
+        private int tamanioLote = 500;
+
+        // Cantidad máxima de productos aceptados en una sola solicitud
+        private int maximoItems = 10_000;
+    }
+
+    @Data
+    public static class StockCaliente {
+
+        // Habilita el stock en memoria para productos marcados (ventas flash)
+        private boolean habilitado = false;
+
+        // Productos marcados al iniciar la aplicación
+        private List<Long> ids = new ArrayList<>();
+
+        // Intervalo entre volcados de los deltas acumulados a la base de datos
+        private long intervaloVolcadoMs = 1000;
+
+        // Franjas por contador (0 = cantidad de procesadores)
+        private int franjas = 0;
+    }
+
+    @Data
+    public static class Snapshot {
+
+        // Archivo de la instantánea binaria del catálogo
+        private String archivo = "./data/productos.snapshot";
+
+        // Al iniciar, si la tabla está vacía y existe el archivo, se restaura el catálogo
+        private boolean restaurarAlIniciar = false;
+
+        // Cantidad de filas insertadas por transacción al restaurar
+        private int tamanioLote = 5_000;
+    }
+
+    @Data
+    public static class Replica {
+
+        // Mantiene una réplica columnar del catálogo en memoria para resolver las búsquedas
+        private boolean habilitada = false;
+    }
+
+    @Data
+    public static class Estadisticas {
+
+        // Intervalo entre reconciliaciones de los agregados contra la base de datos
+        private long intervaloReconciliacionMs = 300_000;
+    }
+
+    @Data
+    public static class Importacion {
+
+        // Directorio desde el que se pueden importar archivos locales
+        private String directorio = "./data/importaciones";
+
+        // Hilos que validan y persisten lotes en paralelo (0 = cantidad de procesadores, hasta 4)
+        private int paralelismo = 0;
+
+        // Importaciones que pueden correr a la vez; las demás se rechazan con 429. Cada hilo de lote
+        // toma una conexión del pool mientras persiste, así que maximoSimultaneas * paralelismo no
+        // debería superar spring.datasource.hikari.maximum-pool-size
+        private int maximoSimultaneas = 2;
+
+        // Lotes leídos en espera de ser procesados; al llenarse, la lectura se frena (0 = 2 por hilo)
+        private int capacidadCola = 0;
+
+        // Cantidad máxima de filas rechazadas que se detallan en el progreso
+        private int maximoErrores = 100;
+    }
+
+    @Data
+    public static class Exportacion {
+
+        // Directorio donde se escriben los volcados comprimidos del catálogo
+        private String directorio = "./data/exportaciones";
+
+        // Expresión cron del volcado programado ("-" lo deshabilita)
+        private String cron = "-";
+
+        // Formatos que genera el volcado programado
+        private List<FormatoExportacion> formatosProgramados = new ArrayList<>(List.of(FormatoExportacion.values()));
+
+        // Cantidad de volcados que se conservan por formato; los más viejos se borran
+        private int conservar = 7;
+    }
+
+    @Data
+    public static class Cambios {
+
+        // Ventana en la que se combinan los cambios de un mismo producto antes de enviarlos
+        private long ventanaMs = 250;
+
+        // Intervalo entre latidos enviados a las conexiones sin cambios
+        private long latidoMs = 15_000;
+
+        // Duración máxima de una conexión; al vencer, el cliente SSE se reconecta solo
+        private Duration timeout = Duration.ofMinutes(30);
+
+        // Hilos que escriben en las conexiones; un cliente que no lee bloquea solo uno
+        private int hilosEnvio = 4;
+
+        // Envíos encolados por suscriptor; si se superan, el cliente se considera lento y se desconecta
+        private int maximoEnviosPendientes = 32;
+    }
+
+    @Data
+    public static class Limites {
+
+        // Activa el límite por cliente y el descarte por sobrecarga en /api/**
+        // Detrás de un proxy requiere server.forward-headers-strategy, o todos los clientes comparten la IP del proxy
+        private boolean habilitado = false;
+
+        // Encabezado con la clave de API del cliente
+        private String encabezadoCliente = "X-API-Key";
+
+        // Claves de API válidas; una clave que no está acá se ignora y el cliente se identifica por su IP
+        private Set<String> clavesApi = new HashSet<>();
+
+        // Cantidad máxima de clientes con cubetas en memoria (los inactivos se descartan)
+        private long maximoClientes = 100_000;
+
+        // Lecturas puntuales: GET por ID, por lote, búsqueda de texto, etc.
+        @Valid
+        private Cubeta lecturas = new Cubeta(100, 200);
+
+        // Listados costosos: catálogo completo, categorías, búsqueda por criterios, exportaciones
+        @Valid
+        private Cubeta listados = new Cubeta(5, 10);
+
+        // Altas, modificaciones, bajas y movimientos de stock
+        @Valid
+        private Cubeta escrituras = new Cubeta(50, 100);
+
+        // Solicitudes en curso a partir de las cuales se responde 503 (0 = sin límite)
+        private int maximoEnCurso = 64;
+
+        // Listados en curso a partir de los cuales se responden 503, para reservar capacidad a las escrituras
+        private int maximoListadosEnCurso = 16;
+    }
+
+    @Data
+    public static class EscrituraDiferida {
+
+        // Permite aceptar con 202 las modificaciones enviadas con "Prefer: respond-async" y aplicarlas en lotes
+        private boolean habilitada = false;
+
+        // Cantidad máxima de productos distintos con escrituras pendientes; al llenarse se responde 503
+        private int capacidad = 10_000;
+
+        // Intervalo máximo entre aplicaciones de las escrituras pendientes
+        private long intervaloMs = 100;
+
+        // Cantidad de productos aplicados por transacción
+        private int tamanioLote = 500;
+
+        // Hilos que aplican lotes en paralelo
+        private int hilos = 2;
+
+        // Reintentos de una escritura que falló por un error transitorio (base caída, bloqueo, timeout)
+        private int maximoReintentos = 5;
+
+        // Espera antes del primer reintento; se duplica en cada intento
+        private long esperaReintentoMs = 200;
+
+        // Últimas escrituras descartadas que se conservan para consultarlas
+        private int descartesRetenidos = 100;
+    }
+
+    @Data
+    public static class ListadosCategoria {
+
+        // Sirve GET /categoria/{categoria} desde el JSON ya serializado (y comprimido) de cada categoría
+        private boolean habilitados = true;
+
+        // Espera tras un cambio antes de rearmar la categoría; los cambios de ese lapso se rearman juntos
+        private long demoraMs = 100;
+
+        // Una categoría cuyo JSON supera este tamaño no se guarda y se sirve por el camino normal
+        private int tamanioMaximoBytes = 16 * 1024 * 1024;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cubeta {
+
+        // Solicitudes por segundo sostenidas; con 0 o menos el intervalo entre solicitudes desbordaría
+        @Positive
+        private double porSegundo;
+
+        // Ráfaga máxima admitida por encima del ritmo sostenido
+        @Positive
+        private int capacidad;
+    }
+}
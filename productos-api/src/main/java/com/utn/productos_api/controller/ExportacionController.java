@@ -0,0 +1,146 @@
+package com.utn.productos_api.controller;
+
+import com.utn.productos_api.dto.ExportacionDTO;
+import com.utn.productos_api.dto.FormatoExportacion;
+import com.utn.productos_api.service.ExportacionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Controlador REST para los volcados completos del catálogo
+ * Genera archivos comprimidos y los sirve sin pasar su contenido por la aplicación
+ */
+@RestController
+@RequestMapping("/api/productos/exportaciones")
+@RequiredArgsConstructor
+@Tag(name = "Exportaciones", description = "Volcados completos del catálogo en CSV o NDJSON comprimidos")
+public class ExportacionController {
+
+    public static final String APPLICATION_GZIP_VALUE = "application/gzip";
+
+    // Atributos con los que Tomcat envía un archivo con sendfile (copia directa del archivo al socket)
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    private final ExportacionService exportacionService;
+
+    /**
+     * POST /api/productos/exportaciones - Generar un volcado del catálogo
+     */
+    @Operation(
+            summary = "Generar un volcado del catálogo",
+            description = "Escribe el catálogo completo en un archivo comprimido del directorio de exportaciones " +
+                    "(productos.exportacion.directorio). Las filas se leen con un cursor, por lo que la memoria " +
+                    "usada no depende del tamaño del catálogo. También puede programarse con productos.exportacion.cron."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Volcado generado exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ExportacionDTO.class)
+                    )
+            )
+    })
+    @PostMapping
+    public ResponseEntity<ExportacionDTO> exportar(
+            @Parameter(description = "Formato del volcado", example = "CSV")
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacion formato) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(exportacionService.exportar(formato));
+    }
+
+    /**
+     * GET /api/productos/exportaciones - Listar los volcados disponibles
+     */
+    @Operation(
+            summary = "Listar volcados",
+            description = "Devuelve los volcados disponibles, del más nuevo al más viejo"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Lista de volcados",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ExportacionDTO.class)
+            )
+    )
+    @GetMapping
+    public ResponseEntity<List<ExportacionDTO>> listar() {
+        return ResponseEntity.ok(exportacionService.listar());
+    }
+
+    /**
+     * GET /api/productos/exportaciones/{archivo} - Descargar un volcado
+     */
+    @Operation(
+            summary = "Descargar un volcado",
+            description = "Descarga el archivo comprimido tal como está en disco. Si el servidor lo permite se " +
+                    "envía con sendfile, sin copiarlo a la memoria de la aplicación. Admite el encabezado Range " +
+                    "para retomar descargas interrumpidas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Archivo del volcado",
+                    content = @Content(mediaType = APPLICATION_GZIP_VALUE)
+            ),
+            @ApiResponse(
+                    responseCode = "206",
+                    description = "Parte del archivo pedida con Range",
+                    content = @Content(mediaType = APPLICATION_GZIP_VALUE)
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Volcado no encontrado",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/{archivo}")
+    public ResponseEntity<Resource> descargar(
+            @Parameter(description = "Nombre del volcado", required = true,
+                    example = "productos-20250101-030000-000.csv.gz")
+            @PathVariable String archivo,
+            HttpServletRequest request) throws IOException {
+        Path ruta = exportacionService.obtenerArchivo(archivo);
+        long tamanio = Files.size(ruta);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(APPLICATION_GZIP_VALUE));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(archivo).build());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Descarga completa: Tomcat copia el archivo al socket con FileChannel.transferTo
+        if (request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            request.setAttribute(SENDFILE_ARCHIVO, ruta.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, 0L);
+            request.setAttribute(SENDFILE_FIN, tamanio);
+            return ResponseEntity.ok().headers(headers).contentLength(tamanio).build();
+        }
+
+        // Sin sendfile, o con Range: Spring responde las regiones pedidas (206) a partir del recurso
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(ruta));
+    }
+}
@@ -0,0 +1,163 @@
+package com.utn.productos_api.controller;
+
+import com.utn.productos_api.dto.FormatoImportacion;
+import com.utn.productos_api.dto.ImportacionDTO;
+import com.utn.productos_api.service.ImportacionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Controlador REST para importaciones masivas de productos
+ * Recibe archivos CSV o NDJSON y los procesa en streaming
+ */
+@RestController
+@RequestMapping("/api/productos/importaciones")
+@RequiredArgsConstructor
+@Tag(name = "Importaciones", description = "Carga masiva de productos desde CSV o NDJSON")
+public class ImportacionController {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ImportacionService importacionService;
+
+    /**
+     * POST /api/productos/importaciones - Importar el cuerpo de la solicitud
+     */
+    @Operation(
+            summary = "Importar productos",
+            description = "Importa el CSV (text/csv) o NDJSON (application/x-ndjson) enviado en el cuerpo. " +
+                    "El CSV necesita encabezado con las columnas nombre, precio, stock y categoria " +
+                    "(descripcion e id son opcionales). Las filas con id actualizan ese producto y las demás " +
+                    "crean uno nuevo. Las filas inválidas se rechazan sin cortar la importación; un encabezado " +
+                    "incompleto o un registro ilegible la dejan en estado FALLIDA."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importación terminada; incluye los contadores y las filas rechazadas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportacionDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Ya corren las importaciones simultáneas permitidas " +
+                            "(productos.importacion.maximo-simultaneas)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping(consumes = {TEXT_CSV_VALUE, ProductoController.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportacionDTO> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipo,
+            InputStream cuerpo) throws IOException {
+        FormatoImportacion formato = MediaType.valueOf(TEXT_CSV_VALUE).includes(tipo)
+                ? FormatoImportacion.CSV
+                : FormatoImportacion.NDJSON;
+        try (cuerpo) {
+            return ResponseEntity.ok(importacionService.importar(cuerpo, formato));
+        }
+    }
+
+    /**
+     * POST /api/productos/importaciones/archivo - Importar un archivo del servidor en segundo plano
+     */
+    @Operation(
+            summary = "Importar un archivo del servidor",
+            description = "Inicia la importación de un archivo ubicado en el directorio de importaciones " +
+                    "(productos.importacion.directorio) y responde enseguida. El progreso se consulta por ID."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Importación iniciada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportacionDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Ruta fuera del directorio, archivo inexistente o formato desconocido",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Ya corren las importaciones simultáneas permitidas " +
+                            "(productos.importacion.maximo-simultaneas)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/archivo")
+    public ResponseEntity<ImportacionDTO> importarArchivo(
+            @Parameter(description = "Ruta del archivo, relativa al directorio de importaciones", required = true)
+            @RequestParam String ruta,
+            @Parameter(description = "Formato del archivo; si se omite se deduce de la extensión")
+            @RequestParam(required = false) FormatoImportacion formato) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importacionService.importarArchivo(ruta, formato));
+    }
+
+    /**
+     * GET /api/productos/importaciones/{id} - Consultar una importación
+     */
+    @Operation(
+            summary = "Consultar una importación",
+            description = "Devuelve el estado y el progreso de una importación"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importación encontrada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ImportacionDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Importación no encontrada",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportacionDTO> obtener(
+            @Parameter(description = "ID de la importación", required = true)
+            @PathVariable String id) {
+        return ResponseEntity.ok(importacionService.obtener(id));
+    }
+
+    /**
+     * GET /api/productos/importaciones - Listar las importaciones recientes
+     */
+    @Operation(
+            summary = "Listar importaciones",
+            description = "Devuelve las importaciones recientes, de la más nueva a la más vieja"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Lista de importaciones",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ImportacionDTO.class)
+            )
+    )
+    @GetMapping
+    public ResponseEntity<List<ImportacionDTO>> listar() {
+        return ResponseEntity.ok(importacionService.listar());
+    }
+}
@@ -1,10 +1,33 @@
 package com.utn.productos_api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.utn.productos_api.dto.ActualizarProductoLoteDTO;
 import com.utn.productos_api.dto.ActualizarStockDTO;
+import com.utn.productos_api.dto.CacheEstadisticasDTO;
+import com.utn.productos_api.dto.CambioProductoDTO;
+import com.utn.productos_api.dto.CampoProducto;
+import com.utn.productos_api.dto.EscrituraDescartadaDTO;
+import com.utn.productos_api.dto.EstadisticasCatalogoDTO;
+import com.utn.productos_api.dto.FiltroBusquedaDTO;
+import com.utn.productos_api.dto.LoteProductosDTO;
+import com.utn.productos_api.dto.MovimientoStockDTO;
+import com.utn.productos_api.dto.PaginaProductosDTO;
 import com.utn.productos_api.dto.ProductoDTO;
 import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.dto.ResultadoBusquedaDTO;
+import com.utn.productos_api.dto.ResultadoLoteDTO;
+import com.utn.productos_api.dto.SnapshotDTO;
+import com.utn.productos_api.exception.SolicitudInvalidaException;
 import com.utn.productos_api.model.Categoria;
+import com.utn.productos_api.service.CanalCambios;
+import com.utn.productos_api.service.EscrituraDiferida;
+import com.utn.productos_api.service.EstadisticasCatalogo;
+import com.utn.productos_api.service.ListadosCategoriaSerializados;
+import com.utn.productos_api.service.ProductoCache;
 import com.utn.productos_api.service.ProductoService;
+import com.utn.productos_api.service.SnapshotService;
+import com.utn.productos_api.service.VersionCatalogo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,11 +37,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para gestión de productos
@@ -30,14 +66,48 @@ import java.util.List;
 @Tag(name = "Productos", description = "API para gestión de productos del e-commerce")
 public class ProductoController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final String FORMATOS_DESCRIPCION = "Con Accept: application/cbor o " +
+            "application/x-jackson-smile responde en formato binario (más compacto y rápido de procesar); " +
+            "con Accept-Encoding: gzip las respuestas grandes se comprimen.";
+
+    private static final String CAMPOS_DESCRIPCION = "Campos a devolver, separados por coma " +
+            "(id, nombre, descripcion, precio, stock, categoria, version, actualizadoEn)";
+
+    // Preferencia con la que el cliente pide que una modificación se acepte y se aplique después (RFC 7240)
+    private static final String PREFER_ASINCRONICO = "respond-async";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+    private static final String ESCRITURA_DIFERIDA_DESCRIPCION = "Con Prefer: respond-async (y " +
+            "productos.escritura-diferida.habilitada=true) la modificación se acepta con 202 sin esperar a la base: " +
+            "se combina con las demás pendientes del mismo producto y se aplica en lotes pocos milisegundos " +
+            "después. Ante un error transitorio se reintenta con espera creciente; si el producto no existe, " +
+            "los datos son inválidos o se agotan los reintentos, se descarta y se informa en " +
+            "GET /api/productos/escrituras-diferidas/descartes.";
+
+    private static final String IF_MATCH_DESCRIPCION = "Con If-Match (ETag de un GET anterior) solo se aplica " +
+            "si el producto no cambió desde entonces; si cambió responde 412. La escritura es un único UPDATE " +
+            "condicionado por la versión, sin bloquear la fila. Una modificación con If-Match nunca se difiere.";
+
     private final ProductoService productoService;
+    private final ProductoCache productoCache;
+    private final ObjectMapper objectMapper;
+    private final VersionCatalogo versionCatalogo;
+    private final SnapshotService snapshotService;
+    private final EstadisticasCatalogo estadisticasCatalogo;
+    private final CanalCambios canalCambios;
+    private final EscrituraDiferida escrituraDiferida;
+    private final ListadosCategoriaSerializados listadosCategoria;
 
     /**
      * GET /api/productos - Listar todos los productos
      */
     @Operation(
             summary = "Listar todos los productos",
-            description = "Obtiene una lista completa de todos los productos disponibles en el sistema"
+            description = "Obtiene una lista completa de todos los productos disponibles en el sistema. " +
+                    "Admite If-None-Match: si el catálogo no cambió responde 304 sin cuerpo. " +
+                    FORMATOS_DESCRIPCION
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -47,12 +117,228 @@ public class ProductoController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = ProductoResponseDTO.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El catálogo no cambió desde el ETag enviado"
             )
     })
     @GetMapping
-    public ResponseEntity<List<ProductoResponseDTO>> listarTodos() {
+    public ResponseEntity<List<ProductoResponseDTO>> listarTodos(WebRequest request) {
+        // La versión se lee antes de cargar: si cambia en el medio, el ETag queda viejo y el cliente vuelve a pedir
+        String etag = versionCatalogo.etagTodos();
+        long ultimoCambio = versionCatalogo.ultimoCambioTodos();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(ultimoCambio).build();
+        }
         List<ProductoResponseDTO> productos = productoService.obtenerTodos();
-        return ResponseEntity.ok(productos);
+        return ResponseEntity.ok().eTag(etag).lastModified(ultimoCambio).body(productos);
+    }
+
+    /**
+     * GET /api/productos?campos={campos} - Listar todos los productos con solo algunos campos
+     */
+    @Operation(
+            summary = "Listar todos los productos (solo algunos campos)",
+            description = "Igual que GET /api/productos, pero cada producto trae solo los campos pedidos " +
+                    "(por ejemplo campos=id,precio,stock). La consulta selecciona solo esas columnas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lista de productos obtenida exitosamente",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El catálogo no cambió desde el ETag enviado"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Campo desconocido",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping(params = {"campos", "!limit", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> listarTodosProyectados(
+            @Parameter(description = CAMPOS_DESCRIPCION, required = true, example = "id,precio,stock")
+            @RequestParam String campos,
+            WebRequest request) {
+        Set<CampoProducto> seleccion = productoService.parsearCampos(campos);
+        String etag = versionCatalogo.etagTodos() + sufijoEtag(seleccion);
+        long ultimoCambio = versionCatalogo.ultimoCambioTodos();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(ultimoCambio).build();
+        }
+        List<Map<String, Object>> productos = productoService.obtenerTodosProyectados(seleccion);
+        return ResponseEntity.ok().eTag(etag).lastModified(ultimoCambio).body(productos);
+    }
+
+    /**
+     * GET /api/productos?after={id}&limit={n} - Listar productos paginados por cursor
+     */
+    @Operation(
+            summary = "Listar productos paginados",
+            description = "Obtiene una página de productos ordenados por ID usando paginación por cursor. " +
+                    "Para pedir la página siguiente se envía en 'after' el valor de 'siguienteCursor'."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de productos obtenida exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaProductosDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Límite fuera de rango o 'campos' (las páginas no admiten proyecciones)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping(params = "limit")
+    public ResponseEntity<PaginaProductosDTO> listarPagina(
+            @Parameter(description = "ID del último producto recibido (vacío para la primera página)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Cantidad máxima de productos por página (1 a 1000)", example = "50")
+            @RequestParam int limit,
+            @Parameter(hidden = true)
+            @RequestParam(required = false) String campos) {
+        rechazarCampos(campos, "limit");
+        PaginaProductosDTO pagina = productoService.obtenerPagina(after, limit);
+        return ResponseEntity.ok(pagina);
+    }
+
+    /**
+     * GET /api/productos?ids={ids} - Obtener varios productos por ID
+     */
+    @Operation(
+            summary = "Obtener varios productos por ID",
+            description = "Resuelve hasta 1000 IDs en una sola solicitud y una sola consulta a la base " +
+                    "(los productos en caché no se consultan). Respeta el orden de los IDs pedidos e informa " +
+                    "los inexistentes en 'idsInexistentes' en lugar de responder 404."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Productos obtenidos exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LoteProductosDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lista vacía, con más de 1000 IDs o con 'campos' (no admite proyecciones)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping(params = {"ids", "!limit"})
+    public ResponseEntity<LoteProductosDTO> obtenerPorIds(
+            @Parameter(description = "IDs separados por coma", required = true, example = "3,1,2")
+            @RequestParam List<Long> ids,
+            @Parameter(hidden = true)
+            @RequestParam(required = false) String campos) {
+        rechazarCampos(campos, "ids");
+        return ResponseEntity.ok(productoService.obtenerPorIds(ids));
+    }
+
+    /**
+     * POST /api/productos/lote - Obtener varios productos por ID (IDs en el cuerpo)
+     */
+    @Operation(
+            summary = "Obtener varios productos por ID (POST)",
+            description = "Igual que GET /api/productos?ids=, para listas de IDs que no entran en la URL"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Productos obtenidos exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LoteProductosDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lista vacía, con más de 1000 IDs o con IDs nulos",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<LoteProductosDTO> obtenerPorIdsEnLote(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productoService.obtenerPorIds(ids));
+    }
+
+    /**
+     * GET /api/productos/stream - Exportar todos los productos como NDJSON
+     */
+    @Operation(
+            summary = "Exportar todos los productos (NDJSON)",
+            description = "Devuelve el catálogo completo, un producto JSON por línea. " +
+                    "Las filas se escriben a medida que se leen de la base de datos, " +
+                    "por lo que el uso de memoria no depende del tamaño del catálogo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Catálogo exportado exitosamente",
+                    content = @Content(mediaType = APPLICATION_NDJSON_VALUE)
+            )
+    })
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        ObjectWriter writer = objectMapper.writerFor(ProductoResponseDTO.class);
+        StreamingResponseBody cuerpo = outputStream ->
+                productoService.recorrerTodos(producto -> {
+                    try {
+                        outputStream.write(writer.writeValueAsBytes(producto));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(cuerpo);
+    }
+
+    /**
+     * GET /api/productos/cambios - Suscribirse a los cambios de productos (SSE)
+     */
+    @Operation(
+            summary = "Canal de cambios de productos (SSE)",
+            description = "Mantiene abierta una conexión server-sent events y envía los cambios confirmados " +
+                    "(altas, modificaciones, stock y bajas). Cada evento 'cambios' trae un arreglo JSON con los " +
+                    "productos que cambiaron en la última ventana; si un producto cambió varias veces, llega una " +
+                    "sola vez con su estado final. Filtrable por IDs y/o categorías (se combinan con O). " +
+                    "Reemplaza el sondeo periódico de GET /api/productos/{id}."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Suscripción abierta",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = CambioProductoDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Demasiados IDs o categoría inválida",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping(value = "/cambios", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirCambios(
+            @Parameter(description = "IDs de productos a seguir", example = "1,2,3")
+            @RequestParam(required = false) Set<Long> ids,
+            @Parameter(description = "Categorías a seguir", example = "ELECTRONICA")
+            @RequestParam(required = false) Set<Categoria> categorias) {
+        return canalCambios.suscribir(
+                ids != null ? ids : Set.of(),
+                categorias != null ? categorias : Set.of());
     }
 
     /**
@@ -60,7 +346,8 @@ public class ProductoController {
      */
     @Operation(
             summary = "Obtener producto por ID",
-            description = "Busca y retorna un producto específico mediante su identificador único"
+            description = "Busca y retorna un producto específico mediante su identificador único. " +
+                    "Admite If-None-Match: si el producto no cambió responde 304 sin cuerpo."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -71,6 +358,10 @@ public class ProductoController {
                             schema = @Schema(implementation = ProductoResponseDTO.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El producto no cambió desde el ETag enviado"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Producto no encontrado",
@@ -80,9 +371,63 @@ public class ProductoController {
     @GetMapping("/{id}")
     public ResponseEntity<ProductoResponseDTO> obtenerPorId(
             @Parameter(description = "ID del producto a buscar", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Un solo acceso (a la caché o, ante un fallo, una consulta): el ETag sale del mismo DTO que se responde
         ProductoResponseDTO producto = productoService.obtenerPorId(id);
-        return ResponseEntity.ok(producto);
+        String etag = productoService.calcularEtag(producto);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().eTag(etag);
+        if (producto.getActualizadoEn() != null) {
+            respuesta.lastModified(producto.getActualizadoEn().atZone(ZoneId.systemDefault()));
+        }
+        return respuesta.body(producto);
+    }
+
+    /**
+     * GET /api/productos/{id}?campos={campos} - Obtener producto por ID con solo algunos campos
+     */
+    @Operation(
+            summary = "Obtener producto por ID (solo algunos campos)",
+            description = "Igual que GET /api/productos/{id}, pero devuelve solo los campos pedidos"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Producto encontrado exitosamente",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El producto no cambió desde el ETag enviado"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Campo desconocido",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping(value = "/{id}", params = "campos")
+    public ResponseEntity<Map<String, Object>> obtenerPorIdProyectado(
+            @Parameter(description = "ID del producto a buscar", required = true)
+            @PathVariable Long id,
+            @Parameter(description = CAMPOS_DESCRIPCION, required = true, example = "id,precio,stock")
+            @RequestParam String campos,
+            WebRequest request) {
+        Set<CampoProducto> seleccion = productoService.parsearCampos(campos);
+        // Como en los listados, el ETag se calcula antes de leer: a lo sumo etiqueta datos nuevos con uno viejo
+        String etag = productoService.calcularEtag(id) + sufijoEtag(seleccion);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(productoService.obtenerPorIdProyectado(id, seleccion));
     }
 
     /**
@@ -90,7 +435,11 @@ public class ProductoController {
      */
     @Operation(
             summary = "Filtrar productos por categoría",
-            description = "Obtiene todos los productos que pertenecen a una categoría específica"
+            description = "Obtiene todos los productos que pertenecen a una categoría específica. " +
+                    "Admite If-None-Match: si la categoría no cambió responde 304 sin cuerpo. " +
+                    "En JSON, el listado de cada categoría se mantiene ya serializado y comprimido: se envía " +
+                    "sin consultar la base mientras la categoría no cambie. " +
+                    FORMATOS_DESCRIPCION
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -100,16 +449,156 @@ public class ProductoController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = ProductoResponseDTO.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "La categoría no cambió desde el ETag enviado"
             )
     })
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<List<ProductoResponseDTO>> obtenerPorCategoria(
+    public ResponseEntity<?> obtenerPorCategoria(
             @Parameter(
                     description = "Categoría a filtrar (ELECTRONICA, ROPA, ALIMENTOS, HOGAR, DEPORTES)",
                     required = true
             )
-            @PathVariable Categoria categoria) {
+            @PathVariable Categoria categoria,
+            WebRequest request) {
+        String etagCategoria = versionCatalogo.etagCategoria(categoria);
+        long ultimoCambio = versionCatalogo.ultimoCambioCategoria(categoria);
+        // Un ETag fuerte identifica los bytes: el cuerpo comprimido lleva uno propio. JSON, CBOR y Smile
+        // comparten el de la categoría y las cachés los separan por Vary: Accept
+        boolean gzip = aceptaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? etagCategoria + "-gz" : etagCategoria;
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(ultimoCambio)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        // Listado ya serializado para el mismo ETag: se envían los bytes tal cual (ya comprimidos si corresponde)
+        ListadosCategoriaSerializados.Listado listado = respondeJson(request.getHeader(HttpHeaders.ACCEPT))
+                ? listadosCategoria.obtener(categoria, etagCategoria) : null;
+        if (listado != null) {
+            ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().eTag(etag).lastModified(ultimoCambio)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                // Con Content-Encoding ya presente, Tomcat no vuelve a comprimir
+                return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listado.gzip());
+            }
+            return respuesta.body(listado.json());
+        }
+
         List<ProductoResponseDTO> productos = productoService.obtenerPorCategoria(categoria);
+        return ResponseEntity.ok().eTag(etag).lastModified(ultimoCambio)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .body(productos);
+    }
+
+    /**
+     * GET /api/productos/categoria/{categoria}?campos={campos} - Filtrar por categoría con solo algunos campos
+     */
+    @Operation(
+            summary = "Filtrar productos por categoría (solo algunos campos)",
+            description = "Igual que GET /api/productos/categoria/{categoria}, pero cada producto trae solo " +
+                    "los campos pedidos. La consulta selecciona solo esas columnas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Productos filtrados exitosamente",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "La categoría no cambió desde el ETag enviado"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Campo desconocido",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping(value = "/categoria/{categoria}", params = "campos")
+    public ResponseEntity<List<Map<String, Object>>> obtenerPorCategoriaProyectados(
+            @Parameter(
+                    description = "Categoría a filtrar (ELECTRONICA, ROPA, ALIMENTOS, HOGAR, DEPORTES)",
+                    required = true
+            )
+            @PathVariable Categoria categoria,
+            @Parameter(description = CAMPOS_DESCRIPCION, required = true, example = "id,precio,stock")
+            @RequestParam String campos,
+            WebRequest request) {
+        Set<CampoProducto> seleccion = productoService.parsearCampos(campos);
+        String etag = versionCatalogo.etagCategoria(categoria) + sufijoEtag(seleccion);
+        long ultimoCambio = versionCatalogo.ultimoCambioCategoria(categoria);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(ultimoCambio).build();
+        }
+        List<Map<String, Object>> productos = productoService.obtenerPorCategoriaProyectados(categoria, seleccion);
+        return ResponseEntity.ok().eTag(etag).lastModified(ultimoCambio).body(productos);
+    }
+
+    /**
+     * GET /api/productos/buscar - Búsqueda por múltiples criterios
+     */
+    @Operation(
+            summary = "Buscar productos",
+            description = "Busca productos combinando rango de precios, solo con stock, conjunto de categorías " +
+                    "y prefijo del nombre. Los resultados se devuelven paginados y ordenados."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Búsqueda realizada exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoBusquedaDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Criterios inválidos (rango de precios u orden)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/buscar")
+    public ResponseEntity<ResultadoBusquedaDTO> buscar(@ParameterObject FiltroBusquedaDTO filtro) {
+        ResultadoBusquedaDTO resultado = productoService.buscar(filtro);
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * GET /api/productos/search?q= - Búsqueda de texto libre
+     */
+    @Operation(
+            summary = "Buscar productos por texto",
+            description = "Busca palabras en el nombre y la descripción de los productos, sin distinguir " +
+                    "acentos ni mayúsculas y aceptando prefijos (por ejemplo 'zapat' encuentra 'zapatillas'). " +
+                    "Los resultados se ordenan por relevancia; las coincidencias en el nombre pesan más."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Búsqueda realizada exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Consulta vacía",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductoResponseDTO>> buscarTexto(
+            @Parameter(description = "Texto a buscar", required = true, example = "zapatillas running")
+            @RequestParam("q") String consulta,
+            @Parameter(description = "Cantidad máxima de resultados (1 a 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limite) {
+        List<ProductoResponseDTO> productos = productoService.buscarTexto(consulta, limite);
         return ResponseEntity.ok(productos);
     }
 
@@ -144,13 +633,77 @@ public class ProductoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productoCreado);
     }
 
+    /**
+     * POST /api/productos/bulk - Crear productos en forma masiva
+     */
+    @Operation(
+            summary = "Crear productos en forma masiva",
+            description = "Crea muchos productos en una sola solicitud. Cada producto se valida por separado " +
+                    "y se persiste en transacciones por lotes con batch inserts. " +
+                    "La respuesta informa el resultado de cada elemento y el rendimiento medido."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote procesado (revisar el resultado de cada elemento)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoLoteDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lista vacía o con más elementos de los permitidos",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<ResultadoLoteDTO> crearProductosEnLote(
+            @Parameter(description = "Productos a crear", required = true)
+            @RequestBody List<ProductoDTO> productos) {
+        ResultadoLoteDTO resultado = productoService.crearProductosEnLote(productos);
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * PUT /api/productos/bulk - Actualizar productos en forma masiva
+     */
+    @Operation(
+            summary = "Actualizar productos en forma masiva",
+            description = "Actualiza completamente muchos productos en una sola solicitud. " +
+                    "Los IDs inexistentes o los datos inválidos se informan por elemento sin afectar al resto."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote procesado (revisar el resultado de cada elemento)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoLoteDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lista vacía o con más elementos de los permitidos",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PutMapping("/bulk")
+    public ResponseEntity<ResultadoLoteDTO> actualizarProductosEnLote(
+            @Parameter(description = "IDs y nuevos datos de los productos", required = true)
+            @RequestBody List<ActualizarProductoLoteDTO> actualizaciones) {
+        ResultadoLoteDTO resultado = productoService.actualizarProductosEnLote(actualizaciones);
+        return ResponseEntity.ok(resultado);
+    }
+
     /**
      * PUT /api/productos/{id} - Actualizar producto completo
      */
     @Operation(
             summary = "Actualizar producto completo",
             description = "Actualiza todos los datos de un producto existente. " +
-                    "Se debe enviar el objeto completo con todos los campos."
+                    "Se debe enviar el objeto completo con todos los campos. " + IF_MATCH_DESCRIPCION + " " +
+                    ESCRITURA_DIFERIDA_DESCRIPCION
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -161,11 +714,25 @@ public class ProductoController {
                             schema = @Schema(implementation = ProductoResponseDTO.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Modificación aceptada para aplicarse en diferido (Prefer: respond-async)"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Demasiadas escrituras diferidas pendientes; reintentar según Retry-After",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Producto no encontrado",
                     content = @Content(mediaType = "application/json")
             ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "El producto cambió desde el ETag enviado en If-Match",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Datos de entrada inválidos",
@@ -177,9 +744,18 @@ public class ProductoController {
             @Parameter(description = "ID del producto a actualizar", required = true)
             @PathVariable Long id,
             @Parameter(description = "Nuevos datos del producto", required = true)
-            @Valid @RequestBody ProductoDTO productoDTO) {
-        ProductoResponseDTO productoActualizado = productoService.actualizarProducto(id, productoDTO);
-        return ResponseEntity.ok(productoActualizado);
+            @Valid @RequestBody ProductoDTO productoDTO,
+            @Parameter(description = "ETag que debe tener el producto para aplicar la modificación")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "respond-async para aplicar la modificación en diferido")
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        String etagEsperado = etagDeIfMatch(ifMatch);
+        if (etagEsperado == null && diferir(prefer)) {
+            escrituraDiferida.actualizarProducto(id, productoDTO);
+            return aceptada(id);
+        }
+        ProductoResponseDTO productoActualizado = productoService.actualizarProducto(id, productoDTO, etagEsperado);
+        return ResponseEntity.ok().eTag(productoService.calcularEtag(productoActualizado)).body(productoActualizado);
     }
 
     /**
@@ -189,7 +765,8 @@ public class ProductoController {
             summary = "Actualizar stock del producto",
             description = "Actualiza únicamente el stock de un producto existente, " +
                     "dejando el resto de los datos sin modificar. " +
-                    "Útil para operaciones de inventario."
+                    "Útil para operaciones de inventario. " + IF_MATCH_DESCRIPCION + " " +
+                    ESCRITURA_DIFERIDA_DESCRIPCION
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -200,11 +777,25 @@ public class ProductoController {
                             schema = @Schema(implementation = ProductoResponseDTO.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Modificación aceptada para aplicarse en diferido (Prefer: respond-async)"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Demasiadas escrituras diferidas pendientes; reintentar según Retry-After",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Producto no encontrado",
                     content = @Content(mediaType = "application/json")
             ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "El producto cambió desde el ETag enviado en If-Match",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Stock inválido (debe ser mayor o igual a 0)",
@@ -216,9 +807,182 @@ public class ProductoController {
             @Parameter(description = "ID del producto", required = true)
             @PathVariable Long id,
             @Parameter(description = "Nuevo valor del stock", required = true)
-            @Valid @RequestBody ActualizarStockDTO stockDTO) {
-        ProductoResponseDTO productoActualizado = productoService.actualizarStock(id, stockDTO);
-        return ResponseEntity.ok(productoActualizado);
+            @Valid @RequestBody ActualizarStockDTO stockDTO,
+            @Parameter(description = "ETag que debe tener el producto para aplicar la modificación")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "respond-async para aplicar la modificación en diferido")
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        String etagEsperado = etagDeIfMatch(ifMatch);
+        if (etagEsperado == null && diferir(prefer)) {
+            escrituraDiferida.actualizarStock(id, stockDTO.getStock());
+            return aceptada(id);
+        }
+        ProductoResponseDTO productoActualizado = productoService.actualizarStock(id, stockDTO, etagEsperado);
+        return ResponseEntity.ok().eTag(productoService.calcularEtag(productoActualizado)).body(productoActualizado);
+    }
+
+    /**
+     * POST /api/productos/{id}/stock/reservar - Reservar unidades de stock
+     */
+    @Operation(
+            summary = "Reservar stock del producto",
+            description = "Descuenta unidades del stock de forma atómica. " +
+                    "Si el stock disponible no alcanza, la reserva se rechaza sin modificar el producto."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stock reservado exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Stock insuficiente",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cantidad inválida (debe ser mayor a 0)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/{id}/stock/reservar")
+    public ResponseEntity<ProductoResponseDTO> reservarStock(
+            @Parameter(description = "ID del producto", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Cantidad a reservar", required = true)
+            @Valid @RequestBody MovimientoStockDTO movimientoDTO) {
+        ProductoResponseDTO producto = productoService.reservarStock(id, movimientoDTO.getCantidad());
+        return ResponseEntity.ok(producto);
+    }
+
+    /**
+     * POST /api/productos/{id}/stock/liberar - Liberar unidades de stock
+     */
+    @Operation(
+            summary = "Liberar stock del producto",
+            description = "Devuelve al stock unidades previamente reservadas, de forma atómica. " +
+                    "En diferido, las devoluciones pendientes del mismo producto se suman. " +
+                    ESCRITURA_DIFERIDA_DESCRIPCION
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stock liberado exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Modificación aceptada para aplicarse en diferido (Prefer: respond-async)"
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Demasiadas escrituras diferidas pendientes; reintentar según Retry-After",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cantidad inválida (debe ser mayor a 0)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/{id}/stock/liberar")
+    public ResponseEntity<ProductoResponseDTO> liberarStock(
+            @Parameter(description = "ID del producto", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Cantidad a liberar", required = true)
+            @Valid @RequestBody MovimientoStockDTO movimientoDTO,
+            @Parameter(description = "respond-async para aplicar la modificación en diferido")
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (diferir(prefer)) {
+            escrituraDiferida.liberarStock(id, movimientoDTO.getCantidad());
+            return aceptada(id);
+        }
+        ProductoResponseDTO producto = productoService.liberarStock(id, movimientoDTO.getCantidad());
+        return ResponseEntity.ok(producto);
+    }
+
+    /**
+     * POST /api/productos/{id}/stock/caliente - Activar stock en caliente
+     */
+    @Operation(
+            summary = "Activar stock en caliente",
+            description = "Marca el producto para que su stock se sirva desde contadores en memoria. " +
+                    "Las reservas se resuelven sin tocar la base de datos y los cambios se vuelcan " +
+                    "periódicamente en lotes. Pensado para productos con mucho tráfico (ventas flash)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stock en caliente activado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "El modo de stock en caliente está deshabilitado",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/{id}/stock/caliente")
+    public ResponseEntity<ProductoResponseDTO> activarStockEnCaliente(
+            @Parameter(description = "ID del producto", required = true)
+            @PathVariable Long id) {
+        ProductoResponseDTO producto = productoService.activarStockEnCaliente(id);
+        return ResponseEntity.ok(producto);
+    }
+
+    /**
+     * DELETE /api/productos/{id}/stock/caliente - Desactivar stock en caliente
+     */
+    @Operation(
+            summary = "Desactivar stock en caliente",
+            description = "Vuelca a la base de datos los cambios pendientes y vuelve a leer el stock desde ella."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stock en caliente desactivado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Producto no encontrado",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @DeleteMapping("/{id}/stock/caliente")
+    public ResponseEntity<ProductoResponseDTO> desactivarStockEnCaliente(
+            @Parameter(description = "ID del producto", required = true)
+            @PathVariable Long id) {
+        ProductoResponseDTO producto = productoService.desactivarStockEnCaliente(id);
+        return ResponseEntity.ok(producto);
     }
 
     /**
@@ -247,4 +1011,187 @@ public class ProductoController {
         productoService.eliminarProducto(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * GET /api/productos/estadisticas - Agregados del catálogo por categoría
+     */
+    @Operation(
+            summary = "Estadísticas del catálogo",
+            description = "Devuelve, por categoría y en total, cantidad de productos, stock total, valor del stock, " +
+                    "precios mínimo, máximo y promedio y productos sin stock. Los agregados se mantienen " +
+                    "a medida que cambian los productos, por lo que la respuesta no depende del tamaño del catálogo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estadísticas obtenidas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = EstadisticasCatalogoDTO.class)
+                    )
+            )
+    })
+    @GetMapping("/estadisticas")
+    public ResponseEntity<EstadisticasCatalogoDTO> obtenerEstadisticas() {
+        return ResponseEntity.ok(estadisticasCatalogo.obtener());
+    }
+
+    /**
+     * GET /api/productos/cache/estadisticas - Métricas de la caché de lectura
+     */
+    @Operation(
+            summary = "Métricas de la caché de productos",
+            description = "Devuelve aciertos, fallos, desalojos y tamaño de las cachés por ID y por categoría"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Métricas obtenidas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CacheEstadisticasDTO.class)
+                    )
+            )
+    })
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<List<CacheEstadisticasDTO>> obtenerEstadisticasCache() {
+        return ResponseEntity.ok(productoCache.obtenerEstadisticas());
+    }
+
+    /**
+     * GET /api/productos/escrituras-diferidas/descartes - Escrituras diferidas que no se pudieron aplicar
+     */
+    @Operation(
+            summary = "Escrituras diferidas descartadas",
+            description = "Devuelve las últimas escrituras aceptadas con 202 que se descartaron al aplicarse " +
+                    "(producto inexistente, datos inválidos o reintentos agotados), " +
+                    "de la más antigua a la más reciente"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Descartes obtenidos exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = EscrituraDescartadaDTO.class)
+                    )
+            )
+    })
+    @GetMapping("/escrituras-diferidas/descartes")
+    public ResponseEntity<List<EscrituraDescartadaDTO>> obtenerEscriturasDescartadas() {
+        return ResponseEntity.ok(escrituraDiferida.descartes());
+    }
+
+    /**
+     * POST /api/productos/snapshot - Exportar la instantánea binaria del catálogo
+     */
+    @Operation(
+            summary = "Exportar instantánea del catálogo",
+            description = "Escribe todos los productos en el archivo de instantánea configurado " +
+                    "(productos.snapshot.archivo). Un nodo que arranca con la tabla vacía la restaura " +
+                    "automáticamente si productos.snapshot.restaurar-al-iniciar está activo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Instantánea exportada exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SnapshotDTO.class)
+                    )
+            )
+    })
+    @PostMapping("/snapshot")
+    public ResponseEntity<SnapshotDTO> exportarSnapshot() {
+        return ResponseEntity.ok(snapshotService.exportar());
+    }
+
+    /**
+     * Sufijo que distingue el ETag de cada proyección del de la representación completa
+     */
+    private static String sufijoEtag(Set<CampoProducto> campos) {
+        int mascara = 0;
+        for (CampoProducto campo : campos) {
+            mascara |= 1 << campo.ordinal();
+        }
+        return "-f" + Integer.toString(mascara, 36);
+    }
+
+    /**
+     * Indica si la modificación se acepta para aplicarse en diferido
+     */
+    private boolean diferir(String prefer) {
+        return prefer != null && prefer.contains(PREFER_ASINCRONICO) && escrituraDiferida.estaHabilitada();
+    }
+
+    /**
+     * ETag enviado en If-Match, sin comillas; null si no se envió
+     * Un ETag débil (W/) queda tal cual y nunca coincide: If-Match usa comparación fuerte
+     */
+    private static String etagDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.contains(",")) {
+            throw new SolicitudInvalidaException("If-Match admite un único ETag");
+        }
+        if (etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            etag = etag.substring(1, etag.length() - 1);
+        }
+        return etag;
+    }
+
+    /**
+     * Indica si la respuesta va en JSON: sin Accept, o con uno que admite JSON y no pide un formato binario
+     */
+    private static boolean respondeJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> tipos = MediaType.parseMediaTypes(accept);
+            boolean admiteJson = tipos.stream()
+                    .anyMatch(tipo -> tipo.includes(MediaType.APPLICATION_JSON) && tipo.getQualityValue() > 0);
+            boolean pideBinario = tipos.stream()
+                    .anyMatch(tipo -> tipo.getSubtype().equals("cbor") || tipo.getSubtype().equals("x-jackson-smile"));
+            return admiteJson && !pideBinario;
+        } catch (InvalidMediaTypeException e) {
+            // El camino normal responde el error que corresponda
+            return false;
+        }
+    }
+
+    /**
+     * Indica si el cliente acepta gzip (Accept-Encoding: gzip, sin q=0)
+     */
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Las páginas y los lotes por ID no admiten proyecciones: en lugar de ignorar 'campos' y devolver
+     * productos completos, se rechaza la solicitud
+     */
+    private static void rechazarCampos(String campos, String parametro) {
+        if (campos != null) {
+            throw new SolicitudInvalidaException("'campos' no se puede combinar con '" + parametro + "'");
+        }
+    }
+
+    private static ResponseEntity<ProductoResponseDTO> aceptada(Long id) {
+        return ResponseEntity.accepted()
+                .header(PREFERENCE_APPLIED, PREFER_ASINCRONICO)
+                .location(URI.create("/api/productos/" + id))
+                .build();
+    }
 }
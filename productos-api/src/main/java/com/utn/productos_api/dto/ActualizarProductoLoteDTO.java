@@ -0,0 +1,28 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para cada elemento de una actualización masiva
+ * Asocia el ID del producto con sus nuevos datos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Producto a actualizar dentro de una operación masiva")
+public class ActualizarProductoLoteDTO {
+
+    @Schema(description = "ID del producto a actualizar", example = "1")
+    @NotNull(message = "El ID no puede ser nulo")
+    private Long id;
+
+    @Schema(description = "Nuevos datos del producto")
+    @NotNull(message = "Los datos del producto no pueden ser nulos")
+    @Valid
+    private ProductoDTO producto;
+}
@@ -0,0 +1,35 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de una caché de productos
+ * Sirve para dimensionar el tamaño y el TTL de la caché
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Métricas de uso de una caché de productos")
+public class CacheEstadisticasDTO {
+
+    @Schema(description = "Nombre de la caché", example = "productosPorId")
+    private String nombre;
+
+    @Schema(description = "Cantidad de entradas actuales")
+    private long tamanio;
+
+    @Schema(description = "Lecturas resueltas desde la caché")
+    private long aciertos;
+
+    @Schema(description = "Lecturas que tuvieron que ir a la base de datos")
+    private long fallos;
+
+    @Schema(description = "Entradas desalojadas por tamaño o por TTL")
+    private long desalojos;
+
+    @Schema(description = "Proporción de aciertos sobre el total de lecturas", example = "0.95")
+    private double tasaAciertos;
+}
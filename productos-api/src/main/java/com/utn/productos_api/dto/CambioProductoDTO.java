@@ -0,0 +1,27 @@
+package com.utn.productos_api.dto;
+
+import com.utn.productos_api.event.TipoEventoProducto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un cambio de producto enviado a los suscriptores del canal de cambios
+ * Si el producto cambió varias veces dentro de la misma ventana, llega un solo cambio con el estado final
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cambio de un producto notificado por el canal de cambios (SSE)")
+public class CambioProductoDTO {
+
+    @Schema(description = "Tipo de cambio", example = "STOCK")
+    private TipoEventoProducto tipo;
+
+    @Schema(description = "ID del producto", example = "1")
+    private Long id;
+
+    @Schema(description = "Estado actual del producto (null si fue eliminado)")
+    private ProductoResponseDTO producto;
+}
@@ -0,0 +1,38 @@
+package com.utn.productos_api.dto;
+
+import java.util.function.Function;
+
+/**
+ * Campos de ProductoResponseDTO que se pueden pedir con ?campos=
+ * El orden de declaración es el orden en que aparecen en la respuesta
+ */
+public enum CampoProducto {
+    ID("id", ProductoResponseDTO::getId),
+    NOMBRE("nombre", ProductoResponseDTO::getNombre),
+    DESCRIPCION("descripcion", ProductoResponseDTO::getDescripcion),
+    PRECIO("precio", ProductoResponseDTO::getPrecio),
+    STOCK("stock", ProductoResponseDTO::getStock),
+    CATEGORIA("categoria", ProductoResponseDTO::getCategoria),
+    VERSION("version", ProductoResponseDTO::getVersion),
+    ACTUALIZADO_EN("actualizadoEn", ProductoResponseDTO::getActualizadoEn);
+
+    // Nombre del campo en el JSON, igual al atributo de la entidad Producto
+    private final String propiedad;
+    private final Function<ProductoResponseDTO, Object> lector;
+
+    CampoProducto(String propiedad, Function<ProductoResponseDTO, Object> lector) {
+        this.propiedad = propiedad;
+        this.lector = lector;
+    }
+
+    public String getPropiedad() {
+        return propiedad;
+    }
+
+    /**
+     * Valor del campo en un DTO completo (por ejemplo, uno ya cacheado)
+     */
+    public Object leer(ProductoResponseDTO producto) {
+        return lector.apply(producto);
+    }
+}
@@ -0,0 +1,22 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con una fila rechazada por la importación
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Fila rechazada durante una importación")
+public class ErrorImportacionDTO {
+
+    @Schema(description = "Línea del archivo donde empieza la fila (desde 1)", example = "42")
+    private long linea;
+
+    @Schema(description = "Motivo del rechazo")
+    private String error;
+}
@@ -0,0 +1,30 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO con una escritura diferida que se aceptó con 202 pero no se pudo aplicar
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Escritura diferida descartada")
+public class EscrituraDescartadaDTO {
+
+    @Schema(description = "ID del producto", example = "1")
+    private Long productoId;
+
+    @Schema(description = "Motivo del descarte")
+    private String motivo;
+
+    @Schema(description = "Intentos realizados antes de descartarla", example = "1")
+    private int intentos;
+
+    @Schema(description = "Momento del descarte")
+    private LocalDateTime descartadaEn;
+}
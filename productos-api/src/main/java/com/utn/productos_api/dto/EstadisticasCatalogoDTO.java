@@ -0,0 +1,37 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con los agregados del catálogo completo y de cada categoría
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Agregados del catálogo, totales y por categoría")
+public class EstadisticasCatalogoDTO {
+
+    @Schema(description = "Cantidad total de productos")
+    private long cantidad;
+
+    @Schema(description = "Suma del stock de todos los productos")
+    private long stockTotal;
+
+    @Schema(description = "Valor total del stock (suma de precio × stock)")
+    private double valorStock;
+
+    @Schema(description = "Cantidad total de productos sin stock")
+    private long sinStock;
+
+    @Schema(description = "Agregados de cada categoría")
+    private List<EstadisticasCategoriaDTO> categorias;
+
+    @Schema(description = "Última vez que los agregados se recalcularon contra la base de datos")
+    private LocalDateTime reconciliadoEn;
+}
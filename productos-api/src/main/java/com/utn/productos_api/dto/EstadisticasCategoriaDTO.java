@@ -0,0 +1,41 @@
+package com.utn.productos_api.dto;
+
+import com.utn.productos_api.model.Categoria;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los agregados de una categoría del catálogo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Agregados de los productos de una categoría")
+public class EstadisticasCategoriaDTO {
+
+    @Schema(description = "Categoría", example = "ELECTRONICA")
+    private Categoria categoria;
+
+    @Schema(description = "Cantidad de productos")
+    private long cantidad;
+
+    @Schema(description = "Suma del stock de todos los productos")
+    private long stockTotal;
+
+    @Schema(description = "Valor del stock (suma de precio × stock)")
+    private double valorStock;
+
+    @Schema(description = "Precio mínimo (null si la categoría no tiene productos)")
+    private Double precioMinimo;
+
+    @Schema(description = "Precio máximo (null si la categoría no tiene productos)")
+    private Double precioMaximo;
+
+    @Schema(description = "Precio promedio (null si la categoría no tiene productos)")
+    private Double precioPromedio;
+
+    @Schema(description = "Cantidad de productos sin stock")
+    private long sinStock;
+}
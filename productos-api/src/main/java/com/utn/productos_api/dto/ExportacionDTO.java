@@ -0,0 +1,36 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO con los datos de un volcado del catálogo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Volcado completo y comprimido del catálogo")
+public class ExportacionDTO {
+
+    @Schema(description = "Nombre del archivo, usado para descargarlo", example = "productos-20250101-030000.csv.gz")
+    private String archivo;
+
+    @Schema(description = "Formato del volcado", example = "CSV")
+    private FormatoExportacion formato;
+
+    @Schema(description = "Cantidad de productos escritos (solo al generarlo)")
+    private Long filas;
+
+    @Schema(description = "Tamaño del archivo comprimido en bytes")
+    private long bytes;
+
+    @Schema(description = "Duración de la generación en milisegundos (solo al generarlo)")
+    private Long duracionMs;
+
+    @Schema(description = "Fecha y hora de generación")
+    private LocalDateTime generadaEn;
+}
@@ -0,0 +1,44 @@
+package com.utn.productos_api.dto;
+
+import com.utn.productos_api.model.Categoria;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los criterios de búsqueda de productos
+ * Todos los criterios son opcionales y se combinan con AND
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Criterios de búsqueda de productos")
+public class FiltroBusquedaDTO {
+
+    @Schema(description = "Precio mínimo (inclusive)", example = "100.0")
+    private Double precioMin;
+
+    @Schema(description = "Precio máximo (inclusive)", example = "5000.0")
+    private Double precioMax;
+
+    @Schema(description = "Solo productos con stock mayor a 0", example = "true")
+    private Boolean soloConStock;
+
+    @Schema(description = "Categorías a incluir", example = "[\"ELECTRONICA\", \"HOGAR\"]")
+    private List<Categoria> categorias;
+
+    @Schema(description = "Prefijo del nombre (sin distinguir mayúsculas)", example = "note")
+    private String prefijo;
+
+    @Schema(description = "Orden: campo y dirección (id, nombre, precio o stock; asc o desc)", example = "precio,asc")
+    private String orden;
+
+    @Schema(description = "Número de página (desde 0)", example = "0")
+    private Integer pagina;
+
+    @Schema(description = "Cantidad de productos por página (1 a 1000)", example = "20")
+    private Integer tamanio;
+}
@@ -0,0 +1,20 @@
+package com.utn.productos_api.dto;
+
+/**
+ * Formatos del volcado completo del catálogo, siempre comprimidos con gzip
+ * El CSV usa el mismo encabezado que acepta la importación masiva
+ */
+public enum FormatoExportacion {
+    CSV("csv.gz"),
+    NDJSON("ndjson.gz");
+
+    private final String extension;
+
+    FormatoExportacion(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,10 @@
+package com.utn.productos_api.dto;
+
+/**
+ * Formatos aceptados por la importación masiva
+ * CSV con encabezado (id,nombre,descripcion,precio,stock,categoria) o un objeto JSON por línea
+ */
+public enum FormatoImportacion {
+    CSV,
+    NDJSON
+}
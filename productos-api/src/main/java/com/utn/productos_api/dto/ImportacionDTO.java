@@ -0,0 +1,58 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con el estado y el progreso de una importación masiva
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado y progreso de una importación masiva de productos")
+public class ImportacionDTO {
+
+    @Schema(description = "Identificador de la importación")
+    private String id;
+
+    @Schema(description = "Origen de los datos (cuerpo de la solicitud o ruta del archivo)")
+    private String origen;
+
+    @Schema(description = "Formato de los datos")
+    private FormatoImportacion formato;
+
+    @Schema(description = "Estado de la importación")
+    private EstadoImportacion estado;
+
+    @Schema(description = "Filas leídas hasta el momento")
+    private long filasLeidas;
+
+    @Schema(description = "Productos creados")
+    private long creados;
+
+    @Schema(description = "Productos actualizados (filas con id)")
+    private long actualizados;
+
+    @Schema(description = "Filas rechazadas")
+    private long rechazados;
+
+    @Schema(description = "Filas procesadas por segundo")
+    private double filasPorSegundo;
+
+    @Schema(description = "Fecha y hora de inicio")
+    private LocalDateTime iniciadaEn;
+
+    @Schema(description = "Fecha y hora de finalización (null si sigue en curso)")
+    private LocalDateTime finalizadaEn;
+
+    @Schema(description = "Motivo de la falla (solo si falló)")
+    private String mensaje;
+
+    @Schema(description = "Primeras filas rechazadas, con su motivo")
+    private List<ErrorImportacionDTO> errores;
+}
@@ -0,0 +1,25 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de obtener varios productos por ID en una sola solicitud
+ * Los IDs inexistentes se informan aparte en lugar de devolver 404
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Productos obtenidos por ID, en el orden solicitado")
+public class LoteProductosDTO {
+
+    @Schema(description = "Productos encontrados, en el orden de los IDs solicitados")
+    private List<ProductoResponseDTO> productos;
+
+    @Schema(description = "IDs solicitados que no existen", example = "[7, 42]")
+    private List<Long> idsInexistentes;
+}
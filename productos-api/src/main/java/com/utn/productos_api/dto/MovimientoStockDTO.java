@@ -0,0 +1,22 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO para reservar o liberar unidades de stock de un producto")
+public class MovimientoStockDTO {
+
+    @Schema(description = "Cantidad de unidades a reservar o liberar", example = "2")
+    @NotNull(message = "La cantidad no puede ser nula")
+    @Min(value = 1, message = "La cantidad debe ser mayor a 0")
+    @Max(value = 1_000_000, message = "La cantidad no puede superar 1000000")
+    private Integer cantidad;
+}
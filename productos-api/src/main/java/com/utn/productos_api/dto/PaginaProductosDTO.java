@@ -0,0 +1,25 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para respuestas paginadas por cursor
+ * siguienteCursor es null cuando no quedan más productos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de productos obtenida por cursor")
+public class PaginaProductosDTO {
+
+    @Schema(description = "Productos de la página, ordenados por ID")
+    private List<ProductoResponseDTO> productos;
+
+    @Schema(description = "Valor a enviar en 'after' para pedir la página siguiente", example = "150")
+    private Long siguienteCursor;
+}
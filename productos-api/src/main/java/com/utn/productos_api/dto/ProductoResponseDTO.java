@@ -2,22 +2,30 @@ package com.utn.productos_api.dto;
 
 import com.utn.productos_api.model.Categoria;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
 
 /**
  * DTO para respuestas de la API
- * Incluye el ID del producto
+ * Incluye el ID del producto y su versión
+ * Es inmutable: las mismas instancias se comparten entre la caché, la réplica columnar y los
+ * listados ya serializados, así que un cambio se expresa siempre con una instancia nueva
  */
-@Data
-@NoArgsConstructor
+@Value
+@Builder
+@Jacksonized
 @AllArgsConstructor
 public class ProductoResponseDTO {
 
-    private Long id;
-    private String nombre;
-    private String descripcion;
-    private Double precio;
-    private Integer stock;
-    private Categoria categoria;
+    Long id;
+    String nombre;
+    String descripcion;
+    Double precio;
+    Integer stock;
+    Categoria categoria;
+    Long version;
+    LocalDateTime actualizadoEn;
 }
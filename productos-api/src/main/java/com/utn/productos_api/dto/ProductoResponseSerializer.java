@@ -0,0 +1,109 @@
+package com.utn.productos_api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Serializador dedicado de ProductoResponseDTO, el tipo de todos los listados
+ * Escribe los campos en orden fijo con los nombres ya codificados, sin recorrer propiedades
+ * por reflexión: la salida es la misma que la del serializador de beans de Jackson.
+ * La fecha se delega en el serializador del ObjectMapper, así respeta su formato configurado.
+ */
+public class ProductoResponseSerializer extends StdSerializer<ProductoResponseDTO> implements ContextualSerializer {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NOMBRE = new SerializedString("nombre");
+    private static final SerializableString DESCRIPCION = new SerializedString("descripcion");
+    private static final SerializableString PRECIO = new SerializedString("precio");
+    private static final SerializableString STOCK = new SerializedString("stock");
+    private static final SerializableString CATEGORIA = new SerializedString("categoria");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString ACTUALIZADO_EN = new SerializedString("actualizadoEn");
+    private static final int CAMPOS = 8;
+
+    private final JsonSerializer<Object> serializadorFecha;
+
+    public ProductoResponseSerializer() {
+        this(null);
+    }
+
+    private ProductoResponseSerializer(JsonSerializer<Object> serializadorFecha) {
+        super(ProductoResponseDTO.class);
+        this.serializadorFecha = serializadorFecha;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        // Una instancia por ObjectMapper (JSON, CBOR y Smile), cada una con su serializador de fechas
+        if (serializadorFecha != null) {
+            return this;
+        }
+        return new ProductoResponseSerializer(provider.findValueSerializer(LocalDateTime.class));
+    }
+
+    @Override
+    public void serialize(ProductoResponseDTO producto, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(producto, CAMPOS);
+
+        // Los nulos se escriben como null, igual que la inclusión por defecto del serializador de beans
+        escribir(gen, ID, producto.getId());
+        gen.writeFieldName(NOMBRE);
+        gen.writeString(producto.getNombre());
+        gen.writeFieldName(DESCRIPCION);
+        gen.writeString(producto.getDescripcion());
+        escribir(gen, PRECIO, producto.getPrecio());
+        escribir(gen, STOCK, producto.getStock());
+        gen.writeFieldName(CATEGORIA);
+        gen.writeString(producto.getCategoria() == null ? null : producto.getCategoria().name());
+        escribir(gen, VERSION, producto.getVersion());
+        gen.writeFieldName(ACTUALIZADO_EN);
+        if (producto.getActualizadoEn() == null) {
+            gen.writeNull();
+        } else {
+            JsonSerializer<Object> fecha = serializadorFecha != null
+                    ? serializadorFecha : provider.findValueSerializer(LocalDateTime.class);
+            fecha.serialize(producto.getActualizadoEn(), gen, provider);
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static void escribir(JsonGenerator gen, SerializableString campo, Long valor) throws IOException {
+        gen.writeFieldName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor);
+        }
+    }
+
+    private static void escribir(JsonGenerator gen, SerializableString campo, Integer valor) throws IOException {
+        gen.writeFieldName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor);
+        }
+    }
+
+    private static void escribir(JsonGenerator gen, SerializableString campo, Double valor) throws IOException {
+        gen.writeFieldName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para respuestas de búsqueda paginadas por número de página
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de resultados de una búsqueda de productos")
+public class ResultadoBusquedaDTO {
+
+    @Schema(description = "Productos de la página")
+    private List<ProductoResponseDTO> contenido;
+
+    @Schema(description = "Número de página (desde 0)")
+    private int pagina;
+
+    @Schema(description = "Cantidad de productos por página")
+    private int tamanio;
+
+    @Schema(description = "Cantidad total de productos que cumplen los criterios")
+    private long totalElementos;
+
+    @Schema(description = "Cantidad total de páginas")
+    private int totalPaginas;
+}
@@ -0,0 +1,36 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de un elemento de una operación masiva
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de un producto dentro de una operación masiva")
+public class ResultadoItemLoteDTO {
+
+    @Schema(description = "Posición del elemento en la solicitud (desde 0)", example = "0")
+    private int indice;
+
+    @Schema(description = "Indica si el producto se guardó")
+    private boolean exitoso;
+
+    @Schema(description = "Producto guardado (solo si fue exitoso)")
+    private ProductoResponseDTO producto;
+
+    @Schema(description = "Motivo del rechazo (solo si falló)")
+    private String error;
+
+    public static ResultadoItemLoteDTO exito(int indice, ProductoResponseDTO producto) {
+        return new ResultadoItemLoteDTO(indice, true, producto, null);
+    }
+
+    public static ResultadoItemLoteDTO fallo(int indice, String error) {
+        return new ResultadoItemLoteDTO(indice, false, null, error);
+    }
+}
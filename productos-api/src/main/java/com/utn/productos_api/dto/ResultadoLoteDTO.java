@@ -0,0 +1,37 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de una operación masiva
+ * Incluye el resultado de cada elemento y el rendimiento medido
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de una operación masiva de productos")
+public class ResultadoLoteDTO {
+
+    @Schema(description = "Cantidad de elementos recibidos")
+    private int total;
+
+    @Schema(description = "Cantidad de elementos guardados")
+    private int exitosos;
+
+    @Schema(description = "Cantidad de elementos rechazados")
+    private int fallidos;
+
+    @Schema(description = "Duración total de la operación en milisegundos")
+    private long duracionMs;
+
+    @Schema(description = "Productos procesados por segundo")
+    private double productosPorSegundo;
+
+    @Schema(description = "Resultado de cada elemento, en el orden de la solicitud")
+    private List<ResultadoItemLoteDTO> resultados;
+}
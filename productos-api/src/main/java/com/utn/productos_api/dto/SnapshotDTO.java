@@ -0,0 +1,28 @@
+package com.utn.productos_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de exportar o restaurar la instantánea del catálogo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de exportar o restaurar la instantánea binaria del catálogo")
+public class SnapshotDTO {
+
+    @Schema(description = "Ruta del archivo de la instantánea", example = "./data/productos.snapshot")
+    private String archivo;
+
+    @Schema(description = "Cantidad de productos escritos o restaurados")
+    private long filas;
+
+    @Schema(description = "Tamaño del archivo en bytes")
+    private long bytes;
+
+    @Schema(description = "Duración de la operación en milisegundos")
+    private long duracionMs;
+}
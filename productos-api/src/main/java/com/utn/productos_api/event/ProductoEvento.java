@@ -0,0 +1,38 @@
+package com.utn.productos_api.event;
+
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.model.Categoria;
+import lombok.Value;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Evento publicado por ProductoService cada vez que cambia un producto
+ * anterior es null al crear y actual es null al eliminar
+ */
+@Value
+public class ProductoEvento {
+
+    TipoEventoProducto tipo;
+    ProductoResponseDTO anterior;
+    ProductoResponseDTO actual;
+
+    public Long getId() {
+        return actual != null ? actual.getId() : anterior.getId();
+    }
+
+    /**
+     * Categorías cuyo listado cambia con este evento (la anterior y la nueva si difieren)
+     */
+    public Set<Categoria> getCategoriasAfectadas() {
+        Set<Categoria> categorias = EnumSet.noneOf(Categoria.class);
+        if (anterior != null) {
+            categorias.add(anterior.getCategoria());
+        }
+        if (actual != null) {
+            categorias.add(actual.getCategoria());
+        }
+        return categorias;
+    }
+}
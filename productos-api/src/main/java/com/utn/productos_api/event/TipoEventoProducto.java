@@ -0,0 +1,8 @@
+package com.utn.productos_api.event;
+
+public enum TipoEventoProducto {
+    CREADO,
+    ACTUALIZADO,
+    STOCK,
+    ELIMINADO
+}
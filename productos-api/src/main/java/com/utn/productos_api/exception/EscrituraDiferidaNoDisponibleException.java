@@ -0,0 +1,9 @@
+package com.utn.productos_api.exception;
+
+// Excepción para escrituras diferidas que no se pueden aceptar (cola llena o aplicación apagándose)
+public class EscrituraDiferidaNoDisponibleException extends RuntimeException {
+
+    public EscrituraDiferidaNoDisponibleException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,9 @@
+package com.utn.productos_api.exception;
+
+// Excepción para descargas de volcados inexistentes (o ya borrados por antigüedad)
+public class ExportacionNotFoundException extends RuntimeException {
+
+    public ExportacionNotFoundException(String archivo) {
+        super("No se encontró el volcado: " + archivo);
+    }
+}
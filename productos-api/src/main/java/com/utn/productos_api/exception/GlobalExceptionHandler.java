@@ -1,18 +1,55 @@
 package com.utn.productos_api.exception;
 
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+
+    // Contadores de errores por tipo (productos.errores{tipo=...})
+    private final Counter productosNoEncontrados;
+    private final Counter solicitudesInvalidas;
+    private final Counter erroresDeValidacion;
+    private final Counter parametrosInvalidos;
+    private final Counter importacionesNoEncontradas;
+    private final Counter exportacionesNoEncontradas;
+    private final Counter stockInsuficiente;
+    private final Counter conflictosDeVersion;
+    private final Counter precondicionesFallidas;
+    private final Counter escriturasDiferidasNoDisponibles;
+    private final Counter importacionesNoDisponibles;
+    private final Counter erroresInternos;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.productosNoEncontrados = contadorDeErrores(meterRegistry, "producto_no_encontrado");
+        this.solicitudesInvalidas = contadorDeErrores(meterRegistry, "solicitud_invalida");
+        this.erroresDeValidacion = contadorDeErrores(meterRegistry, "validacion");
+        this.parametrosInvalidos = contadorDeErrores(meterRegistry, "parametro_invalido");
+        this.importacionesNoEncontradas = contadorDeErrores(meterRegistry, "importacion_no_encontrada");
+        this.exportacionesNoEncontradas = contadorDeErrores(meterRegistry, "exportacion_no_encontrada");
+        this.stockInsuficiente = contadorDeErrores(meterRegistry, "stock_insuficiente");
+        this.conflictosDeVersion = contadorDeErrores(meterRegistry, "conflicto_version");
+        this.precondicionesFallidas = contadorDeErrores(meterRegistry, "precondicion_fallida");
+        this.escriturasDiferidasNoDisponibles = contadorDeErrores(meterRegistry, "escritura_diferida_no_disponible");
+        this.importacionesNoDisponibles = contadorDeErrores(meterRegistry, "importacion_no_disponible");
+        this.erroresInternos = contadorDeErrores(meterRegistry, "interno");
+    }
+
     // Maneja ProductoNotFoundException (404 Not Found)
 
     @ExceptionHandler(ProductoNotFoundException.class)
@@ -20,6 +57,46 @@ public class GlobalExceptionHandler {
             ProductoNotFoundException ex,
             HttpServletRequest request) {
 
+        productosNoEncontrados.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                "Not Found",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    // Maneja ImportacionNotFoundException (404 Not Found)
+
+    @ExceptionHandler(ImportacionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleImportacionNotFound(
+            ImportacionNotFoundException ex,
+            HttpServletRequest request) {
+
+        importacionesNoEncontradas.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                "Not Found",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    // Maneja ExportacionNotFoundException (404 Not Found)
+
+    @ExceptionHandler(ExportacionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleExportacionNotFound(
+            ExportacionNotFoundException ex,
+            HttpServletRequest request) {
+
+        exportacionesNoEncontradas.increment();
+
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.NOT_FOUND.value(),
                 "Not Found",
@@ -30,6 +107,124 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    // Maneja SolicitudInvalidaException (400 Bad Request)
+
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    public ResponseEntity<ErrorResponse> handleSolicitudInvalida(
+            SolicitudInvalidaException ex,
+            HttpServletRequest request) {
+
+        solicitudesInvalidas.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // Maneja StockInsuficienteException (409 Conflict)
+
+    @ExceptionHandler(StockInsuficienteException.class)
+    public ResponseEntity<ErrorResponse> handleStockInsuficiente(
+            StockInsuficienteException ex,
+            HttpServletRequest request) {
+
+        stockInsuficiente.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    // Maneja conflictos de versión al actualizar un producto modificado en paralelo (409 Conflict)
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConflictoDeVersion(
+            ObjectOptimisticLockingFailureException ex,
+            HttpServletRequest request) {
+
+        conflictosDeVersion.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "El producto fue modificado por otra solicitud; vuelva a intentarlo",
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    // Maneja PrecondicionFallidaException (412 Precondition Failed)
+
+    @ExceptionHandler(PrecondicionFallidaException.class)
+    public ResponseEntity<ErrorResponse> handlePrecondicionFallida(
+            PrecondicionFallidaException ex,
+            HttpServletRequest request) {
+
+        precondicionesFallidas.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Maneja EscrituraDiferidaNoDisponibleException (503 Service Unavailable)
+
+    @ExceptionHandler(EscrituraDiferidaNoDisponibleException.class)
+    public ResponseEntity<ErrorResponse> handleEscrituraDiferidaNoDisponible(
+            EscrituraDiferidaNoDisponibleException ex,
+            HttpServletRequest request) {
+
+        escriturasDiferidasNoDisponibles.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(error, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Maneja ImportacionNoDisponibleException (429 Too Many Requests)
+
+    @ExceptionHandler(ImportacionNoDisponibleException.class)
+    public ResponseEntity<ErrorResponse> handleImportacionNoDisponible(
+            ImportacionNoDisponibleException ex,
+            HttpServletRequest request) {
+
+        importacionesNoDisponibles.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "5");
+        return new ResponseEntity<>(error, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     //Maneja errores de validación (400 Bad Request)
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -37,6 +232,8 @@ public class GlobalExceptionHandler {
             MethodArgumentNotValidException ex,
             HttpServletRequest request) {
 
+        erroresDeValidacion.increment();
+
         Map<String, Object> response = new HashMap<>();
         Map<String, String> errors = new HashMap<>();
 
@@ -55,6 +252,31 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Maneja parámetros con un valor que no se puede convertir, como un formato desconocido (400 Bad Request)
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleParametroInvalido(
+            MethodArgumentTypeMismatchException ex,
+            HttpServletRequest request) {
+
+        String mensaje = "Valor inválido para '" + ex.getName() + "': " + ex.getValue();
+        Class<?> tipo = ex.getRequiredType();
+        if (tipo != null && tipo.isEnum()) {
+            mensaje += " (valores admitidos: " + Arrays.toString(tipo.getEnumConstants()) + ")";
+        }
+        return parametroInvalido(mensaje, request);
+    }
+
+    // Maneja parámetros obligatorios que no se enviaron (400 Bad Request)
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleParametroFaltante(
+            MissingServletRequestParameterException ex,
+            HttpServletRequest request) {
+
+        return parametroInvalido("Falta el parámetro obligatorio '" + ex.getParameterName() + "'", request);
+    }
+
     // Maneja excepciones generales (500 Internal Server Error)
 
     @ExceptionHandler(Exception.class)
@@ -62,6 +284,8 @@ public class GlobalExceptionHandler {
             Exception ex,
             HttpServletRequest request) {
 
+        erroresInternos.increment();
+
         ErrorResponse error = new ErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
                 "Internal Server Error",
@@ -71,4 +295,24 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private ResponseEntity<ErrorResponse> parametroInvalido(String mensaje, HttpServletRequest request) {
+        parametrosInvalidos.increment();
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                mensaje,
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    private static Counter contadorDeErrores(MeterRegistry meterRegistry, String tipo) {
+        return Counter.builder("productos.errores")
+                .description("Errores devueltos por la API, por tipo")
+                .tag("tipo", tipo)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,9 @@
+package com.utn.productos_api.exception;
+
+// Excepción para importaciones que no se pueden iniciar porque ya corren las simultáneas permitidas
+public class ImportacionNoDisponibleException extends RuntimeException {
+
+    public ImportacionNoDisponibleException(int maximo) {
+        super("Ya hay " + maximo + " importaciones en curso; reintentar cuando termine alguna");
+    }
+}
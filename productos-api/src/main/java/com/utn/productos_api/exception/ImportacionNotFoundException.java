@@ -0,0 +1,9 @@
+package com.utn.productos_api.exception;
+
+// Excepción para consultas de importaciones inexistentes (o ya descartadas del historial)
+public class ImportacionNotFoundException extends RuntimeException {
+
+    public ImportacionNotFoundException(String id) {
+        super("No se encontró la importación con ID: " + id);
+    }
+}
@@ -0,0 +1,9 @@
+package com.utn.productos_api.exception;
+
+// Excepción para modificaciones condicionales (If-Match) sobre un producto que ya cambió
+public class PrecondicionFallidaException extends RuntimeException {
+
+    public PrecondicionFallidaException(Long id) {
+        super("El producto con ID: " + id + " fue modificado; el ETag enviado en If-Match ya no es el vigente");
+    }
+}
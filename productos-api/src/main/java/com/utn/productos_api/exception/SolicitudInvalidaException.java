@@ -0,0 +1,9 @@
+package com.utn.productos_api.exception;
+
+// Excepción para solicitudes con parámetros inválidos que no cubre Bean Validation
+public class SolicitudInvalidaException extends RuntimeException {
+
+    public SolicitudInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,9 @@
+package com.utn.productos_api.exception;
+
+// Excepción para reservas que superan el stock disponible de un producto
+public class StockInsuficienteException extends RuntimeException {
+
+    public StockInsuficienteException(Long id, int cantidad) {
+        super("Stock insuficiente para reservar " + cantidad + " unidades del producto con ID: " + id);
+    }
+}
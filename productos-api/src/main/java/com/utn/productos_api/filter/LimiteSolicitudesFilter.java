@@ -0,0 +1,302 @@
+package com.utn.productos_api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Protege la API de clientes que la saturan, en dos niveles:
+ * 1. Límite de ritmo por cliente y por clase de endpoint: responde 429 con Retry-After.
+ *    El cliente es su clave de API solo si está en productos.limites.claves-api; si no, su IP
+ *    (inventar claves no da cubetas nuevas ni desaloja las de otros clientes).
+ * 2. Descarte por sobrecarga: si hay demasiadas solicitudes en curso responde 503 enseguida,
+ *    antes de tomar una conexión de la base. Los listados tienen un límite menor, así no pueden
+ *    ocupar toda la capacidad y dejar sin lugar a las escrituras. Una respuesta asincrónica
+ *    (stream NDJSON) ocupa su lugar hasta completarse; las suscripciones SSE no cuentan como en curso,
+ *    porque duran minutos sin ocupar hilos ni conexiones de la base.
+ * Las cubetas usan GCRA sobre un AtomicLongArray (un instante teórico de llegada por clase): sin locks.
+ * Corre después del filtro de métricas HTTP, así las solicitudes rechazadas también se miden.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LimiteSolicitudesFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    enum Clase {
+        LECTURA,
+        LISTADO,
+        ESCRITURA
+    }
+
+    private final ProductosProperties.Limites config;
+    private final ObjectMapper objectMapper;
+
+    // Por cliente, el instante teórico de llegada (nanoTime) de cada clase
+    private final Cache<String, AtomicLongArray> cubetas;
+    private final Map<Clase, Ritmo> ritmos = new EnumMap<>(Clase.class);
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final AtomicInteger listadosEnCurso = new AtomicInteger();
+
+    private final Map<Clase, Counter> limitadas = new EnumMap<>(Clase.class);
+    private final Map<Clase, Counter> descartadas = new EnumMap<>(Clase.class);
+
+    public LimiteSolicitudesFilter(ProductosProperties properties, ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry) {
+        this.config = properties.getLimites();
+        this.objectMapper = objectMapper;
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(config.getMaximoClientes())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        ritmos.put(Clase.LECTURA, new Ritmo(config.getLecturas()));
+        ritmos.put(Clase.LISTADO, new Ritmo(config.getListados()));
+        ritmos.put(Clase.ESCRITURA, new Ritmo(config.getEscrituras()));
+
+        for (Clase clase : Clase.values()) {
+            String etiqueta = clase.name().toLowerCase(Locale.ROOT);
+            limitadas.put(clase, Counter.builder("productos.solicitudes.rechazadas")
+                    .description("Solicitudes rechazadas por límite de ritmo (429) o por sobrecarga (503)")
+                    .tag("motivo", "limite")
+                    .tag("clase", etiqueta)
+                    .register(meterRegistry));
+            descartadas.put(clase, Counter.builder("productos.solicitudes.rechazadas")
+                    .description("Solicitudes rechazadas por límite de ritmo (429) o por sobrecarga (503)")
+                    .tag("motivo", "sobrecarga")
+                    .tag("clase", etiqueta)
+                    .register(meterRegistry));
+        }
+        meterRegistry.gauge("productos.solicitudes.en_curso", enCurso);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isHabilitado() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Clase clase = clasificar(request);
+
+        long espera = consumir(identificarCliente(request), clase);
+        if (espera > 0) {
+            limitadas.get(clase).increment();
+            long segundos = Math.max(1, (espera + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO);
+            rechazar(request, response, HttpStatus.TOO_MANY_REQUESTS, segundos,
+                    "Se superó el límite de solicitudes; reintentar en " + segundos + " s");
+            return;
+        }
+
+        if (esSuscripcion(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean esListado = clase == Clase.LISTADO;
+        if (!ocupar(enCurso, config.getMaximoEnCurso())) {
+            descartadas.get(clase).increment();
+            rechazar(request, response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "El servicio está sobrecargado; reintentar en unos segundos");
+            return;
+        }
+        if (esListado && !ocupar(listadosEnCurso, config.getMaximoListadosEnCurso())) {
+            enCurso.decrementAndGet();
+            descartadas.get(clase).increment();
+            rechazar(request, response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "Hay demasiados listados en curso; reintentar en unos segundos");
+            return;
+        }
+        Liberacion liberacion = new Liberacion(esListado);
+        boolean asincronica = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // El cuerpo se sigue escribiendo en otro hilo: el lugar se libera al completarse
+                request.getAsyncContext().addListener(liberacion);
+                asincronica = true;
+            }
+        } finally {
+            if (!asincronica) {
+                liberacion.liberar();
+            }
+        }
+    }
+
+    int enCurso() {
+        return enCurso.get();
+    }
+
+    /**
+     * Consume un lugar de la cubeta del cliente (GCRA)
+     * @return 0 si se admite; si no, los nanosegundos hasta que vuelva a haber lugar
+     */
+    long consumir(String cliente, Clase clase) {
+        AtomicLongArray llegadas = cubetas.get(cliente, clave -> nuevasLlegadas());
+        Ritmo ritmo = ritmos.get(clase);
+        int i = clase.ordinal();
+        long ahora = System.nanoTime();
+        while (true) {
+            long teorica = llegadas.get(i);
+            long siguiente = Math.max(teorica, ahora) + ritmo.intervalo();
+            long exceso = siguiente - ahora - ritmo.tolerancia();
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (llegadas.compareAndSet(i, teorica, siguiente)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Clasifica la solicitud por su costo: lo que recorre muchas filas es un listado
+     */
+    static Clase clasificar(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        String ruta = request.getRequestURI();
+        boolean lectura = metodo.equals("GET") || metodo.equals("HEAD") || metodo.equals("OPTIONS")
+                || (metodo.equals("POST") && ruta.equals("/api/productos/lote"));
+        if (!lectura) {
+            return Clase.ESCRITURA;
+        }
+        boolean listado = (ruta.equals("/api/productos")
+                && request.getParameter("ids") == null
+                && request.getParameter("limit") == null)
+                || ruta.equals("/api/productos/stream")
+                || ruta.equals("/api/productos/buscar")
+                || ruta.startsWith("/api/productos/categoria/")
+                || ruta.startsWith("/api/productos/exportaciones/");
+        return listado ? Clase.LISTADO : Clase.LECTURA;
+    }
+
+    /**
+     * Suscripción al canal de cambios (SSE): se limita su ritmo pero no cuenta como solicitud en curso
+     */
+    static boolean esSuscripcion(HttpServletRequest request) {
+        return request.getRequestURI().equals("/api/productos/cambios");
+    }
+
+    /**
+     * Clave de API si es una de las configuradas; si no, la IP (la real del cliente con forward-headers-strategy)
+     */
+    String identificarCliente(HttpServletRequest request) {
+        String clave = request.getHeader(config.getEncabezadoCliente());
+        if (clave != null && config.getClavesApi().contains(clave)) {
+            return "k:" + clave;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static boolean ocupar(AtomicInteger contador, int maximo) {
+        if (maximo <= 0) {
+            contador.incrementAndGet();
+            return true;
+        }
+        if (contador.incrementAndGet() > maximo) {
+            contador.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private static AtomicLongArray nuevasLlegadas() {
+        AtomicLongArray llegadas = new AtomicLongArray(Clase.values().length);
+        for (int i = 0; i < llegadas.length(); i++) {
+            // Sin solicitudes previas: Math.max toma siempre el instante actual
+            llegadas.set(i, Long.MIN_VALUE);
+        }
+        return llegadas;
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response, HttpStatus estado,
+                          long reintentarEnSegundos, String mensaje) throws IOException {
+        response.setStatus(estado.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(reintentarEnSegundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(estado.value(), estado.getReasonPhrase(), mensaje, request.getRequestURI()));
+    }
+
+    /**
+     * Libera una sola vez el lugar ocupado por una solicitud, también al terminar una respuesta asincrónica
+     */
+    private final class Liberacion implements AsyncListener {
+        private final boolean esListado;
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        private Liberacion(boolean esListado) {
+            this.esListado = esListado;
+        }
+
+        private void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                enCurso.decrementAndGet();
+                if (esListado) {
+                    listadosEnCurso.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo ciclo asincrónico descarta los listeners anteriores
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Intervalo entre solicitudes al ritmo sostenido y ráfaga tolerada, en nanosegundos
+     */
+    private record Ritmo(long intervalo, long tolerancia) {
+
+        private Ritmo(ProductosProperties.Cubeta cubeta) {
+            this(Math.max(1, (long) (NANOS_POR_SEGUNDO / cubeta.getPorSegundo())),
+                    Math.max(1, (long) (NANOS_POR_SEGUNDO / cubeta.getPorSegundo())) * Math.max(1, cubeta.getCapacidad()));
+        }
+    }
+}
@@ -5,16 +5,26 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_producto_categoria_precio", columnList = "categoria, precio"),
+        @Index(name = "idx_producto_categoria_stock", columnList = "categoria, stock"),
+        @Index(name = "idx_producto_precio", columnList = "precio")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Producto {
 
+    // Secuencia con optimizador pooled: reserva IDs de a bloques y permite batch inserts JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producto_seq")
+    @SequenceGenerator(name = "producto_seq", sequenceName = "producto_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -33,6 +43,12 @@ public class Producto {
     @Column(nullable = false)
     private Categoria categoria;
 
+    // Se incrementa en cada modificación; permite ETags baratos y control de concurrencia optimista
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
-
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime actualizadoEn;
 }
@@ -1,14 +1,107 @@
 package com.utn.productos_api.repository;
 
+import com.utn.productos_api.dto.ProductoResponseDTO;
 import com.utn.productos_api.model.Categoria;
 import com.utn.productos_api.model.Producto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, JpaSpecificationExecutor<Producto>,
+        ProductoRepositoryProyecciones {
 
-    List<Producto> findByCategoria(Categoria categoria);
+    // Las lecturas arman el DTO directamente en la consulta (constructor expression): no se instancian
+    // entidades ni se guardan sus copias para el dirty checking del contexto de persistencia
+    String SELECT_RESPUESTA = "SELECT new com.utn.productos_api.dto.ProductoResponseDTO(p.id, p.nombre, " +
+            "p.descripcion, p.precio, p.stock, p.categoria, p.version, p.actualizadoEn) FROM Producto p ";
+
+    @Query(SELECT_RESPUESTA + "ORDER BY p.id")
+    List<ProductoResponseDTO> findAllRespuestas();
+
+    @Query(SELECT_RESPUESTA + "WHERE p.id = :id")
+    Optional<ProductoResponseDTO> findRespuestaById(@Param("id") Long id);
+
+    @Query(SELECT_RESPUESTA + "WHERE p.id IN :ids")
+    List<ProductoResponseDTO> findRespuestasByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_RESPUESTA + "WHERE p.categoria = :categoria")
+    List<ProductoResponseDTO> findRespuestasByCategoria(@Param("categoria") Categoria categoria);
+
+    // Paginación por cursor (keyset): usa el índice de la PK en lugar de OFFSET
+    @Query(SELECT_RESPUESTA + "WHERE p.id > :id ORDER BY p.id")
+    List<ProductoResponseDTO> findRespuestasDespuesDe(@Param("id") Long id, Pageable pageable);
+
+    // Recorre toda la tabla con un cursor de solo avance; debe consumirse dentro de una transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPUESTA + "ORDER BY p.id")
+    Stream<ProductoResponseDTO> streamRespuestasOrderById();
+
+    // Descuenta stock en un único UPDATE condicional: no actualiza nada si no alcanza (evita sobreventa sin locks)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad, p.version = p.version + 1, " +
+            "p.actualizadoEn = :ahora WHERE p.id = :id AND p.stock >= :cantidad")
+    int reservarStock(@Param("id") Long id, @Param("cantidad") int cantidad, @Param("ahora") LocalDateTime ahora);
+
+    // Devuelve stock en un único UPDATE relativo
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock + :cantidad, p.version = p.version + 1, " +
+            "p.actualizadoEn = :ahora WHERE p.id = :id")
+    int liberarStock(@Param("id") Long id, @Param("cantidad") int cantidad, @Param("ahora") LocalDateTime ahora);
+
+    // Reemplaza los datos solo si la versión no cambió (concurrencia optimista sin leer antes ni bloquear)
+    // Con stock null se conserva el de la fila: el stock en caliente vive en memoria
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.nombre = :nombre, p.descripcion = :descripcion, p.precio = :precio, " +
+            "p.stock = COALESCE(:stock, p.stock), p.categoria = :categoria, p.version = p.version + 1, " +
+            "p.actualizadoEn = :ahora WHERE p.id = :id AND p.version = :version")
+    int actualizarSiVersion(@Param("id") Long id, @Param("version") Long version,
+                            @Param("nombre") String nombre, @Param("descripcion") String descripcion,
+                            @Param("precio") Double precio, @Param("stock") Integer stock,
+                            @Param("categoria") Categoria categoria, @Param("ahora") LocalDateTime ahora);
+
+    // Fija el stock solo si la versión no cambió
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = :stock, p.version = p.version + 1, p.actualizadoEn = :ahora " +
+            "WHERE p.id = :id AND p.version = :version")
+    int actualizarStockSiVersion(@Param("id") Long id, @Param("version") Long version,
+                                 @Param("stock") int stock, @Param("ahora") LocalDateTime ahora);
+
+    // Solo las descripciones, para completar los resultados de la réplica columnar (que no las guarda)
+    @Query("SELECT p.id AS id, p.descripcion AS descripcion FROM Producto p WHERE p.id IN :ids")
+    List<DescripcionProducto> findDescripcionesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Solo la versión, para validar ETags sin cargar la entidad
+    @Query("SELECT p.version FROM Producto p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Bloquea la fila hasta el fin de la transacción sin cargar el producto
+    @Query(value = "SELECT id FROM producto WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> bloquearFila(@Param("id") Long id);
+
+    // Lee el producto bloqueando la fila hasta el fin de la transacción
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Producto p WHERE p.id = :id")
+    Optional<Producto> findByIdParaActualizar(@Param("id") Long id);
+
+    interface DescripcionProducto {
+        Long getId();
+
+        String getDescripcion();
+    }
 }
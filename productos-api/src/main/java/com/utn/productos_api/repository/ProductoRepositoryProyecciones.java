@@ -0,0 +1,21 @@
+package com.utn.productos_api.repository;
+
+import com.utn.productos_api.model.Categoria;
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+
+// Consultas que seleccionan solo algunas columnas de producto, sin hidratar entidades
+
+public interface ProductoRepositoryProyecciones {
+
+    /**
+     * Selecciona solo los atributos indicados, ordenados por ID
+     * Cada elemento de la tupla lleva como alias el nombre del atributo
+     * @param propiedades Atributos de Producto a seleccionar
+     * @param id Filtra por ID (null para no filtrar)
+     * @param categoria Filtra por categoría (null para no filtrar)
+     */
+    List<Tuple> findProyectados(Collection<String> propiedades, Long id, Categoria categoria);
+}
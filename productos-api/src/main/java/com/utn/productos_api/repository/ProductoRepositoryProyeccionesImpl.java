@@ -0,0 +1,47 @@
+package com.utn.productos_api.repository;
+
+import com.utn.productos_api.model.Categoria;
+import com.utn.productos_api.model.Producto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Implementación con Criteria API: el SELECT incluye solo las columnas pedidas
+
+class ProductoRepositoryProyeccionesImpl implements ProductoRepositoryProyecciones {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findProyectados(Collection<String> propiedades, Long id, Categoria categoria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<Producto> producto = consulta.from(Producto.class);
+
+        List<Selection<?>> columnas = new ArrayList<>(propiedades.size());
+        for (String propiedad : propiedades) {
+            columnas.add(producto.get(propiedad).alias(propiedad));
+        }
+        List<Predicate> filtros = new ArrayList<>(2);
+        if (id != null) {
+            filtros.add(cb.equal(producto.get("id"), id));
+        }
+        if (categoria != null) {
+            filtros.add(cb.equal(producto.get("categoria"), categoria));
+        }
+        consulta.multiselect(columnas)
+                .where(filtros.toArray(Predicate[]::new))
+                .orderBy(cb.asc(producto.get("id")));
+        return entityManager.createQuery(consulta).getResultList();
+    }
+}
@@ -0,0 +1,41 @@
+package com.utn.productos_api.repository;
+
+import com.utn.productos_api.model.Categoria;
+import com.utn.productos_api.model.Producto;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+// Criterios reutilizables para armar búsquedas dinámicas de productos
+
+public final class ProductoSpecifications {
+
+    private ProductoSpecifications() {
+    }
+
+    public static Specification<Producto> precioDesde(Double minimo) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Double>get("precio"), minimo);
+    }
+
+    public static Specification<Producto> precioHasta(Double maximo) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<Double>get("precio"), maximo);
+    }
+
+    public static Specification<Producto> conStock() {
+        return (root, query, cb) -> cb.greaterThan(root.<Integer>get("stock"), 0);
+    }
+
+    public static Specification<Producto> categoriaEn(Collection<Categoria> categorias) {
+        return (root, query, cb) -> root.get("categoria").in(categorias);
+    }
+
+    // Comparación sin distinguir mayúsculas; los comodines del prefijo se escapan
+    public static Specification<Producto> nombreEmpiezaCon(String prefijo) {
+        String patron = prefijo.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.<String>get("nombre")), patron, '\\');
+    }
+}
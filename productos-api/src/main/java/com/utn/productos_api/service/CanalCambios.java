@@ -0,0 +1,365 @@
+package com.utn.productos_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.CambioProductoDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.event.TipoEventoProducto;
+import com.utn.productos_api.exception.SolicitudInvalidaException;
+import com.utn.productos_api.model.Categoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canal de cambios de productos para clientes suscriptos por server-sent events
+ * Los eventos confirmados se acumulan por producto y se envían una vez por ventana
+ * (productos.cambios.ventana-ms): un producto que cambia muchas veces en la ventana genera
+ * un solo cambio con su estado final. Las conexiones abiertas no ocupan hilos: un único hilo
+ * arma las ventanas y los latidos y los encola en cada suscriptor, y unos pocos hilos de envío
+ * los escriben, en orden dentro de cada suscripción. Un cliente que deja de leer bloquea a lo sumo
+ * un hilo de envío; cuando acumula más de maximoEnviosPendientes se lo desconecta.
+ */
+@Slf4j
+@Component
+public class CanalCambios {
+
+    private static final int MAXIMO_IDS_POR_SUSCRIPCION = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final ProductosProperties.Cambios config;
+    private final ScheduledExecutorService hilo;
+    private final ExecutorService enviadores;
+
+    // Último evento de cada producto en la ventana actual, ya combinado con los anteriores
+    private final Map<Long, ProductoEvento> pendientes = new ConcurrentHashMap<>();
+
+    // Índices de suscripciones: sin filtro, por ID y por categoría
+    private final Set<Suscripcion> sinFiltro = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Suscripcion>> porId = new ConcurrentHashMap<>();
+    private final Map<Categoria, Set<Suscripcion>> porCategoria = new EnumMap<>(Categoria.class);
+    private final Set<Suscripcion> todas = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Counter lentosDesconectados;
+
+    public CanalCambios(ObjectMapper objectMapper, ProductosProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.config = properties.getCambios();
+        for (Categoria categoria : Categoria.values()) {
+            porCategoria.put(categoria, ConcurrentHashMap.newKeySet());
+        }
+        this.hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread despachador = new Thread(tarea, "canal-cambios");
+            despachador.setDaemon(true);
+            return despachador;
+        });
+        AtomicInteger numero = new AtomicInteger();
+        this.enviadores = Executors.newFixedThreadPool(Math.max(1, config.getHilosEnvio()), tarea -> {
+            Thread enviador = new Thread(tarea, "canal-cambios-envio-" + numero.incrementAndGet());
+            enviador.setDaemon(true);
+            return enviador;
+        });
+        hilo.scheduleWithFixedDelay(this::despacharSeguro,
+                config.getVentanaMs(), config.getVentanaMs(), TimeUnit.MILLISECONDS);
+        hilo.scheduleWithFixedDelay(this::enviarLatidos,
+                config.getLatidoMs(), config.getLatidoMs(), TimeUnit.MILLISECONDS);
+        meterRegistry.gaugeCollectionSize("productos.cambios.suscriptores", List.of(), todas);
+        this.lentosDesconectados = Counter.builder("productos.cambios.lentos")
+                .description("Suscriptores desconectados por acumular demasiados envíos sin leer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra un suscriptor; ids y categorías se combinan con O (sin ninguno recibe todos los cambios)
+     * @throws SolicitudInvalidaException si se piden demasiados IDs
+     */
+    public SseEmitter suscribir(Set<Long> ids, Set<Categoria> categorias) {
+        if (ids.size() > MAXIMO_IDS_POR_SUSCRIPCION) {
+            throw new SolicitudInvalidaException(
+                    "Se pueden seguir hasta " + MAXIMO_IDS_POR_SUSCRIPCION + " productos por suscripción");
+        }
+        return registrar(new SseEmitter(config.getTimeout().toMillis()), ids, categorias);
+    }
+
+    // Separado de suscribir para que las pruebas usen su propia conexión
+    SseEmitter registrar(SseEmitter emitter, Set<Long> ids, Set<Categoria> categorias) {
+        Suscripcion suscripcion = new Suscripcion(emitter, Set.copyOf(ids), Set.copyOf(categorias));
+        emitter.onCompletion(() -> quitar(suscripcion));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> quitar(suscripcion));
+
+        todas.add(suscripcion);
+        if (ids.isEmpty() && categorias.isEmpty()) {
+            sinFiltro.add(suscripcion);
+        }
+        for (Long id : suscripcion.ids()) {
+            // Se agrega dentro de compute para no competir con quitar(), que borra los conjuntos vacíos
+            porId.compute(id, (clave, suscripciones) -> {
+                Set<Suscripcion> resultado = suscripciones != null ? suscripciones : ConcurrentHashMap.newKeySet();
+                resultado.add(suscripcion);
+                return resultado;
+            });
+        }
+        for (Categoria categoria : suscripcion.categorias()) {
+            porCategoria.get(categoria).add(suscripcion);
+        }
+        // Todo envío pasa por la cola de la suscripción, así nunca hay dos escrituras simultáneas en una conexión
+        enviar(suscripcion, SseEmitter.event()
+                .reconnectTime(config.getVentanaMs() * 4)
+                .comment("suscripto"));
+        return emitter;
+    }
+
+    /**
+     * Acumula el cambio confirmado, combinándolo con el pendiente del mismo producto
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarProducto(ProductoEvento evento) {
+        if (todas.isEmpty()) {
+            return;
+        }
+        pendientes.merge(evento.getId(), evento, CanalCambios::combinar);
+    }
+
+    /**
+     * Combina dos eventos del mismo producto: conserva el estado anterior del primero y el actual del segundo
+     * Un producto creado y eliminado dentro de la misma ventana no se notifica
+     */
+    static ProductoEvento combinar(ProductoEvento primero, ProductoEvento segundo) {
+        TipoEventoProducto tipo;
+        if (segundo.getTipo() == TipoEventoProducto.ELIMINADO) {
+            if (primero.getTipo() == TipoEventoProducto.CREADO) {
+                return null;
+            }
+            tipo = TipoEventoProducto.ELIMINADO;
+        } else if (primero.getTipo() == TipoEventoProducto.CREADO) {
+            tipo = TipoEventoProducto.CREADO;
+        } else if (primero.getTipo() == TipoEventoProducto.STOCK && segundo.getTipo() == TipoEventoProducto.STOCK) {
+            tipo = TipoEventoProducto.STOCK;
+        } else {
+            tipo = TipoEventoProducto.ACTUALIZADO;
+        }
+        return new ProductoEvento(tipo, primero.getAnterior(), segundo.getActual());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilo.shutdownNow();
+        enviadores.shutdownNow();
+        todas.forEach(suscripcion -> suscripcion.emitter().complete());
+    }
+
+    private void despacharSeguro() {
+        try {
+            despachar();
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica
+            log.warn("No se pudo despachar la ventana de cambios", e);
+        }
+    }
+
+    /**
+     * Envía a cada suscriptor, en un solo evento SSE, los cambios de la ventana que le interesan
+     */
+    private void despachar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<ProductoEvento> eventos = new ArrayList<>(pendientes.size());
+        for (Long id : pendientes.keySet()) {
+            ProductoEvento evento = pendientes.remove(id);
+            if (evento != null) {
+                eventos.add(evento);
+            }
+        }
+
+        Map<Suscripcion, StringJoiner> lotes = new IdentityHashMap<>();
+        for (ProductoEvento evento : eventos) {
+            String json = serializar(evento);
+            Set<Suscripcion> interesados = interesados(evento);
+            for (Suscripcion suscripcion : interesados) {
+                lotes.computeIfAbsent(suscripcion, clave -> new StringJoiner(",", "[", "]")).add(json);
+            }
+        }
+        String id = Long.toString(secuencia.incrementAndGet());
+        lotes.forEach((suscripcion, datos) -> enviar(suscripcion, SseEmitter.event()
+                .id(id)
+                .name("cambios")
+                .data(datos.toString(), MediaType.APPLICATION_JSON)));
+    }
+
+    private Set<Suscripcion> interesados(ProductoEvento evento) {
+        Set<Suscripcion> interesados = Collections.newSetFromMap(new IdentityHashMap<>());
+        interesados.addAll(sinFiltro);
+        Set<Suscripcion> delProducto = porId.get(evento.getId());
+        if (delProducto != null) {
+            interesados.addAll(delProducto);
+        }
+        for (Categoria categoria : evento.getCategoriasAfectadas()) {
+            interesados.addAll(porCategoria.get(categoria));
+        }
+        return interesados;
+    }
+
+    /**
+     * Comentario SSE periódico: mantiene abiertas las conexiones detrás de proxies y detecta clientes caídos
+     */
+    private void enviarLatidos() {
+        for (Suscripcion suscripcion : todas) {
+            enviar(suscripcion, SseEmitter.event().comment("latido"));
+        }
+    }
+
+    /**
+     * Encola el evento en la suscripción y, si no hay un envío en curso, programa uno
+     * Nunca bloquea: un cliente que no lee solo hace crecer su propia cola hasta el máximo
+     */
+    private void enviar(Suscripcion suscripcion, SseEmitter.SseEventBuilder evento) {
+        if (suscripcion.descartada) {
+            return;
+        }
+        if (suscripcion.encolados.incrementAndGet() > config.getMaximoEnviosPendientes()) {
+            descartarLento(suscripcion);
+            return;
+        }
+        suscripcion.cola.add(evento);
+        programarEnvio(suscripcion);
+    }
+
+    private void programarEnvio(Suscripcion suscripcion) {
+        if (suscripcion.enviando.compareAndSet(false, true)) {
+            try {
+                enviadores.execute(() -> vaciar(suscripcion));
+            } catch (RejectedExecutionException e) {
+                // Se está apagando: cerrar() completa las conexiones
+                suscripcion.enviando.set(false);
+            }
+        }
+    }
+
+    /**
+     * Escribe en orden los eventos encolados de una suscripción; a lo sumo un hilo lo hace por vez
+     */
+    private void vaciar(Suscripcion suscripcion) {
+        do {
+            SseEmitter.SseEventBuilder evento;
+            while ((evento = suscripcion.cola.poll()) != null && !suscripcion.descartada) {
+                suscripcion.encolados.decrementAndGet();
+                try {
+                    suscripcion.emitter().send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado: el contenedor completa la solicitud asíncrona
+                    quitar(suscripcion);
+                    suscripcion.descartada = true;
+                    suscripcion.cola.clear();
+                    return;
+                }
+            }
+            if (suscripcion.descartada) {
+                // Se completa desde acá: un complete() desde otro hilo esperaría al envío bloqueado
+                suscripcion.cola.clear();
+                suscripcion.emitter().complete();
+                return;
+            }
+            suscripcion.enviando.set(false);
+            // Un evento encolado entre el último poll y el set(false) también se envía
+        } while (!suscripcion.cola.isEmpty() && suscripcion.enviando.compareAndSet(false, true));
+    }
+
+    private void descartarLento(Suscripcion suscripcion) {
+        if (suscripcion.descartada) {
+            return;
+        }
+        suscripcion.descartada = true;
+        quitar(suscripcion);
+        lentosDesconectados.increment();
+        log.debug("Se desconecta un suscriptor de cambios que no lee: {} envíos pendientes",
+                suscripcion.encolados.get());
+        // Si hay un envío bloqueado, ese mismo hilo completa la conexión cuando se libere
+        programarEnvio(suscripcion);
+    }
+
+    private String serializar(ProductoEvento evento) {
+        try {
+            return objectMapper.writeValueAsString(
+                    new CambioProductoDTO(evento.getTipo(), evento.getId(), evento.getActual()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el cambio del producto " + evento.getId(), e);
+        }
+    }
+
+    private void quitar(Suscripcion suscripcion) {
+        if (!todas.remove(suscripcion)) {
+            return;
+        }
+        sinFiltro.remove(suscripcion);
+        for (Long id : suscripcion.ids()) {
+            porId.computeIfPresent(id, (clave, suscripciones) -> {
+                suscripciones.remove(suscripcion);
+                return suscripciones.isEmpty() ? null : suscripciones;
+            });
+        }
+        for (Categoria categoria : suscripcion.categorias()) {
+            porCategoria.get(categoria).remove(suscripcion);
+        }
+    }
+
+    /**
+     * Suscriptor con su cola de envíos; la identidad es por instancia (no redefine equals ni hashCode)
+     */
+    private static final class Suscripcion {
+        private final SseEmitter emitter;
+        private final Set<Long> ids;
+        private final Set<Categoria> categorias;
+        private final Queue<SseEmitter.SseEventBuilder> cola = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger encolados = new AtomicInteger();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean descartada;
+
+        private Suscripcion(SseEmitter emitter, Set<Long> ids, Set<Categoria> categorias) {
+            this.emitter = emitter;
+            this.ids = ids;
+            this.categorias = categorias;
+        }
+
+        private SseEmitter emitter() {
+            return emitter;
+        }
+
+        private Set<Long> ids() {
+            return ids;
+        }
+
+        private Set<Categoria> categorias() {
+            return categorias;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.FiltroBusquedaDTO;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.event.TipoEventoProducto;
+import com.utn.productos_api.model.Categoria;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Réplica de solo lectura del catálogo en arreglos primitivos, una columna por campo
+ * Los filtros por categoría, rango de precios y stock recorren los arreglos sin crear objetos
+ * por fila; solo se arman DTOs para los productos que se devuelven.
+ * Los nombres se guardan en un pool compartido. Las descripciones no se guardan: los DTOs salen
+ * sin descripción y ProductoService la lee de la base solo para la página devuelta.
+ * Se carga al iniciar (ProductoService.inicializarIndices) y se mantiene con los eventos de cambio;
+ * es opcional (productos.replica.habilitada).
+ * Las bajas dejan una marca con su generación; se descartan como en IndiceTextoProductos: al terminar
+ * una carga, las anteriores a su inicio, y fuera de una carga, en tandas de BAJAS_POR_BARRIDO.
+ */
+@Component
+public class CatalogoColumnar {
+
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final long SIN_FECHA = Long.MIN_VALUE;
+    // Marcas de baja a partir de las cuales se barren las de generaciones anteriores
+    static final int BAJAS_POR_BARRIDO = 1024;
+
+    private final boolean habilitado;
+    private final StampedLock lock = new StampedLock();
+    private volatile boolean listo;
+
+    // Columnas: la fila i de cada arreglo corresponde al mismo producto; las filas vivas son [0, tamanio)
+    private int tamanio;
+    private long[] ids = new long[CAPACIDAD_INICIAL];
+    private double[] precios = new double[CAPACIDAD_INICIAL];
+    private int[] stocks = new int[CAPACIDAD_INICIAL];
+    private byte[] categorias = new byte[CAPACIDAD_INICIAL];
+    private String[] nombres = new String[CAPACIDAD_INICIAL];
+    private long[] versiones = new long[CAPACIDAD_INICIAL];
+    // Fecha de actualización en nanosegundos desde la época (sin zona), para no guardar un LocalDateTime por fila
+    private long[] actualizados = new long[CAPACIDAD_INICIAL];
+
+    private final MapaIdFila filaPorId = new MapaIdFila(CAPACIDAD_INICIAL);
+    private final PoolCadenas poolNombres = new PoolCadenas();
+
+    // ID eliminado -> generación de la baja (los IDs no se reutilizan): una carga o un evento atrasado
+    // no vuelve a insertarlo
+    private final MapaIdFila eliminados = new MapaIdFila(16);
+    // Avanza al iniciar cada carga y en cada barrido de marcas; protegidas por el lock, como las columnas
+    private int generacion;
+    private int cargasEnCurso;
+
+    public CatalogoColumnar(ProductosProperties properties) {
+        this.habilitado = properties.getReplica().isHabilitada();
+    }
+
+    public boolean estaHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * La réplica solo responde consultas una vez terminada la carga inicial
+     */
+    public boolean estaListo() {
+        return listo;
+    }
+
+    public void marcarListo() {
+        listo = habilitado;
+    }
+
+    public int tamanio() {
+        long marca = lock.tryOptimisticRead();
+        int resultado = tamanio;
+        if (!lock.validate(marca)) {
+            marca = lock.readLock();
+            try {
+                resultado = tamanio;
+            } finally {
+                lock.unlockRead(marca);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrega o reemplaza un producto
+     * Si la réplica ya tiene una versión más nueva (un evento llegó antes que la carga inicial), no se pisa;
+     * un producto ya eliminado tampoco vuelve a agregarse
+     */
+    public void guardar(ProductoResponseDTO producto) {
+        long version = producto.getVersion() != null ? producto.getVersion() : 0L;
+        long marca = lock.writeLock();
+        try {
+            if (eliminados.obtener(producto.getId()) != MapaIdFila.AUSENTE) {
+                return;
+            }
+            int fila = filaPorId.obtener(producto.getId());
+            if (fila == MapaIdFila.AUSENTE) {
+                asegurarCapacidad(tamanio + 1);
+                fila = tamanio++;
+                ids[fila] = producto.getId();
+                filaPorId.poner(producto.getId(), fila);
+            } else if (versiones[fila] > version) {
+                return;
+            } else {
+                poolNombres.liberar(nombres[fila]);
+            }
+            precios[fila] = producto.getPrecio();
+            stocks[fila] = producto.getStock();
+            categorias[fila] = (byte) producto.getCategoria().ordinal();
+            nombres[fila] = poolNombres.obtener(producto.getNombre());
+            versiones[fila] = version;
+            actualizados[fila] = codificarFecha(producto.getActualizadoEn());
+        } finally {
+            lock.unlockWrite(marca);
+        }
+    }
+
+    /**
+     * Quita un producto moviendo la última fila a su lugar, así las columnas no quedan con huecos
+     * El ID queda registrado como eliminado aunque todavía no estuviera en la réplica
+     */
+    public void eliminar(Long id) {
+        long marca = lock.writeLock();
+        try {
+            eliminados.poner(id, generacion);
+            if (eliminados.tamanio() >= BAJAS_POR_BARRIDO && cargasEnCurso == 0) {
+                // Cada marca sobrevive al menos una tanda completa de bajas, de sobra para un evento atrasado
+                eliminados.eliminarValoresMenoresA(generacion++);
+            }
+            int fila = filaPorId.obtener(id);
+            if (fila == MapaIdFila.AUSENTE) {
+                return;
+            }
+            filaPorId.eliminar(id);
+            poolNombres.liberar(nombres[fila]);
+            int ultima = --tamanio;
+            if (fila != ultima) {
+                ids[fila] = ids[ultima];
+                precios[fila] = precios[ultima];
+                stocks[fila] = stocks[ultima];
+                categorias[fila] = categorias[ultima];
+                nombres[fila] = nombres[ultima];
+                versiones[fila] = versiones[ultima];
+                actualizados[fila] = actualizados[ultima];
+                filaPorId.poner(ids[fila], fila);
+            }
+            nombres[ultima] = null;
+        } finally {
+            lock.unlockWrite(marca);
+        }
+    }
+
+    /**
+     * Marca el inicio de una carga completa; llamar antes de leer la base
+     * @return Generación de inicio, para pasarla a terminarCarga
+     */
+    public int iniciarCarga() {
+        long marca = lock.writeLock();
+        try {
+            cargasEnCurso++;
+            return ++generacion;
+        } finally {
+            lock.unlockWrite(marca);
+        }
+    }
+
+    /**
+     * Descarta las marcas de bajas anteriores al inicio de la carga: la carga no pudo leer esos productos
+     */
+    public void terminarCarga(int inicio) {
+        long marca = lock.writeLock();
+        try {
+            eliminados.eliminarValoresMenoresA(inicio);
+            cargasEnCurso--;
+        } finally {
+            lock.unlockWrite(marca);
+        }
+    }
+
+    int cantidadEliminados() {
+        long marca = lock.readLock();
+        try {
+            return eliminados.tamanio();
+        } finally {
+            lock.unlockRead(marca);
+        }
+    }
+
+    public void limpiar() {
+        long marca = lock.writeLock();
+        try {
+            listo = false;
+            Arrays.fill(nombres, 0, tamanio, null);
+            tamanio = 0;
+            filaPorId.limpiar();
+            eliminados.limpiar();
+            poolNombres.limpiar();
+        } finally {
+            lock.unlockWrite(marca);
+        }
+    }
+
+    /**
+     * Filtra con los mismos criterios que la búsqueda en base de datos y devuelve una página ordenada
+     * Las filas que cumplen se ofrecen a un montículo acotado al final de la página pedida,
+     * así no se ordena el resultado completo
+     * @param filtro Criterios (ya validados) de la búsqueda
+     * @param orden Campo y dirección; a igualdad se desempata por ID ascendente
+     */
+    public Pagina buscar(FiltroBusquedaDTO filtro, Sort.Order orden, int pagina, int tamanioPagina) {
+        int categoriasIncluidas = -1;
+        if (filtro.getCategorias() != null && !filtro.getCategorias().isEmpty()) {
+            categoriasIncluidas = 0;
+            for (Categoria categoria : filtro.getCategorias()) {
+                categoriasIncluidas |= 1 << categoria.ordinal();
+            }
+        }
+        double precioMin = filtro.getPrecioMin() != null ? filtro.getPrecioMin() : Double.NEGATIVE_INFINITY;
+        double precioMax = filtro.getPrecioMax() != null ? filtro.getPrecioMax() : Double.POSITIVE_INFINITY;
+        boolean soloConStock = Boolean.TRUE.equals(filtro.getSoloConStock());
+        String prefijo = filtro.getPrefijo() != null && !filtro.getPrefijo().isBlank()
+                ? filtro.getPrefijo().trim() : null;
+        long desde = (long) pagina * tamanioPagina;
+        int hasta = (int) Math.min(desde + tamanioPagina, Integer.MAX_VALUE);
+
+        long marca = lock.readLock();
+        try {
+            MonticuloFilas monticulo = new MonticuloFilas(Math.min(hasta, tamanio), comparador(orden));
+            long total = 0;
+            for (int fila = 0; fila < tamanio; fila++) {
+                if ((categoriasIncluidas >>> categorias[fila] & 1) == 0) {
+                    continue;
+                }
+                double precio = precios[fila];
+                if (precio < precioMin || precio > precioMax) {
+                    continue;
+                }
+                if (soloConStock && stocks[fila] <= 0) {
+                    continue;
+                }
+                if (prefijo != null && !nombres[fila].regionMatches(true, 0, prefijo, 0, prefijo.length())) {
+                    continue;
+                }
+                total++;
+                monticulo.ofrecer(fila);
+            }
+
+            int[] ordenadas = monticulo.ordenar();
+            if (desde >= ordenadas.length) {
+                return new Pagina(Collections.emptyList(), total);
+            }
+            List<ProductoResponseDTO> contenido = new ArrayList<>(ordenadas.length - (int) desde);
+            for (int i = (int) desde; i < ordenadas.length; i++) {
+                contenido.add(aDTO(ordenadas[i]));
+            }
+            return new Pagina(contenido, total);
+        } finally {
+            lock.unlockRead(marca);
+        }
+    }
+
+    /**
+     * Mantiene la réplica con los cambios ya confirmados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarProducto(ProductoEvento evento) {
+        if (!habilitado) {
+            return;
+        }
+        if (evento.getTipo() == TipoEventoProducto.ELIMINADO) {
+            eliminar(evento.getId());
+        } else {
+            guardar(evento.getActual());
+        }
+    }
+
+    public record Pagina(List<ProductoResponseDTO> contenido, long total) {
+    }
+
+    private ProductoResponseDTO aDTO(int fila) {
+        return new ProductoResponseDTO(
+                ids[fila],
+                nombres[fila],
+                null,
+                precios[fila],
+                stocks[fila],
+                CATEGORIAS[categorias[fila]],
+                versiones[fila],
+                decodificarFecha(actualizados[fila])
+        );
+    }
+
+    private ComparadorFilas comparador(Sort.Order orden) {
+        ComparadorFilas porCampo = switch (orden.getProperty()) {
+            case "nombre" -> (a, b) -> nombres[a].compareTo(nombres[b]);
+            case "precio" -> (a, b) -> Double.compare(precios[a], precios[b]);
+            case "stock" -> (a, b) -> Integer.compare(stocks[a], stocks[b]);
+            default -> (a, b) -> Long.compare(ids[a], ids[b]);
+        };
+        boolean descendente = orden.isDescending();
+        return (a, b) -> {
+            int resultado = porCampo.comparar(a, b);
+            if (resultado != 0) {
+                return descendente ? -resultado : resultado;
+            }
+            return Long.compare(ids[a], ids[b]);
+        };
+    }
+
+    private void asegurarCapacidad(int requerida) {
+        if (requerida <= ids.length) {
+            return;
+        }
+        int capacidad = Math.max(requerida, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacidad);
+        precios = Arrays.copyOf(precios, capacidad);
+        stocks = Arrays.copyOf(stocks, capacidad);
+        categorias = Arrays.copyOf(categorias, capacidad);
+        nombres = Arrays.copyOf(nombres, capacidad);
+        versiones = Arrays.copyOf(versiones, capacidad);
+        actualizados = Arrays.copyOf(actualizados, capacidad);
+    }
+
+    private static long codificarFecha(LocalDateTime fecha) {
+        if (fecha == null) {
+            return SIN_FECHA;
+        }
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + fecha.getNano();
+    }
+
+    private static LocalDateTime decodificarFecha(long valor) {
+        if (valor == SIN_FECHA) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(valor, 1_000_000_000L), (int) Math.floorMod(valor, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    private interface ComparadorFilas {
+        int comparar(int filaA, int filaB);
+    }
+
+    /**
+     * Montículo de máximos acotado: conserva las filas más chicas según el comparador
+     */
+    private static final class MonticuloFilas {
+        private final int[] filas;
+        private final ComparadorFilas comparador;
+        private int cantidad;
+
+        private MonticuloFilas(int capacidad, ComparadorFilas comparador) {
+            this.filas = new int[capacidad];
+            this.comparador = comparador;
+        }
+
+        private void ofrecer(int fila) {
+            if (cantidad < filas.length) {
+                filas[cantidad] = fila;
+                subir(cantidad++);
+            } else if (cantidad > 0 && comparador.comparar(fila, filas[0]) < 0) {
+                filas[0] = fila;
+                bajar(0, cantidad);
+            }
+        }
+
+        /**
+         * Ordena en el lugar (heapsort) y devuelve las filas de menor a mayor
+         */
+        private int[] ordenar() {
+            for (int fin = cantidad - 1; fin > 0; fin--) {
+                intercambiar(0, fin);
+                bajar(0, fin);
+            }
+            return cantidad == filas.length ? filas : Arrays.copyOf(filas, cantidad);
+        }
+
+        private void subir(int i) {
+            while (i > 0) {
+                int padre = (i - 1) >>> 1;
+                if (comparador.comparar(filas[i], filas[padre]) <= 0) {
+                    return;
+                }
+                intercambiar(i, padre);
+                i = padre;
+            }
+        }
+
+        private void bajar(int i, int limite) {
+            while (true) {
+                int mayor = i;
+                int izquierdo = 2 * i + 1;
+                int derecho = izquierdo + 1;
+                if (izquierdo < limite && comparador.comparar(filas[izquierdo], filas[mayor]) > 0) {
+                    mayor = izquierdo;
+                }
+                if (derecho < limite && comparador.comparar(filas[derecho], filas[mayor]) > 0) {
+                    mayor = derecho;
+                }
+                if (mayor == i) {
+                    return;
+                }
+                intercambiar(i, mayor);
+                i = mayor;
+            }
+        }
+
+        private void intercambiar(int a, int b) {
+            int temporal = filas[a];
+            filas[a] = filas[b];
+            filas[b] = temporal;
+        }
+    }
+
+    /**
+     * Pool de cadenas con conteo de referencias: los productos con el mismo nombre comparten la instancia
+     */
+    private static final class PoolCadenas {
+        private final Map<String, Entrada> entradas = new HashMap<>();
+
+        private String obtener(String valor) {
+            if (valor == null) {
+                return null;
+            }
+            Entrada entrada = entradas.computeIfAbsent(valor, Entrada::new);
+            entrada.referencias++;
+            return entrada.valor;
+        }
+
+        private void liberar(String valor) {
+            if (valor == null) {
+                return;
+            }
+            Entrada entrada = entradas.get(valor);
+            if (entrada != null && --entrada.referencias == 0) {
+                entradas.remove(valor);
+            }
+        }
+
+        private void limpiar() {
+            entradas.clear();
+        }
+
+        private static final class Entrada {
+            private final String valor;
+            private int referencias;
+
+            private Entrada(String valor) {
+                this.valor = valor;
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.utn.productos_api.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stock en memoria de un producto, repartido en franjas para reducir la contención
+ * Una reserva que entra en una franja se resuelve con un CAS, sin locks; solo cuando
+ * ninguna franja alcanza por sí sola se junta stock de varias bajo el monitor del contador.
+ * pendiente acumula los deltas que todavía no se volcaron a la base de datos; una reserva lo descuenta
+ * antes de tomar stock, así al cerrar el contador toda reserva hecha ya está incluida en él.
+ */
+final class ContadorStock {
+
+    // Separación entre franjas dentro del arreglo, para que no compartan línea de caché
+    private static final int SEPARACION = 16;
+
+    // Valor de las franjas de un contador cerrado: ninguna reserva entra y las liberaciones no desbordan
+    private static final int CERRADA = Integer.MIN_VALUE / 2;
+
+    private final Long id;
+    private final int cantidadFranjas;
+    private final AtomicIntegerArray franjas;
+    private final LongAdder pendiente = new LongAdder();
+
+    // Volcados que le quedan a un contador retirado antes de descartarse
+    private volatile int volcadosRestantes;
+    private volatile boolean cerrado;
+
+    ContadorStock(Long id, int cantidadFranjas, int stockInicial) {
+        this.id = id;
+        this.cantidadFranjas = cantidadFranjas;
+        this.franjas = new AtomicIntegerArray(cantidadFranjas * SEPARACION);
+        repartir(stockInicial);
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    /**
+     * Descuenta unidades si hay stock suficiente
+     * @return true si la reserva se hizo, false si no alcanza o el contador está cerrado
+     */
+    boolean reservar(int cantidad) {
+        pendiente.add(-cantidad);
+        int inicio = ThreadLocalRandom.current().nextInt(cantidadFranjas);
+        for (int k = 0; k < cantidadFranjas; k++) {
+            int i = indice((inicio + k) % cantidadFranjas);
+            int actual = franjas.get(i);
+            while (actual >= cantidad) {
+                if (franjas.compareAndSet(i, actual, actual - cantidad)) {
+                    return true;
+                }
+                actual = franjas.get(i);
+            }
+        }
+        if (reservarJuntando(cantidad)) {
+            return true;
+        }
+        pendiente.add(cantidad);
+        return false;
+    }
+
+    /**
+     * Suma unidades al stock
+     * @return Stock disponible luego de liberar
+     */
+    int liberar(int cantidad) {
+        franjas.getAndAdd(indice(ThreadLocalRandom.current().nextInt(cantidadFranjas)), cantidad);
+        pendiente.add(cantidad);
+        return disponible();
+    }
+
+    /**
+     * Reemplaza el stock por un valor absoluto; la diferencia queda pendiente de volcar
+     * @return false si el contador está cerrado (el stock ya se sirve desde la base)
+     */
+    synchronized boolean establecer(int stock) {
+        if (cerrado) {
+            return false;
+        }
+        long previo = 0;
+        for (int f = 0; f < cantidadFranjas; f++) {
+            previo += franjas.getAndSet(indice(f), 0);
+        }
+        repartir(stock);
+        pendiente.add(stock - previo);
+        return true;
+    }
+
+    /**
+     * Cierra el contador al dejar de servir el stock desde memoria: desde acá ninguna reserva entra
+     * Las reservas ya hechas quedaron en el pendiente, que quien cierra toma y vuelca después
+     */
+    synchronized void cerrar() {
+        cerrado = true;
+        for (int f = 0; f < cantidadFranjas; f++) {
+            franjas.set(indice(f), CERRADA);
+        }
+    }
+
+    boolean estaCerrado() {
+        return cerrado;
+    }
+
+    int disponible() {
+        int total = 0;
+        for (int f = 0; f < cantidadFranjas; f++) {
+            total += franjas.get(indice(f));
+        }
+        return total;
+    }
+
+    /**
+     * Toma el delta acumulado desde el último volcado y lo pone en cero
+     */
+    long tomarPendiente() {
+        return pendiente.sumThenReset();
+    }
+
+    /**
+     * Devuelve un delta que no se pudo volcar, para reintentarlo en el próximo ciclo
+     */
+    void devolverPendiente(long delta) {
+        pendiente.add(delta);
+    }
+
+    void retirar(int volcados) {
+        this.volcadosRestantes = volcados;
+    }
+
+    /**
+     * Descuenta un volcado a un contador retirado
+     * @return true si ya puede descartarse
+     */
+    boolean descontarVolcado() {
+        return --volcadosRestantes <= 0;
+    }
+
+    // Camino lento: ninguna franja alcanza sola, se junta stock de varias
+    private synchronized boolean reservarJuntando(int cantidad) {
+        if (cerrado) {
+            return false;
+        }
+        int tomado = 0;
+        for (int f = 0; f < cantidadFranjas && tomado < cantidad; f++) {
+            int i = indice(f);
+            int actual = franjas.get(i);
+            while (actual > 0 && tomado < cantidad) {
+                int parte = Math.min(actual, cantidad - tomado);
+                if (franjas.compareAndSet(i, actual, actual - parte)) {
+                    tomado += parte;
+                }
+                actual = franjas.get(i);
+            }
+        }
+        if (tomado == cantidad) {
+            return true;
+        }
+        // No alcanzó: se devuelve lo tomado
+        if (tomado > 0) {
+            franjas.getAndAdd(indice(0), tomado);
+        }
+        return false;
+    }
+
+    // Suma (no asigna) para no pisar liberaciones concurrentes sobre franjas ya vaciadas
+    private void repartir(int stock) {
+        int porFranja = stock / cantidadFranjas;
+        int resto = stock % cantidadFranjas;
+        for (int f = 0; f < cantidadFranjas; f++) {
+            franjas.getAndAdd(indice(f), porFranja + (f == 0 ? resto : 0));
+        }
+    }
+
+    private static int indice(int franja) {
+        return franja * SEPARACION;
+    }
+}
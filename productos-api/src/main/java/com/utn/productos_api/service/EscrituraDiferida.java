@@ -0,0 +1,365 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.EscrituraDescartadaDTO;
+import com.utn.productos_api.dto.ProductoDTO;
+import com.utn.productos_api.exception.EscrituraDiferidaNoDisponibleException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Escrituras diferidas (write-behind) de productos
+ * Las modificaciones aceptadas se combinan por producto en memoria y se aplican en lotes, cada lote
+ * en una sola transacción: muchas escrituras del mismo producto terminan en un único UPDATE.
+ * Una ronda de aplicación termina antes de empezar la siguiente, así dos escrituras del mismo
+ * producto nunca se aplican fuera de orden. Al apagar, se aplica todo lo pendiente.
+ * Una escritura que falla por un error transitorio vuelve a la cola (combinada antes de las que llegaron
+ * después) y se reintenta con espera creciente hasta maximoReintentos. Solo se descartan las que no pueden
+ * aplicarse nunca (producto inexistente, datos inválidos) o las que agotan los reintentos; las últimas
+ * descartadas se pueden consultar con descartes().
+ */
+@Slf4j
+@Component
+public class EscrituraDiferida {
+
+    private static final long ESPERA_CIERRE_SEGUNDOS = 30;
+
+    private final ProductoService productoService;
+    private final ProductosProperties.EscrituraDiferida config;
+
+    // Escrituras combinadas por producto, a la espera de la próxima ronda
+    private final Map<Long, EscrituraPendiente> pendientes = new ConcurrentHashMap<>();
+    // Productos cuya escritura falló y espera su próximo reintento
+    private final Map<Long, Reintento> reintentos = new ConcurrentHashMap<>();
+    // Últimas escrituras descartadas, la más reciente al final (acceso sincronizado)
+    private final Deque<EscrituraDescartadaDTO> descartes = new ArrayDeque<>();
+
+    // Las escrituras se encolan con el bloqueo de lectura; el cierre toma el de escritura para esperarlas
+    private final ReadWriteLock cierre = new ReentrantReadWriteLock();
+    private volatile boolean cerrada;
+
+    private final AtomicBoolean rondaAdelantada = new AtomicBoolean();
+    private final ScheduledExecutorService programador;
+    private final ExecutorService trabajadores;
+
+    private final Counter aceptadas;
+    private final Counter combinadas;
+    private final Counter aplicadas;
+    private final Counter descartadas;
+    private final Counter reintentadas;
+
+    public EscrituraDiferida(ProductoService productoService, ProductosProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.productoService = productoService;
+        this.config = properties.getEscrituraDiferida();
+        this.aceptadas = contador(meterRegistry, "productos.escritura.aceptadas",
+                "Escrituras diferidas aceptadas con 202");
+        this.combinadas = contador(meterRegistry, "productos.escritura.combinadas",
+                "Escrituras diferidas combinadas con otra pendiente del mismo producto");
+        this.aplicadas = contador(meterRegistry, "productos.escritura.aplicadas",
+                "Productos actualizados por las escrituras diferidas");
+        this.descartadas = contador(meterRegistry, "productos.escritura.descartadas",
+                "Escrituras diferidas descartadas (producto inexistente, datos inválidos o reintentos agotados)");
+        this.reintentadas = contador(meterRegistry, "productos.escritura.reintentadas",
+                "Escrituras diferidas que volvieron a la cola tras un error transitorio");
+        meterRegistry.gaugeMapSize("productos.escritura.pendientes", List.of(), pendientes);
+
+        if (!config.isHabilitada()) {
+            this.programador = null;
+            this.trabajadores = null;
+            return;
+        }
+        this.programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "escritura-diferida");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        AtomicInteger numero = new AtomicInteger();
+        this.trabajadores = Executors.newFixedThreadPool(Math.max(1, config.getHilos()), tarea -> {
+            Thread hilo = new Thread(tarea, "escritura-diferida-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::aplicarSeguro,
+                config.getIntervaloMs(), config.getIntervaloMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean estaHabilitada() {
+        return config.isHabilitada();
+    }
+
+    /**
+     * Encola el reemplazo de todos los datos del producto
+     * @throws EscrituraDiferidaNoDisponibleException si la cola está llena o la aplicación se está apagando
+     */
+    public void actualizarProducto(Long id, ProductoDTO productoDTO) {
+        encolar(id, EscrituraPendiente.completa(productoDTO));
+    }
+
+    /**
+     * Encola un nuevo valor de stock
+     * @throws EscrituraDiferidaNoDisponibleException si la cola está llena o la aplicación se está apagando
+     */
+    public void actualizarStock(Long id, int stock) {
+        encolar(id, EscrituraPendiente.stockFijado(stock));
+    }
+
+    /**
+     * Encola la devolución de unidades al stock; se suma a las otras devoluciones pendientes
+     * @throws EscrituraDiferidaNoDisponibleException si la cola está llena o la aplicación se está apagando
+     */
+    public void liberarStock(Long id, int cantidad) {
+        encolar(id, EscrituraPendiente.movimiento(cantidad));
+    }
+
+    /**
+     * Últimas escrituras descartadas, de la más antigua a la más reciente
+     * Una escritura aceptada con 202 que no aparece acá ni en la cola terminó aplicada
+     */
+    public List<EscrituraDescartadaDTO> descartes() {
+        synchronized (descartes) {
+            return List.copyOf(descartes);
+        }
+    }
+
+    /**
+     * Detiene la aceptación de escrituras, espera la ronda en curso y aplica todo lo pendiente
+     * Los reintentos pendientes se hacen sin esperar, hasta aplicarse o agotarlos
+     */
+    @PreDestroy
+    public void cerrar() throws InterruptedException {
+        if (!config.isHabilitada()) {
+            return;
+        }
+        cierre.writeLock().lock();
+        try {
+            cerrada = true;
+        } finally {
+            cierre.writeLock().unlock();
+        }
+        programador.shutdown();
+        programador.awaitTermination(ESPERA_CIERRE_SEGUNDOS, TimeUnit.SECONDS);
+
+        int restantes = pendientes.size();
+        while (!pendientes.isEmpty()) {
+            aplicar(false);
+        }
+        trabajadores.shutdown();
+        trabajadores.awaitTermination(ESPERA_CIERRE_SEGUNDOS, TimeUnit.SECONDS);
+        if (restantes > 0) {
+            log.info("Escrituras diferidas aplicadas al apagar: {} productos", restantes);
+        }
+    }
+
+    private void encolar(Long id, EscrituraPendiente escritura) {
+        if (!config.isHabilitada()) {
+            throw new IllegalStateException("Las escrituras diferidas no están habilitadas");
+        }
+        // tryLock: durante el cierre no se espera, se rechaza enseguida
+        if (!cierre.readLock().tryLock()) {
+            throw new EscrituraDiferidaNoDisponibleException("La aplicación se está apagando");
+        }
+        try {
+            if (cerrada) {
+                throw new EscrituraDiferidaNoDisponibleException("La aplicación se está apagando");
+            }
+            // La capacidad es aproximada: con escrituras simultáneas se puede pasar por unas pocas
+            if (pendientes.size() >= config.getCapacidad() && !pendientes.containsKey(id)) {
+                throw new EscrituraDiferidaNoDisponibleException(
+                        "Hay demasiadas escrituras pendientes; reintentar en unos segundos");
+            }
+            pendientes.merge(id, escritura, (primera, segunda) -> {
+                combinadas.increment();
+                return EscrituraPendiente.combinar(primera, segunda);
+            });
+            aceptadas.increment();
+        } finally {
+            cierre.readLock().unlock();
+        }
+
+        // Con un lote completo no se espera al intervalo
+        if (pendientes.size() >= config.getTamanioLote() && rondaAdelantada.compareAndSet(false, true)) {
+            try {
+                programador.execute(this::aplicarSeguro);
+            } catch (RejectedExecutionException e) {
+                // Se está apagando: el cierre aplica lo pendiente
+            }
+        }
+    }
+
+    private void aplicarSeguro() {
+        try {
+            aplicar(true);
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica
+            log.warn("No se pudieron aplicar las escrituras diferidas", e);
+        }
+    }
+
+    /**
+     * Una ronda: toma todo lo pendiente, lo reparte en lotes y espera a que los trabajadores los apliquen
+     * @param respetarEspera si es false, también toma las escrituras que esperan su próximo reintento
+     */
+    private void aplicar(boolean respetarEspera) {
+        rondaAdelantada.set(false);
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        List<Callable<Void>> tareas = new ArrayList<>();
+        Map<Long, EscrituraPendiente> lote = new LinkedHashMap<>();
+        for (Long id : pendientes.keySet()) {
+            Reintento reintento = reintentos.get(id);
+            if (respetarEspera && reintento != null && reintento.noAntesDe() - ahora > 0) {
+                continue;
+            }
+            EscrituraPendiente escritura = pendientes.remove(id);
+            if (escritura == null) {
+                continue;
+            }
+            lote.put(id, escritura);
+            if (lote.size() == config.getTamanioLote()) {
+                tareas.add(tarea(lote));
+                lote = new LinkedHashMap<>();
+            }
+        }
+        if (!lote.isEmpty()) {
+            tareas.add(tarea(lote));
+        }
+
+        try {
+            for (Future<Void> resultado : trabajadores.invokeAll(tareas)) {
+                resultado.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Error inesperado al aplicar un lote de escrituras diferidas", e.getCause());
+        }
+    }
+
+    private Callable<Void> tarea(Map<Long, EscrituraPendiente> lote) {
+        return () -> {
+            aplicarLote(lote);
+            return null;
+        };
+    }
+
+    /**
+     * Aplica un lote en una transacción; si falla, reintenta producto por producto
+     * para que una escritura inválida no arrastre al resto del lote.
+     * Si una escritura vuelve a fallar, se descarta solo si el error es permanente; si no, vuelve a la cola
+     */
+    private void aplicarLote(Map<Long, EscrituraPendiente> lote) {
+        try {
+            registrar(lote, productoService.aplicarEscriturasDiferidas(lote));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Falló un lote de {} escrituras diferidas; se aplican de a una: {}", lote.size(), e.getMessage());
+        }
+        lote.forEach((id, escritura) -> {
+            try {
+                registrar(Map.of(id, escritura), productoService.aplicarEscriturasDiferidas(Map.of(id, escritura)));
+            } catch (RuntimeException e) {
+                if (esPermanente(e)) {
+                    log.error("Se descartó la escritura diferida del producto {}", id, e);
+                    descartar(id, e.getMessage());
+                } else {
+                    reencolar(id, escritura, e);
+                }
+            }
+        });
+    }
+
+    private void registrar(Map<Long, EscrituraPendiente> lote, Set<Long> aplicados) {
+        aplicadas.increment(aplicados.size());
+        aplicados.forEach(reintentos::remove);
+        if (aplicados.size() < lote.size()) {
+            List<Long> inexistentes = lote.keySet().stream().filter(id -> !aplicados.contains(id)).toList();
+            log.warn("Escrituras diferidas descartadas por productos inexistentes: {}", inexistentes);
+            inexistentes.forEach(id -> descartar(id, "El producto no existe"));
+        }
+    }
+
+    /**
+     * Devuelve a la cola una escritura que falló por un error transitorio, delante de las que llegaron después
+     */
+    private void reencolar(Long id, EscrituraPendiente escritura, RuntimeException error) {
+        Reintento anterior = reintentos.get(id);
+        int intentos = anterior != null ? anterior.intentos() + 1 : 1;
+        if (intentos > config.getMaximoReintentos()) {
+            log.error("Se descartó la escritura diferida del producto {} tras {} intentos", id, intentos, error);
+            descartar(id, "Reintentos agotados: " + error.getMessage());
+            return;
+        }
+        long espera = config.getEsperaReintentoMs() << Math.min(intentos - 1, 16);
+        log.warn("Falló la escritura diferida del producto {}; reintento {} en {} ms: {}",
+                id, intentos, espera, error.getMessage());
+        reintentos.put(id, new Reintento(intentos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(espera)));
+        pendientes.merge(id, escritura, (posterior, fallida) -> EscrituraPendiente.combinar(fallida, posterior));
+        reintentadas.increment();
+    }
+
+    private void descartar(Long id, String motivo) {
+        Reintento reintento = reintentos.remove(id);
+        int intentos = reintento != null ? reintento.intentos() + 1 : 1;
+        descartadas.increment();
+        synchronized (descartes) {
+            if (descartes.size() >= Math.max(1, config.getDescartesRetenidos())) {
+                descartes.removeFirst();
+            }
+            descartes.addLast(new EscrituraDescartadaDTO(id, motivo, intentos, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Errores que se repetirían en cada reintento: datos que violan restricciones o un stock fuera de rango
+     */
+    private static boolean esPermanente(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof DataIntegrityViolationException
+                    || causa instanceof ConstraintViolationException
+                    || causa instanceof ArithmeticException
+                    || causa instanceof IllegalArgumentException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Reintento(int intentos, long noAntesDe) {
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String nombre, String descripcion) {
+        return Counter.builder(nombre)
+                .description(descripcion)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.ProductoDTO;
+
+/**
+ * Escrituras diferidas de un producto, ya combinadas en el orden en que llegaron
+ * Se aplican en este orden: datos completos (incluyen el stock), stock fijado y por último el delta de stock.
+ * @param producto Últimos datos completos recibidos, o null si solo cambió el stock
+ * @param stock Último stock fijado después de esos datos, o null
+ * @param delta Unidades sumadas al stock después de todo lo anterior
+ */
+public record EscrituraPendiente(ProductoDTO producto, Integer stock, long delta) {
+
+    public static EscrituraPendiente completa(ProductoDTO producto) {
+        return new EscrituraPendiente(producto, null, 0);
+    }
+
+    public static EscrituraPendiente stockFijado(int stock) {
+        return new EscrituraPendiente(null, stock, 0);
+    }
+
+    public static EscrituraPendiente movimiento(int delta) {
+        return new EscrituraPendiente(null, null, delta);
+    }
+
+    /**
+     * Combina dos escrituras del mismo producto: los datos completos y el stock fijado reemplazan
+     * a todo lo anterior (gana la última), mientras que los movimientos de stock se suman
+     */
+    public static EscrituraPendiente combinar(EscrituraPendiente primera, EscrituraPendiente segunda) {
+        if (segunda.producto() != null) {
+            return segunda;
+        }
+        if (segunda.stock() != null) {
+            return new EscrituraPendiente(primera.producto(), segunda.stock(), segunda.delta());
+        }
+        return new EscrituraPendiente(primera.producto(), primera.stock(), primera.delta() + segunda.delta());
+    }
+
+    /**
+     * Indica si solo cambia el stock (el evento publicado es STOCK en lugar de ACTUALIZADO)
+     */
+    public boolean soloStock() {
+        return producto == null;
+    }
+}
@@ -0,0 +1,255 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.EstadisticasCatalogoDTO;
+import com.utn.productos_api.dto.EstadisticasCategoriaDTO;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.model.Categoria;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Agregados del catálogo por categoría, mantenidos en forma incremental con los eventos de cambio
+ * Consultarlos cuesta O(categorías), sin importar el tamaño del catálogo.
+ * Reflejan lo confirmado en la base (el stock en caliente se ve recién al volcarse) y se
+ * reconcilian periódicamente contra ella para corregir cualquier desvío.
+ * Cada cambio queda "en curso" desde antes del commit hasta que se suma su delta; una categoría solo se
+ * reemplaza con lo leído de la base si no tenía cambios en curso al empezar la consulta ni recibió otros
+ * después, así un commit ya incluido en la consulta nunca se vuelve a sumar.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EstadisticasCatalogo {
+
+    private static final int INTENTOS_RECONCILIACION = 3;
+
+    // Una fila por (categoría, precio): alcanza para los totales y para rearmar los precios de cada categoría
+    private static final String CONSULTA_AGREGADOS = "SELECT categoria, precio, COUNT(*) AS cantidad, " +
+            "SUM(stock) AS stock, SUM(CASE WHEN stock <= 0 THEN 1 ELSE 0 END) AS sin_stock " +
+            "FROM producto GROUP BY categoria, precio";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Categoria, Acumulador> acumuladores = crearAcumuladores();
+    private volatile LocalDateTime reconciliadoEn;
+
+    public EstadisticasCatalogoDTO obtener() {
+        List<EstadisticasCategoriaDTO> categorias = new ArrayList<>(acumuladores.size());
+        long cantidad = 0;
+        long stockTotal = 0;
+        double valorStock = 0;
+        long sinStock = 0;
+        for (Map.Entry<Categoria, Acumulador> entrada : acumuladores.entrySet()) {
+            EstadisticasCategoriaDTO categoria = entrada.getValue().aDTO(entrada.getKey());
+            categorias.add(categoria);
+            cantidad += categoria.getCantidad();
+            stockTotal += categoria.getStockTotal();
+            valorStock += categoria.getValorStock();
+            sinStock += categoria.getSinStock();
+        }
+        return new EstadisticasCatalogoDTO(cantidad, stockTotal, valorStock, sinStock, categorias, reconciliadoEn);
+    }
+
+    /**
+     * Resta el estado anterior del producto y suma el actual, una vez confirmada la transacción
+     * Se escucha antes del commit para marcar las categorías afectadas como en curso hasta aplicar el delta
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void alCambiarProducto(ProductoEvento evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(evento);
+            return;
+        }
+        Set<Acumulador> afectados = afectados(evento);
+        afectados.forEach(Acumulador::iniciar);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int estado) {
+                if (estado == STATUS_COMMITTED) {
+                    aplicar(evento);
+                }
+                afectados.forEach(Acumulador::terminar);
+            }
+        });
+    }
+
+    private void aplicar(ProductoEvento evento) {
+        if (evento.getAnterior() != null) {
+            acumuladores.get(evento.getAnterior().getCategoria()).sumar(evento.getAnterior(), -1);
+        }
+        if (evento.getActual() != null) {
+            acumuladores.get(evento.getActual().getCategoria()).sumar(evento.getActual(), 1);
+        }
+    }
+
+    private Set<Acumulador> afectados(ProductoEvento evento) {
+        Set<Acumulador> afectados = new HashSet<>(2);
+        if (evento.getAnterior() != null) {
+            afectados.add(acumuladores.get(evento.getAnterior().getCategoria()));
+        }
+        if (evento.getActual() != null) {
+            afectados.add(acumuladores.get(evento.getActual().getCategoria()));
+        }
+        return afectados;
+    }
+
+    /**
+     * Carga inicial, una vez restaurado el catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconciliar();
+    }
+
+    /**
+     * Recalcula los agregados desde la base y reemplaza los de cada categoría
+     * Si una categoría tenía un commit en curso al empezar o recibió cambios mientras corría la consulta,
+     * no se reemplaza (el resultado podría incluir un delta aún no sumado, o no incluir uno ya sumado)
+     * y se reintenta
+     */
+    @Scheduled(fixedDelayString = "${productos.estadisticas.intervalo-reconciliacion-ms:300000}",
+            initialDelayString = "${productos.estadisticas.intervalo-reconciliacion-ms:300000}")
+    public void reconciliar() {
+        Set<Categoria> pendientes = EnumSet.allOf(Categoria.class);
+        for (int intento = 0; intento < INTENTOS_RECONCILIACION && !pendientes.isEmpty(); intento++) {
+            Map<Categoria, Long> cambiosPrevios = new EnumMap<>(Categoria.class);
+            acumuladores.forEach((categoria, acumulador) -> {
+                long cambios = acumulador.cambiosSiNoHayEnCurso();
+                if (cambios >= 0) {
+                    cambiosPrevios.put(categoria, cambios);
+                }
+            });
+            Map<Categoria, Acumulador> calculados = calcularDesdeBase();
+            pendientes.removeIf(categoria -> cambiosPrevios.containsKey(categoria) && acumuladores.get(categoria)
+                    .reemplazarSiSinCambios(calculados.get(categoria), cambiosPrevios.get(categoria)));
+        }
+        if (!pendientes.isEmpty()) {
+            log.warn("No se pudieron reconciliar las estadísticas de {} por cambios concurrentes", pendientes);
+        }
+        reconciliadoEn = LocalDateTime.now();
+    }
+
+    private Map<Categoria, Acumulador> calcularDesdeBase() {
+        Map<Categoria, Acumulador> calculados = crearAcumuladores();
+        jdbcTemplate.query(CONSULTA_AGREGADOS, rs -> {
+            calculados.get(Categoria.valueOf(rs.getString("categoria"))).sumarGrupo(
+                    rs.getDouble("precio"),
+                    rs.getLong("cantidad"),
+                    rs.getLong("stock"),
+                    rs.getLong("sin_stock"));
+        });
+        return calculados;
+    }
+
+    private static Map<Categoria, Acumulador> crearAcumuladores() {
+        Map<Categoria, Acumulador> acumuladores = new EnumMap<>(Categoria.class);
+        for (Categoria categoria : Categoria.values()) {
+            acumuladores.put(categoria, new Acumulador());
+        }
+        return acumuladores;
+    }
+
+    /**
+     * Agregados de una categoría; los precios se guardan como multiconjunto para conocer mínimo y máximo
+     */
+    private static final class Acumulador {
+        private final TreeMap<Double, Long> precios = new TreeMap<>();
+        private long cantidad;
+        private long stockTotal;
+        private double valorStock;
+        private double sumaPrecios;
+        private long sinStock;
+        // Se incrementa al iniciar un commit que afecta a la categoría y al sumar cada delta
+        private long cambios;
+        private int enCurso;
+
+        private synchronized void iniciar() {
+            enCurso++;
+            cambios++;
+        }
+
+        private synchronized void terminar() {
+            enCurso--;
+        }
+
+        private synchronized void sumar(ProductoResponseDTO producto, int signo) {
+            double precio = producto.getPrecio();
+            int stock = producto.getStock();
+            cantidad += signo;
+            stockTotal += (long) signo * stock;
+            valorStock += signo * precio * stock;
+            sumaPrecios += signo * precio;
+            if (stock <= 0) {
+                sinStock += signo;
+            }
+            precios.compute(precio, (clave, repeticiones) -> {
+                long resultado = (repeticiones != null ? repeticiones : 0L) + signo;
+                return resultado > 0 ? resultado : null;
+            });
+            cambios++;
+        }
+
+        private void sumarGrupo(double precio, long productos, long stock, long productosSinStock) {
+            cantidad += productos;
+            stockTotal += stock;
+            valorStock += precio * stock;
+            sumaPrecios += precio * productos;
+            sinStock += productosSinStock;
+            precios.put(precio, productos);
+        }
+
+        /**
+         * Cambios registrados, o -1 si hay un commit en curso (su delta podría llegar después de la consulta)
+         */
+        private synchronized long cambiosSiNoHayEnCurso() {
+            return enCurso > 0 ? -1 : cambios;
+        }
+
+        private synchronized boolean reemplazarSiSinCambios(Acumulador calculado, long cambiosEsperados) {
+            if (cambios != cambiosEsperados) {
+                return false;
+            }
+            precios.clear();
+            precios.putAll(calculado.precios);
+            cantidad = calculado.cantidad;
+            stockTotal = calculado.stockTotal;
+            valorStock = calculado.valorStock;
+            sumaPrecios = calculado.sumaPrecios;
+            sinStock = calculado.sinStock;
+            return true;
+        }
+
+        private synchronized EstadisticasCategoriaDTO aDTO(Categoria categoria) {
+            boolean vacia = cantidad <= 0 || precios.isEmpty();
+            return new EstadisticasCategoriaDTO(
+                    categoria,
+                    cantidad,
+                    stockTotal,
+                    valorStock,
+                    vacia ? null : precios.firstKey(),
+                    vacia ? null : precios.lastKey(),
+                    vacia ? null : sumaPrecios / cantidad,
+                    sinStock
+            );
+        }
+    }
+}
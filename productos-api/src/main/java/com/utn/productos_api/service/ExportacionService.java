@@ -0,0 +1,303 @@
+package com.utn.productos_api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.ExportacionDTO;
+import com.utn.productos_api.dto.FormatoExportacion;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.exception.ExportacionNotFoundException;
+import com.utn.productos_api.model.Categoria;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Volcados completos del catálogo en CSV o NDJSON comprimidos con gzip
+ * Las filas se leen con un cursor JDBC de solo avance y se escriben a medida que llegan:
+ * en memoria nunca hay más que una página del cursor, sin importar el tamaño del catálogo.
+ * Los archivos se escriben con un FileChannel y se publican recién cuando están completos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportacionService {
+
+    private static final int TAMANIO_BUFFER = 1 << 16;
+    private static final int FILAS_POR_PAGINA = 1000;
+    private static final DateTimeFormatter MARCA_TIEMPO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final Pattern NOMBRE_VOLCADO = Pattern.compile("productos-[0-9-]+\\.(csv|ndjson)\\.gz");
+
+    // Mismas columnas que acepta la importación masiva: reimportar un volcado CSV actualiza los productos
+    // que siguen existiendo y rechaza las filas cuyo id ya no está (restaurar con ids es tarea de la instantánea)
+    private static final String ENCABEZADO_CSV = "id,nombre,descripcion,precio,stock,categoria,version,actualizadoEn";
+
+    private static final String SELECT_TODOS = "SELECT id, nombre, descripcion, precio, stock, categoria, " +
+            "version, actualizado_en FROM producto ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductosProperties properties;
+    private final ProductoService productoService;
+
+    /**
+     * Genera un volcado del catálogo completo en el directorio de exportaciones
+     * Primero vuelca el stock en caliente, igual que la instantánea binaria
+     * @return Nombre del archivo, filas escritas, tamaño y duración
+     */
+    public synchronized ExportacionDTO exportar(FormatoExportacion formato) {
+        long inicio = System.nanoTime();
+        productoService.volcarStockEnCaliente();
+
+        Path directorio = directorio();
+        LocalDateTime generadaEn = LocalDateTime.now();
+        String nombre = "productos-" + MARCA_TIEMPO.format(generadaEn) + "." + formato.getExtension();
+        Path archivo = directorio.resolve(nombre);
+        try {
+            Files.createDirectories(directorio);
+            Path temporal = Files.createTempFile(directorio, "productos", ".tmp");
+            long filas;
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                filas = escribir(canal, formato);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporal);
+                throw e;
+            }
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE);
+            descartarViejos(formato);
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Volcado {} generado: {} productos en {} ms", nombre, filas, duracionMs);
+            return new ExportacionDTO(nombre, formato, filas, Files.size(archivo), duracionMs, generadaEn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el volcado " + archivo, e);
+        }
+    }
+
+    /**
+     * Volcado nocturno (productos.exportacion.cron), deshabilitado por defecto
+     */
+    @Scheduled(cron = "${productos.exportacion.cron:-}")
+    public void exportarProgramado() {
+        for (FormatoExportacion formato : properties.getExportacion().getFormatosProgramados()) {
+            exportar(formato);
+        }
+    }
+
+    /**
+     * Volcados disponibles, del más nuevo al más viejo
+     */
+    public List<ExportacionDTO> listar() {
+        Path directorio = directorio();
+        if (!Files.isDirectory(directorio)) {
+            return List.of();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(archivo -> NOMBRE_VOLCADO.matcher(archivo.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .map(ExportacionService::describir)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo listar el directorio " + directorio, e);
+        }
+    }
+
+    /**
+     * Ruta de un volcado existente, para descargarlo
+     * Solo acepta nombres generados por este servicio: no se puede salir del directorio
+     * @throws ExportacionNotFoundException si el nombre no es de un volcado o el archivo no existe
+     */
+    public Path obtenerArchivo(String nombre) {
+        Path archivo = directorio().resolve(nombre);
+        if (!NOMBRE_VOLCADO.matcher(nombre).matches() || !Files.isRegularFile(archivo)) {
+            throw new ExportacionNotFoundException(nombre);
+        }
+        return archivo;
+    }
+
+    private long escribir(FileChannel canal, FormatoExportacion formato) throws IOException {
+        OutputStream salidaCanal = Channels.newOutputStream(canal);
+        GZIPOutputStream gzip = new GZIPOutputStream(salidaCanal, TAMANIO_BUFFER);
+        OutputStream salida = new BufferedOutputStream(gzip, TAMANIO_BUFFER);
+        long filas;
+        if (formato == FormatoExportacion.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+            filas = escribirCsv(writer);
+            writer.flush();
+        } else {
+            filas = escribirNdjson(salida);
+        }
+        salida.flush();
+        gzip.finish();
+        // Se fuerza a disco antes de cerrar: cerrar el gzip cierra también el canal
+        canal.force(false);
+        salida.close();
+        return filas;
+    }
+
+    private long escribirCsv(Writer writer) throws IOException {
+        writer.write(ENCABEZADO_CSV);
+        writer.write('\n');
+        return recorrer(rs -> {
+            writer.write(Long.toString(rs.getLong("id")));
+            writer.write(',');
+            escribirCampo(writer, rs.getString("nombre"));
+            writer.write(',');
+            escribirCampo(writer, rs.getString("descripcion"));
+            writer.write(',');
+            writer.write(Double.toString(rs.getDouble("precio")));
+            writer.write(',');
+            writer.write(Integer.toString(rs.getInt("stock")));
+            writer.write(',');
+            writer.write(rs.getString("categoria"));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong("version")));
+            writer.write(',');
+            writer.write(rs.getObject("actualizado_en", LocalDateTime.class).toString());
+            writer.write('\n');
+        });
+    }
+
+    private long escribirNdjson(OutputStream salida) throws IOException {
+        try (SequenceWriter writer = objectMapper.writerFor(ProductoResponseDTO.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(salida)) {
+            long filas = recorrer(rs -> writer.write(new ProductoResponseDTO(
+                    rs.getLong("id"),
+                    rs.getString("nombre"),
+                    rs.getString("descripcion"),
+                    rs.getDouble("precio"),
+                    rs.getInt("stock"),
+                    Categoria.valueOf(rs.getString("categoria")),
+                    rs.getLong("version"),
+                    rs.getObject("actualizado_en", LocalDateTime.class))));
+            writer.flush();
+            if (filas > 0) {
+                salida.write('\n');
+            }
+            return filas;
+        }
+    }
+
+    /**
+     * Recorre la tabla con un cursor de solo avance, de a FILAS_POR_PAGINA filas por viaje a la base
+     */
+    private long recorrer(Fila fila) throws IOException {
+        long[] filas = {0};
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_TODOS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FILAS_POR_PAGINA);
+                return ps;
+            }, rs -> {
+                try {
+                    fila.escribir(rs);
+                    filas[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return filas[0];
+    }
+
+    /**
+     * Escribe un campo CSV, entre comillas solo si hace falta (RFC 4180)
+     */
+    private static void escribirCampo(Writer writer, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void descartarViejos(FormatoExportacion formato) throws IOException {
+        String sufijo = "." + formato.getExtension();
+        try (Stream<Path> archivos = Files.list(directorio())) {
+            List<Path> viejos = archivos
+                    .filter(archivo -> {
+                        String nombre = archivo.getFileName().toString();
+                        return NOMBRE_VOLCADO.matcher(nombre).matches() && nombre.endsWith(sufijo);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .skip(Math.max(1, properties.getExportacion().getConservar()))
+                    .toList();
+            for (Path viejo : viejos) {
+                Files.deleteIfExists(viejo);
+            }
+        }
+    }
+
+    private Path directorio() {
+        return Path.of(properties.getExportacion().getDirectorio()).toAbsolutePath().normalize();
+    }
+
+    private static ExportacionDTO describir(Path archivo) {
+        try {
+            String nombre = archivo.getFileName().toString();
+            Matcher matcher = NOMBRE_VOLCADO.matcher(nombre);
+            matcher.matches();
+            FormatoExportacion formato = "csv".equals(matcher.group(1))
+                    ? FormatoExportacion.CSV
+                    : FormatoExportacion.NDJSON;
+            FileTime modificado = Files.getLastModifiedTime(archivo);
+            return new ExportacionDTO(nombre, formato, null, Files.size(archivo), null,
+                    LocalDateTime.ofInstant(modificado.toInstant(), ZoneId.systemDefault()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Fila {
+        void escribir(ResultSet rs) throws SQLException, IOException;
+    }
+}
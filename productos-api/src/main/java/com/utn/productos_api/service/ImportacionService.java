@@ -0,0 +1,561 @@
+package com.utn.productos_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.ActualizarProductoLoteDTO;
+import com.utn.productos_api.dto.ErrorImportacionDTO;
+import com.utn.productos_api.dto.EstadoImportacion;
+import com.utn.productos_api.dto.FormatoImportacion;
+import com.utn.productos_api.dto.ImportacionDTO;
+import com.utn.productos_api.dto.ProductoDTO;
+import com.utn.productos_api.dto.ResultadoItemLoteDTO;
+import com.utn.productos_api.dto.ResultadoLoteDTO;
+import com.utn.productos_api.exception.ImportacionNoDisponibleException;
+import com.utn.productos_api.exception.ImportacionNotFoundException;
+import com.utn.productos_api.exception.SolicitudInvalidaException;
+import com.utn.productos_api.model.Categoria;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Importación masiva de productos desde CSV o NDJSON
+ * Un hilo lee y parsea de a un registro y arma lotes; varios hilos los validan y persisten en paralelo
+ * reutilizando las operaciones masivas de ProductoService. La cola entre ambos es acotada: si la
+ * persistencia no da abasto, la lectura se frena, así la memoria usada no depende del tamaño del archivo.
+ * Las filas sin id crean un producto nuevo y las filas con id actualizan ese producto. Un id que no
+ * existe se rechaza en lugar de insertarse: los ids los asigna la secuencia producto_seq, cuyos bloques
+ * ya reservados por Hibernate podrían chocar con uno importado. Para restaurar un catálogo completo con
+ * sus ids está la instantánea binaria (SnapshotService).
+ * Corren a lo sumo maximoSimultaneas importaciones a la vez, en un pool de hilos de tamaño fijo: cada hilo
+ * de lote ocupa una conexión mientras persiste, y sin ese tope unas pocas importaciones agotarían el pool.
+ */
+@Slf4j
+@Service
+public class ImportacionService {
+
+    private static final int LARGO_MAXIMO_REGISTRO = 64 * 1024;
+    private static final int MAXIMO_IMPORTACIONES_GUARDADAS = 50;
+    private static final List<String> COLUMNAS_OBLIGATORIAS = List.of("nombre", "precio", "stock", "categoria");
+
+    // Hilos de lote por importación cuando paralelismo = 0, aunque haya más procesadores
+    private static final int PARALELISMO_MAXIMO_POR_DEFECTO = 4;
+
+    // Marca de fin para los hilos que procesan lotes
+    private static final List<Fila> FIN = List.of();
+
+    private final ProductoService productoService;
+    private final ObjectMapper objectMapper;
+    private final ProductosProperties.Importacion config;
+    private final int tamanioLote;
+    private final int paralelismo;
+    private final int maximoSimultaneas;
+    private final Semaphore enCurso;
+    private final ExecutorService hilos;
+    private final Map<String, Importacion> importaciones = new ConcurrentHashMap<>();
+
+    public ImportacionService(ProductoService productoService, ObjectMapper objectMapper,
+                              ProductosProperties properties) {
+        this.productoService = productoService;
+        this.objectMapper = objectMapper;
+        this.config = properties.getImportacion();
+        this.tamanioLote = Math.min(properties.getBulk().getTamanioLote(), properties.getBulk().getMaximoItems());
+        this.paralelismo = config.getParalelismo() > 0
+                ? config.getParalelismo()
+                : Math.min(Runtime.getRuntime().availableProcessors(), PARALELISMO_MAXIMO_POR_DEFECTO);
+        this.maximoSimultaneas = Math.max(1, config.getMaximoSimultaneas());
+        this.enCurso = new Semaphore(maximoSimultaneas);
+        AtomicInteger numero = new AtomicInteger();
+        // Por importación: los hilos de lote y, si es un archivo, el que lo lee
+        this.hilos = Executors.newFixedThreadPool(maximoSimultaneas * (paralelismo + 1), tarea -> {
+            Thread hilo = new Thread(tarea, "importacion-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Importa los datos recibidos en el cuerpo de la solicitud; vuelve cuando terminó
+     * Mientras corre, el progreso se puede consultar en el listado de importaciones
+     * @throws ImportacionNoDisponibleException si ya corren las importaciones simultáneas permitidas
+     */
+    public ImportacionDTO importar(InputStream datos, FormatoImportacion formato) {
+        Importacion importacion = registrar("solicitud", formato);
+        try {
+            ejecutar(importacion, new InputStreamReader(datos, StandardCharsets.UTF_8));
+        } finally {
+            enCurso.release();
+        }
+        return importacion.aDTO();
+    }
+
+    /**
+     * Inicia en segundo plano la importación de un archivo del directorio de importaciones
+     * @param ruta Ruta relativa al directorio configurado (productos.importacion.directorio)
+     * @param formato Formato del archivo; si es null se deduce de la extensión
+     * @return Estado inicial de la importación, para seguir su progreso por ID
+     * @throws SolicitudInvalidaException si la ruta sale del directorio, no existe o el formato es desconocido
+     * @throws ImportacionNoDisponibleException si ya corren las importaciones simultáneas permitidas
+     */
+    public ImportacionDTO importarArchivo(String ruta, FormatoImportacion formato) {
+        Path directorio = Path.of(config.getDirectorio()).toAbsolutePath().normalize();
+        Path archivo = directorio.resolve(ruta).normalize();
+        if (!archivo.startsWith(directorio)) {
+            throw new SolicitudInvalidaException("La ruta debe estar dentro del directorio de importaciones");
+        }
+        if (!Files.isRegularFile(archivo)) {
+            throw new SolicitudInvalidaException("No existe el archivo " + ruta);
+        }
+        FormatoImportacion formatoArchivo = formato != null ? formato : deducirFormato(archivo);
+
+        Importacion importacion = registrar(ruta, formatoArchivo);
+        try {
+            hilos.submit(() -> {
+                try (Reader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                    ejecutar(importacion, reader);
+                } catch (IOException e) {
+                    importacion.fallar("No se pudo leer el archivo: " + e.getMessage());
+                    if (importacion.estado == EstadoImportacion.EN_CURSO) {
+                        // No se llegó a abrir: ejecutar no corrió y nadie más la termina
+                        importacion.terminar();
+                    }
+                } finally {
+                    enCurso.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // La aplicación se está deteniendo
+            importacion.fallar("La aplicación se detuvo");
+            importacion.terminar();
+            enCurso.release();
+        }
+        return importacion.aDTO();
+    }
+
+    public ImportacionDTO obtener(String id) {
+        Importacion importacion = importaciones.get(id);
+        if (importacion == null) {
+            throw new ImportacionNotFoundException(id);
+        }
+        return importacion.aDTO();
+    }
+
+    /**
+     * Importaciones recientes, de la más nueva a la más vieja
+     */
+    public List<ImportacionDTO> listar() {
+        return importaciones.values().stream()
+                .sorted(Comparator.comparingLong((Importacion importacion) -> importacion.inicioNanos).reversed())
+                .map(Importacion::aDTO)
+                .toList();
+    }
+
+    @PreDestroy
+    public void detener() {
+        importaciones.values().forEach(importacion -> importacion.fallar("La aplicación se detuvo"));
+        hilos.shutdownNow();
+    }
+
+    // ========== PIPELINE ==========
+
+    private void ejecutar(Importacion importacion, Reader origen) {
+        int capacidad = config.getCapacidadCola() > 0 ? config.getCapacidadCola() : paralelismo * 2;
+        BlockingQueue<List<Fila>> cola = new ArrayBlockingQueue<>(capacidad);
+
+        List<Future<?>> trabajadores = new ArrayList<>(paralelismo);
+        for (int i = 0; i < paralelismo; i++) {
+            trabajadores.add(hilos.submit(() -> procesarLotes(importacion, cola)));
+        }
+        try (BufferedReader reader = new BufferedReader(origen, 1 << 16)) {
+            if (importacion.formato == FormatoImportacion.CSV) {
+                leerCsv(importacion, reader, cola);
+            } else {
+                leerNdjson(importacion, reader, cola);
+            }
+        } catch (IOException | RuntimeException e) {
+            importacion.fallar(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            importacion.fallar("La importación fue interrumpida");
+        } finally {
+            finalizar(importacion, cola, trabajadores);
+        }
+    }
+
+    private void leerCsv(Importacion importacion, BufferedReader reader, BlockingQueue<List<Fila>> cola)
+            throws IOException, InterruptedException {
+        LectorCsv lector = new LectorCsv(reader, LARGO_MAXIMO_REGISTRO);
+        List<String> encabezado = lector.siguienteRegistro();
+        if (encabezado == null) {
+            return;
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.size(); i++) {
+            columnas.put(encabezado.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obligatoria : COLUMNAS_OBLIGATORIAS) {
+            if (!columnas.containsKey(obligatoria)) {
+                throw new SolicitudInvalidaException("Falta la columna '" + obligatoria + "' en el encabezado");
+            }
+        }
+
+        List<Fila> lote = new ArrayList<>(tamanioLote);
+        List<String> registro;
+        while (!importacion.cancelada && (registro = lector.siguienteRegistro()) != null) {
+            if (registro.size() == 1 && registro.get(0).isBlank()) {
+                continue;
+            }
+            importacion.leidas.increment();
+            lote.add(convertirCsv(registro, columnas, lector.getLinea()));
+            if (lote.size() == tamanioLote) {
+                cola.put(lote);
+                lote = new ArrayList<>(tamanioLote);
+            }
+        }
+        if (!lote.isEmpty()) {
+            cola.put(lote);
+        }
+    }
+
+    private void leerNdjson(Importacion importacion, BufferedReader reader, BlockingQueue<List<Fila>> cola)
+            throws IOException, InterruptedException {
+        StringBuilder linea = new StringBuilder();
+        List<Fila> lote = new ArrayList<>(tamanioLote);
+        long numeroLinea = 0;
+        while (!importacion.cancelada && leerLinea(reader, linea)) {
+            numeroLinea++;
+            if (linea.toString().isBlank()) {
+                continue;
+            }
+            importacion.leidas.increment();
+            lote.add(convertirJson(linea.toString(), numeroLinea));
+            if (lote.size() == tamanioLote) {
+                cola.put(lote);
+                lote = new ArrayList<>(tamanioLote);
+            }
+        }
+        if (!lote.isEmpty()) {
+            cola.put(lote);
+        }
+    }
+
+    /**
+     * Toma lotes de la cola hasta recibir FIN
+     * Si la importación falló, los lotes restantes se descartan pero se siguen tomando, así la lectura no se bloquea
+     */
+    private void procesarLotes(Importacion importacion, BlockingQueue<List<Fila>> cola) {
+        try {
+            List<Fila> lote;
+            while ((lote = cola.take()) != FIN) {
+                if (importacion.cancelada) {
+                    continue;
+                }
+                try {
+                    procesarLote(importacion, lote);
+                } catch (RuntimeException e) {
+                    log.warn("Importación {}: falló un lote", importacion.id, e);
+                    importacion.fallar("Error al persistir un lote: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void procesarLote(Importacion importacion, List<Fila> lote) {
+        List<ProductoDTO> altas = new ArrayList<>();
+        List<Long> lineasAltas = new ArrayList<>();
+        List<ActualizarProductoLoteDTO> cambios = new ArrayList<>();
+        List<Long> lineasCambios = new ArrayList<>();
+        for (Fila fila : lote) {
+            if (fila.error() != null) {
+                importacion.rechazar(fila.linea(), fila.error());
+            } else if (fila.id() == null) {
+                altas.add(fila.producto());
+                lineasAltas.add(fila.linea());
+            } else {
+                cambios.add(new ActualizarProductoLoteDTO(fila.id(), fila.producto()));
+                lineasCambios.add(fila.linea());
+            }
+        }
+        if (!altas.isEmpty()) {
+            contar(importacion, productoService.crearProductosEnLote(altas), lineasAltas, importacion.creados);
+        }
+        if (!cambios.isEmpty()) {
+            contar(importacion, productoService.actualizarProductosEnLote(cambios), lineasCambios,
+                    importacion.actualizados);
+        }
+    }
+
+    private void contar(Importacion importacion, ResultadoLoteDTO resultado, List<Long> lineas, LongAdder exitosos) {
+        exitosos.add(resultado.getExitosos());
+        for (ResultadoItemLoteDTO item : resultado.getResultados()) {
+            if (!item.isExitoso()) {
+                importacion.rechazar(lineas.get(item.getIndice()), item.getError());
+            }
+        }
+    }
+
+    private void finalizar(Importacion importacion, BlockingQueue<List<Fila>> cola, List<Future<?>> trabajadores) {
+        try {
+            for (int i = 0; i < trabajadores.size(); i++) {
+                cola.put(FIN);
+            }
+            for (Future<?> trabajador : trabajadores) {
+                trabajador.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            importacion.fallar("La importación fue interrumpida");
+        } catch (ExecutionException e) {
+            importacion.fallar(e.getCause().getMessage());
+        }
+        importacion.terminar();
+        ImportacionDTO resultado = importacion.aDTO();
+        log.info("Importación {} {}: {} creados, {} actualizados, {} rechazados ({} filas/s)",
+                resultado.getId(), resultado.getEstado(), resultado.getCreados(), resultado.getActualizados(),
+                resultado.getRechazados(), Math.round(resultado.getFilasPorSegundo()));
+    }
+
+    // ========== PARSEO ==========
+
+    private static Fila convertirCsv(List<String> registro, Map<String, Integer> columnas, long linea) {
+        try {
+            String id = campo(registro, columnas, "id");
+            String precio = campo(registro, columnas, "precio");
+            String stock = campo(registro, columnas, "stock");
+            String categoria = campo(registro, columnas, "categoria");
+            ProductoDTO producto = new ProductoDTO(
+                    campo(registro, columnas, "nombre"),
+                    campo(registro, columnas, "descripcion"),
+                    precio != null ? parsear("precio", precio, Double::valueOf) : null,
+                    stock != null ? parsear("stock", stock, Integer::valueOf) : null,
+                    categoria != null ? parsear("categoria", categoria,
+                            valor -> Categoria.valueOf(valor.toUpperCase(Locale.ROOT))) : null
+            );
+            return new Fila(linea, id != null ? parsear("id", id, Long::valueOf) : null, producto, null);
+        } catch (IllegalArgumentException e) {
+            return new Fila(linea, null, null, e.getMessage());
+        }
+    }
+
+    private Fila convertirJson(String json, long linea) {
+        try {
+            JsonNode nodo = objectMapper.readTree(json);
+            if (!nodo.isObject()) {
+                return new Fila(linea, null, null, "Cada línea debe ser un objeto JSON");
+            }
+            Long id = nodo.hasNonNull("id") ? idJson(nodo.get("id")) : null;
+            return new Fila(linea, id, objectMapper.treeToValue(nodo, ProductoDTO.class), null);
+        } catch (JsonProcessingException e) {
+            return new Fila(linea, null, null, "JSON inválido: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new Fila(linea, null, null, e.getMessage());
+        }
+    }
+
+    /**
+     * ID de una línea NDJSON: un entero o un texto con un entero, igual que la columna del CSV
+     * asLong() convertiría cualquier otro valor en 0 y la fila actualizaría un producto que no pidió
+     */
+    private static Long idJson(JsonNode id) {
+        try {
+            if (id.isIntegralNumber() && id.canConvertToLong()) {
+                return id.longValue();
+            }
+            if (id.isTextual()) {
+                return Long.valueOf(id.textValue().trim());
+            }
+        } catch (NumberFormatException e) {
+            // Se informa igual que cualquier otro valor inválido
+        }
+        throw new IllegalArgumentException("Valor inválido en el campo 'id': " + id);
+    }
+
+    /**
+     * Valor recortado de la columna, o null si no existe o está vacío
+     */
+    private static String campo(List<String> registro, Map<String, Integer> columnas, String nombre) {
+        Integer posicion = columnas.get(nombre);
+        if (posicion == null || posicion >= registro.size()) {
+            return null;
+        }
+        String valor = registro.get(posicion).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static <T> T parsear(String columna, String valor, Function<String, T> conversor) {
+        try {
+            return conversor.apply(valor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido en la columna '" + columna + "': " + valor);
+        }
+    }
+
+    /**
+     * Lee una línea en el buffer recibido, sin aceptar líneas más largas que LARGO_MAXIMO_REGISTRO
+     * @return false si no quedaban datos
+     */
+    private static boolean leerLinea(BufferedReader reader, StringBuilder linea) throws IOException {
+        linea.setLength(0);
+        int c = reader.read();
+        if (c == -1) {
+            return false;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                if (linea.length() == LARGO_MAXIMO_REGISTRO) {
+                    throw new IOException("Una línea supera los " + LARGO_MAXIMO_REGISTRO + " caracteres");
+                }
+                linea.append((char) c);
+            }
+            c = reader.read();
+        }
+        return true;
+    }
+
+    private static FormatoImportacion deducirFormato(Path archivo) {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".csv")) {
+            return FormatoImportacion.CSV;
+        }
+        if (nombre.endsWith(".ndjson") || nombre.endsWith(".jsonl")) {
+            return FormatoImportacion.NDJSON;
+        }
+        throw new SolicitudInvalidaException("No se pudo deducir el formato de " + archivo.getFileName()
+                + "; indicar formato=CSV o formato=NDJSON");
+    }
+
+    /**
+     * Toma un lugar entre las importaciones simultáneas y registra la importación
+     * Quien llama devuelve el lugar con enCurso.release() cuando termina
+     */
+    private Importacion registrar(String origen, FormatoImportacion formato) {
+        if (!enCurso.tryAcquire()) {
+            throw new ImportacionNoDisponibleException(maximoSimultaneas);
+        }
+        Importacion importacion = new Importacion(UUID.randomUUID().toString(), origen, formato,
+                config.getMaximoErrores());
+        importaciones.put(importacion.id, importacion);
+        if (importaciones.size() > MAXIMO_IMPORTACIONES_GUARDADAS) {
+            importaciones.values().stream()
+                    .filter(anterior -> anterior.estado != EstadoImportacion.EN_CURSO)
+                    .min(Comparator.comparingLong(anterior -> anterior.inicioNanos))
+                    .ifPresent(anterior -> importaciones.remove(anterior.id));
+        }
+        return importacion;
+    }
+
+    private record Fila(long linea, Long id, ProductoDTO producto, String error) {
+    }
+
+    /**
+     * Estado mutable de una importación; los contadores se actualizan desde varios hilos
+     */
+    private static final class Importacion {
+        private final String id;
+        private final String origen;
+        private final FormatoImportacion formato;
+        private final int maximoErrores;
+        private final LocalDateTime iniciadaEn = LocalDateTime.now();
+        private final long inicioNanos = System.nanoTime();
+        private final LongAdder leidas = new LongAdder();
+        private final LongAdder creados = new LongAdder();
+        private final LongAdder actualizados = new LongAdder();
+        private final LongAdder rechazados = new LongAdder();
+        private final List<ErrorImportacionDTO> errores = new ArrayList<>();
+        private volatile EstadoImportacion estado = EstadoImportacion.EN_CURSO;
+        private volatile boolean cancelada;
+        private volatile String mensaje;
+        private volatile long finNanos;
+        private volatile LocalDateTime finalizadaEn;
+
+        private Importacion(String id, String origen, FormatoImportacion formato, int maximoErrores) {
+            this.id = id;
+            this.origen = origen;
+            this.formato = formato;
+            this.maximoErrores = maximoErrores;
+        }
+
+        private void rechazar(long linea, String error) {
+            rechazados.increment();
+            synchronized (errores) {
+                if (errores.size() < maximoErrores) {
+                    errores.add(new ErrorImportacionDTO(linea, error));
+                }
+            }
+        }
+
+        /**
+         * Marca la importación como fallida; la primera causa es la que se informa
+         */
+        private synchronized void fallar(String causa) {
+            if (!cancelada) {
+                cancelada = true;
+                mensaje = causa;
+            }
+        }
+
+        private synchronized void terminar() {
+            finNanos = System.nanoTime();
+            finalizadaEn = LocalDateTime.now();
+            estado = cancelada ? EstadoImportacion.FALLIDA : EstadoImportacion.COMPLETADA;
+        }
+
+        private ImportacionDTO aDTO() {
+            long fin = estado == EstadoImportacion.EN_CURSO ? System.nanoTime() : finNanos;
+            long procesadas = creados.sum() + actualizados.sum() + rechazados.sum();
+            double duracionSegundos = (fin - inicioNanos) / 1_000_000_000.0;
+            List<ErrorImportacionDTO> copiaErrores;
+            synchronized (errores) {
+                copiaErrores = List.copyOf(errores);
+            }
+            return new ImportacionDTO(
+                    id,
+                    origen,
+                    formato,
+                    estado,
+                    leidas.sum(),
+                    creados.sum(),
+                    actualizados.sum(),
+                    rechazados.sum(),
+                    duracionSegundos > 0 ? procesadas / duracionSegundos : 0,
+                    iniciadaEn,
+                    finalizadaEn,
+                    mensaje,
+                    copiaErrores
+            );
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.event.TipoEventoProducto;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre nombre y descripción de los productos
+ * Normaliza acentos y mayúsculas, permite buscar por prefijo y ordena por relevancia.
+ * Se construye al iniciar (ProductoService.inicializarIndices) y se mantiene con los eventos de cambio.
+ * Una lectura anterior a una baja (la carga inicial o un evento atrasado) no vuelve a indexar el producto
+ * eliminado, ni una versión vieja pisa a una más nueva.
+ * Cada baja deja una marca con la generación en que ocurrió. Al terminar una carga se descartan las marcas
+ * anteriores a su inicio (la carga ya leyó la base sin esos productos); fuera de una carga, las marcas solo
+ * cubren eventos atrasados y se barren en tandas, así su cantidad queda acotada.
+ */
+@Component
+public class IndiceTextoProductos {
+
+    private static final int PESO_NOMBRE = 3;
+    private static final int PESO_DESCRIPCION = 1;
+    // Una coincidencia exacta pesa el doble que una por prefijo
+    private static final int MULTIPLICADOR_EXACTO = 2;
+    // Límite de términos que expande un prefijo, para acotar la latencia de prefijos muy cortos
+    private static final int MAXIMO_EXPANSIONES = 64;
+    private static final int LARGO_MINIMO_PREFIJO = 2;
+    // Marcas de baja a partir de las cuales se barren las de generaciones anteriores
+    static final int BAJAS_POR_BARRIDO = 1024;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "los", "o", "para", "por", "sin", "un", "una", "y"
+    );
+
+    // término -> (ID de producto -> peso del término en ese producto)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    // ID de producto -> versión y términos indexados, para poder quitarlos al actualizar o eliminar
+    private final Map<Long, Indexado> terminosPorProducto = new ConcurrentHashMap<>();
+    // ID eliminado -> generación de la baja (los IDs no se reutilizan); se registra dentro del compute de su ID
+    private final Map<Long, Long> eliminados = new ConcurrentHashMap<>();
+    // Avanza al iniciar cada carga y en cada barrido de marcas
+    private final AtomicLong generacion = new AtomicLong();
+    private final AtomicInteger cargasEnCurso = new AtomicInteger();
+
+    /**
+     * Indexa (o reindexa) un producto
+     * Se ignora si el producto ya fue eliminado o si el índice tiene una versión más nueva
+     */
+    public void indexar(ProductoResponseDTO producto) {
+        long version = producto.getVersion() != null ? producto.getVersion() : 0L;
+        Map<String, Integer> nuevos = calcularPesos(producto);
+        terminosPorProducto.compute(producto.getId(), (id, anterior) -> {
+            if (eliminados.containsKey(id) || (anterior != null && anterior.version() > version)) {
+                return anterior;
+            }
+            if (anterior != null) {
+                quitarPostings(id, anterior.terminos());
+            }
+            nuevos.forEach((termino, peso) -> postings.compute(termino, (clave, productos) -> {
+                Map<Long, Integer> resultado = productos != null ? productos : new ConcurrentHashMap<>();
+                resultado.put(id, peso);
+                return resultado;
+            }));
+            return new Indexado(version, nuevos);
+        });
+    }
+
+    public void eliminar(Long id) {
+        terminosPorProducto.compute(id, (clave, anterior) -> {
+            eliminados.put(clave, generacion.get());
+            if (anterior != null) {
+                quitarPostings(clave, anterior.terminos());
+            }
+            return null;
+        });
+        if (eliminados.size() >= BAJAS_POR_BARRIDO && cargasEnCurso.get() == 0) {
+            barrer();
+        }
+    }
+
+    /**
+     * Marca el inicio de una carga completa; llamar antes de leer la base
+     * @return Generación de inicio, para pasarla a terminarCarga
+     */
+    public long iniciarCarga() {
+        cargasEnCurso.incrementAndGet();
+        return generacion.incrementAndGet();
+    }
+
+    /**
+     * Descarta las marcas de bajas anteriores al inicio de la carga: la carga no pudo leer esos productos
+     */
+    public void terminarCarga(long inicio) {
+        eliminados.values().removeIf(generacionBaja -> generacionBaja < inicio);
+        cargasEnCurso.decrementAndGet();
+    }
+
+    int cantidadEliminados() {
+        return eliminados.size();
+    }
+
+    /**
+     * Avanza la generación y descarta las marcas de antes de la generación anterior: cada marca sobrevive
+     * al menos una tanda completa de bajas, tiempo de sobra para un evento atrasado
+     */
+    private void barrer() {
+        long anterior = generacion.getAndIncrement();
+        eliminados.values().removeIf(generacionBaja -> generacionBaja < anterior);
+    }
+
+    public void limpiar() {
+        terminosPorProducto.clear();
+        eliminados.clear();
+        postings.clear();
+    }
+
+    public int cantidadProductos() {
+        return terminosPorProducto.size();
+    }
+
+    /**
+     * Busca productos que contengan todos los términos de la consulta (exactos o como prefijo)
+     * @param consulta Texto libre
+     * @param limite Cantidad máxima de resultados
+     * @return IDs ordenados por relevancia descendente (y por ID ante empates)
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> terminos = tokenizar(consulta).stream().distinct().toList();
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> acumulado = null;
+        for (String termino : terminos) {
+            Map<Long, Integer> puntajes = puntajesDe(termino);
+            acumulado = acumulado == null ? puntajes : intersectar(acumulado, puntajes);
+            if (acumulado.isEmpty()) {
+                return List.of();
+            }
+        }
+        return mejores(acumulado, limite);
+    }
+
+    /**
+     * Separa un texto en términos normalizados: sin acentos, en minúsculas y sin palabras vacías
+     */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = MARCAS_DIACRITICAS
+                .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARADORES.split(normalizado))
+                .filter(termino -> !termino.isEmpty() && !PALABRAS_VACIAS.contains(termino))
+                .toList();
+    }
+
+    private Map<String, Integer> calcularPesos(ProductoResponseDTO producto) {
+        Map<String, Integer> pesos = new HashMap<>();
+        for (String termino : tokenizar(producto.getNombre())) {
+            pesos.merge(termino, PESO_NOMBRE, Integer::sum);
+        }
+        for (String termino : tokenizar(producto.getDescripcion())) {
+            pesos.merge(termino, PESO_DESCRIPCION, Integer::sum);
+        }
+        return pesos;
+    }
+
+    private void quitarPostings(Long id, Map<String, Integer> terminos) {
+        for (String termino : terminos.keySet()) {
+            postings.computeIfPresent(termino, (clave, productos) -> {
+                productos.remove(id);
+                return productos.isEmpty() ? null : productos;
+            });
+        }
+    }
+
+    private Map<Long, Integer> puntajesDe(String termino) {
+        Map<Long, Integer> puntajes = new HashMap<>();
+        Map<Long, Integer> exactos = postings.get(termino);
+        if (exactos != null) {
+            exactos.forEach((id, peso) -> puntajes.merge(id, peso * MULTIPLICADOR_EXACTO, Integer::sum));
+        }
+        if (termino.length() >= LARGO_MINIMO_PREFIJO) {
+            int expansiones = 0;
+            for (Map<Long, Integer> productos : postings
+                    .subMap(termino, false, termino + Character.MAX_VALUE, false).values()) {
+                if (++expansiones > MAXIMO_EXPANSIONES) {
+                    break;
+                }
+                productos.forEach((id, peso) -> puntajes.merge(id, peso, Integer::sum));
+            }
+        }
+        return puntajes;
+    }
+
+    private static Map<Long, Integer> intersectar(Map<Long, Integer> a, Map<Long, Integer> b) {
+        Map<Long, Integer> menor = a.size() <= b.size() ? a : b;
+        Map<Long, Integer> mayor = menor == a ? b : a;
+        Map<Long, Integer> resultado = new HashMap<>();
+        menor.forEach((id, puntaje) -> {
+            Integer otro = mayor.get(id);
+            if (otro != null) {
+                resultado.put(id, puntaje + otro);
+            }
+        });
+        return resultado;
+    }
+
+    // Top-k con un heap acotado: O(n log k) en lugar de ordenar todos los candidatos
+    private static List<Long> mejores(Map<Long, Integer> puntajes, int limite) {
+        Comparator<Map.Entry<Long, Integer>> peorPrimero = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(limite + 1, peorPrimero);
+        for (Map.Entry<Long, Integer> entrada : puntajes.entrySet()) {
+            heap.offer(entrada);
+            if (heap.size() > limite) {
+                heap.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ids.add(heap.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    private record Indexado(long version, Map<String, Integer> terminos) {
+    }
+
+    /**
+     * Mantiene el índice al día con los cambios confirmados
+     * Los cambios de stock no modifican el texto y se ignoran
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarProducto(ProductoEvento evento) {
+        if (evento.getTipo() == TipoEventoProducto.STOCK) {
+            return;
+        }
+        if (evento.getActual() == null) {
+            eliminar(evento.getId());
+        } else {
+            indexar(evento.getActual());
+        }
+    }
+}
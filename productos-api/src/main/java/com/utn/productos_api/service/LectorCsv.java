@@ -0,0 +1,114 @@
+package com.utn.productos_api.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector incremental de CSV (RFC 4180): separador coma, campos entre comillas dobles,
+ * comillas escapadas duplicándolas y saltos de línea dentro de campos entrecomillados
+ * Lee de a un registro, así la memoria usada no depende del tamaño del archivo.
+ */
+final class LectorCsv {
+
+    private final Reader reader;
+    private final int largoMaximoRegistro;
+    private final StringBuilder campo = new StringBuilder();
+    private long linea = 0;
+    private long lineaInicioRegistro;
+    private int pendiente = -2;
+
+    LectorCsv(Reader reader, int largoMaximoRegistro) {
+        this.reader = reader;
+        this.largoMaximoRegistro = largoMaximoRegistro;
+    }
+
+    /**
+     * Línea del archivo (desde 1) donde empieza el último registro leído
+     */
+    long getLinea() {
+        return lineaInicioRegistro;
+    }
+
+    /**
+     * @return Campos del siguiente registro, o null al llegar al final
+     * @throws IOException si el registro supera el largo máximo o tiene comillas sin cerrar
+     */
+    List<String> siguienteRegistro() throws IOException {
+        int c = leer();
+        if (c == -1) {
+            return null;
+        }
+        linea++;
+        lineaInicioRegistro = linea;
+        List<String> campos = new ArrayList<>();
+        int largo = 0;
+        campo.setLength(0);
+        boolean entreComillas = false;
+        boolean campoEntrecomillado = false;
+
+        while (true) {
+            if (c == -1) {
+                if (entreComillas) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + lineaInicioRegistro);
+                }
+                campos.add(campo.toString());
+                return campos;
+            }
+            if (++largo > largoMaximoRegistro) {
+                throw new IOException("El registro de la línea " + lineaInicioRegistro
+                        + " supera los " + largoMaximoRegistro + " caracteres");
+            }
+            char caracter = (char) c;
+            if (entreComillas) {
+                if (caracter == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        devolver(siguiente);
+                    }
+                } else {
+                    if (caracter == '\n') {
+                        linea++;
+                    }
+                    campo.append(caracter);
+                }
+            } else if (caracter == '"' && campo.isEmpty() && !campoEntrecomillado) {
+                entreComillas = true;
+                campoEntrecomillado = true;
+            } else if (caracter == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                campoEntrecomillado = false;
+            } else if (caracter == '\r' || caracter == '\n') {
+                if (caracter == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n') {
+                        devolver(siguiente);
+                    }
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append(caracter);
+            }
+            c = leer();
+        }
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != -2) {
+            int c = pendiente;
+            pendiente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void devolver(int c) {
+        pendiente = c;
+    }
+}
@@ -0,0 +1,175 @@
+package com.utn.productos_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.model.Categoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Listados por categoría ya serializados a JSON, en claro y comprimidos con gzip
+ * Cada cambio confirmado programa el rearmado de sus categorías tras productos.listados-categoria.demora-ms;
+ * los cambios que llegan en ese lapso se rearman juntos, en un único hilo.
+ * Cada listado guarda el ETag de VersionCatalogo leído antes de consultar los productos, y solo se
+ * sirve mientras ese ETag siga vigente: un listado desactualizado nunca llega al cliente, que en ese
+ * caso recibe la respuesta por el camino normal.
+ */
+@Slf4j
+@Component
+public class ListadosCategoriaSerializados {
+
+    private final ProductoService productoService;
+    private final VersionCatalogo versionCatalogo;
+    private final ProductosProperties.ListadosCategoria config;
+    private final ObjectWriter writer;
+    private final ScheduledExecutorService hilo;
+
+    private final Map<Categoria, Listado> listados = new ConcurrentHashMap<>();
+    private final Map<Categoria, AtomicBoolean> programados = new EnumMap<>(Categoria.class);
+
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter rearmados;
+
+    /**
+     * JSON de una categoría tal como se envía
+     * @param etag ETag de la categoría vigente al armarlo
+     * @param json Cuerpo sin comprimir
+     * @param gzip Mismo cuerpo comprimido, para los clientes que envían Accept-Encoding: gzip
+     */
+    public record Listado(String etag, byte[] json, byte[] gzip) {
+    }
+
+    public ListadosCategoriaSerializados(ProductoService productoService, VersionCatalogo versionCatalogo,
+                                         ObjectMapper objectMapper, ProductosProperties properties,
+                                         MeterRegistry meterRegistry) {
+        this.productoService = productoService;
+        this.versionCatalogo = versionCatalogo;
+        this.config = properties.getListadosCategoria();
+        this.writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ProductoResponseDTO.class));
+        for (Categoria categoria : Categoria.values()) {
+            programados.put(categoria, new AtomicBoolean());
+        }
+        this.hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread rearmador = new Thread(tarea, "listados-categoria");
+            rearmador.setDaemon(true);
+            return rearmador;
+        });
+        this.aciertos = Counter.builder("productos.listados_categoria")
+                .description("Listados por categoría servidos ya serializados")
+                .tag("resultado", "acierto")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("productos.listados_categoria")
+                .description("Listados por categoría servidos por el camino normal (sin listado vigente)")
+                .tag("resultado", "fallo")
+                .register(meterRegistry);
+        this.rearmados = Counter.builder("productos.listados_categoria.rearmados")
+                .description("Listados por categoría serializados de nuevo tras un cambio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el listado de la categoría si corresponde al ETag vigente, o null
+     * Sin listado vigente se programa el rearmado y quien llama usa el camino normal
+     */
+    public Listado obtener(Categoria categoria, String etagVigente) {
+        if (!config.isHabilitados()) {
+            return null;
+        }
+        Listado listado = listados.get(categoria);
+        if (listado != null && listado.etag().equals(etagVigente)) {
+            aciertos.increment();
+            return listado;
+        }
+        fallos.increment();
+        programar(categoria);
+        return null;
+    }
+
+    /**
+     * Programa el rearmado de las categorías afectadas por un cambio ya confirmado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarProducto(ProductoEvento evento) {
+        for (Categoria categoria : evento.getCategoriasAfectadas()) {
+            programar(categoria);
+        }
+    }
+
+    /**
+     * Arma todas las categorías una vez cargado el catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        for (Categoria categoria : Categoria.values()) {
+            programar(categoria);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilo.shutdownNow();
+    }
+
+    private void programar(Categoria categoria) {
+        if (!config.isHabilitados() || !programados.get(categoria).compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            hilo.schedule(() -> rearmar(categoria), config.getDemoraMs(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Se está apagando
+            programados.get(categoria).set(false);
+        }
+    }
+
+    private void rearmar(Categoria categoria) {
+        // Se libera antes de leer: un cambio confirmado durante el rearmado vuelve a programarlo
+        programados.get(categoria).set(false);
+        // El ETag se lee antes que los productos: el listado puede ser más nuevo que su ETag, nunca más viejo
+        String etag = versionCatalogo.etagCategoria(categoria);
+        try {
+            byte[] json = writer.writeValueAsBytes(productoService.obtenerPorCategoria(categoria));
+            if (json.length > config.getTamanioMaximoBytes()) {
+                listados.remove(categoria);
+                log.debug("El listado de {} ocupa {} bytes; se sirve por el camino normal", categoria, json.length);
+                return;
+            }
+            listados.put(categoria, new Listado(etag, json, comprimir(json)));
+            rearmados.increment();
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo rearmar el listado de {}", categoria, e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] json) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(512, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(json);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,152 @@
+package com.utn.productos_api.service;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de ID de producto a fila del catálogo columnar, sin objetos por entrada
+ * Direccionamiento abierto con sondeo lineal; al eliminar se corren las entradas siguientes
+ * hacia atrás, así no quedan marcas de borrado que alarguen las búsquedas.
+ * No es thread-safe: CatalogoColumnar lo protege con su lock.
+ */
+final class MapaIdFila {
+
+    static final int AUSENTE = -1;
+
+    private static final long VACIO = Long.MIN_VALUE;
+    private static final int CAPACIDAD_MINIMA = 16;
+
+    private long[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamanio;
+
+    MapaIdFila(int capacidadEsperada) {
+        asignar(capacidadPara(capacidadEsperada));
+    }
+
+    int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * @return Fila asociada al ID, o AUSENTE
+     */
+    int obtener(long id) {
+        for (int i = posicion(id); ; i = (i + 1) & mascara) {
+            long clave = claves[i];
+            if (clave == id) {
+                return valores[i];
+            }
+            if (clave == VACIO) {
+                return AUSENTE;
+            }
+        }
+    }
+
+    void poner(long id, int fila) {
+        if (id == VACIO) {
+            throw new IllegalArgumentException("ID fuera de rango: " + id);
+        }
+        if ((tamanio + 1) * 2 > claves.length) {
+            redimensionar(claves.length * 2);
+        }
+        for (int i = posicion(id); ; i = (i + 1) & mascara) {
+            long clave = claves[i];
+            if (clave == id) {
+                valores[i] = fila;
+                return;
+            }
+            if (clave == VACIO) {
+                claves[i] = id;
+                valores[i] = fila;
+                tamanio++;
+                return;
+            }
+        }
+    }
+
+    void eliminar(long id) {
+        int i = posicion(id);
+        while (claves[i] != id) {
+            if (claves[i] == VACIO) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        // Corre hacia el hueco las entradas del mismo grupo cuya posición ideal no queda entre el hueco y ellas
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (claves[j] == VACIO) {
+                break;
+            }
+            int ideal = posicion(claves[j]);
+            boolean quedaEnSuLugar = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+            if (!quedaEnSuLugar) {
+                claves[i] = claves[j];
+                valores[i] = valores[j];
+                i = j;
+            }
+        }
+        claves[i] = VACIO;
+        tamanio--;
+    }
+
+    void limpiar() {
+        Arrays.fill(claves, VACIO);
+        tamanio = 0;
+    }
+
+    /**
+     * Quita las entradas con valor menor al mínimo; rearma la tabla al tamaño de las que quedan
+     */
+    void eliminarValoresMenoresA(int minimo) {
+        long[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        int quedan = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO && valoresAnteriores[i] >= minimo) {
+                quedan++;
+            }
+        }
+        asignar(capacidadPara(quedan));
+        tamanio = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO && valoresAnteriores[i] >= minimo) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    private int posicion(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        asignar(capacidad);
+        tamanio = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    private void asignar(int capacidad) {
+        claves = new long[capacidad];
+        valores = new int[capacidad];
+        mascara = capacidad - 1;
+        Arrays.fill(claves, VACIO);
+    }
+
+    private static int capacidadPara(int esperada) {
+        int capacidad = CAPACIDAD_MINIMA;
+        while (capacidad < esperada * 2) {
+            capacidad <<= 1;
+        }
+        return capacidad;
+    }
+}
@@ -0,0 +1,205 @@
+package com.utn.productos_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.CacheEstadisticasDTO;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.model.Categoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura de productos, por ID y por categoría
+ * Se invalida con los eventos de ProductoService recién después del commit,
+ * así una lectura concurrente no puede volver a cachear datos sin confirmar
+ */
+@Component
+public class ProductoCache {
+
+    private final Cache<Long, ProductoResponseDTO> porId;
+    private final Cache<Categoria, List<ProductoResponseDTO>> porCategoria;
+
+    // Generaciones: si cambian durante una carga, el resultado no se guarda (puede estar desactualizado)
+    private final AtomicLong generacionIds = new AtomicLong();
+    private final Map<Categoria, AtomicLong> generacionCategorias = new EnumMap<>(Categoria.class);
+
+    // Cargas por ID en curso, para que los fallos simultáneos del mismo producto consulten la base una sola vez
+    private final Map<Long, CompletableFuture<ProductoResponseDTO>> cargasEnCurso = new ConcurrentHashMap<>();
+    private final Counter cargasCompartidas;
+
+    public ProductoCache(ProductosProperties properties, MeterRegistry meterRegistry) {
+        ProductosProperties.Cache config = properties.getCache();
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(config.getTamanioMaximo())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.porCategoria = Caffeine.newBuilder()
+                .maximumWeight(config.getTamanioMaximoCategorias())
+                .weigher((Categoria categoria, List<ProductoResponseDTO> productos) -> productos.size())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        for (Categoria categoria : Categoria.values()) {
+            generacionCategorias.put(categoria, new AtomicLong());
+        }
+        // Aciertos, fallos, desalojos y tamaño también quedan expuestos como métricas cache.*
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "productosPorId");
+        CaffeineCacheMetrics.monitor(meterRegistry, porCategoria, "productosPorCategoria");
+        this.cargasCompartidas = Counter.builder("productos.cache.cargas.compartidas")
+                .description("Fallos de la caché por ID resueltos esperando una carga ya en curso")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el producto cacheado o lo carga con el cargador indicado
+     * La carga se hace fuera de la caché para no bloquearla mientras se consulta la base
+     */
+    public ProductoResponseDTO obtenerPorId(Long id, Supplier<ProductoResponseDTO> cargador) {
+        ProductoResponseDTO producto = porId.getIfPresent(id);
+        if (producto != null) {
+            return producto;
+        }
+        // Fallos simultáneos del mismo ID comparten una sola carga
+        CompletableFuture<ProductoResponseDTO> carga = new CompletableFuture<>();
+        CompletableFuture<ProductoResponseDTO> enCurso = cargasEnCurso.putIfAbsent(id, carga);
+        if (enCurso != null) {
+            cargasCompartidas.increment();
+            return esperar(enCurso);
+        }
+        try {
+            long generacion = generacionIds.get();
+            producto = cargador.get();
+            if (generacionIds.get() == generacion) {
+                porId.put(id, producto);
+            }
+            carga.complete(producto);
+            return producto;
+        } catch (RuntimeException e) {
+            carga.completeExceptionally(e);
+            throw e;
+        } finally {
+            cargasEnCurso.remove(id, carga);
+        }
+    }
+
+    /**
+     * Devuelve el producto cacheado, o null si no está (no cuenta como fallo si luego se carga en bloque)
+     */
+    public ProductoResponseDTO obtenerSiPresente(Long id) {
+        return porId.getIfPresent(id);
+    }
+
+    /**
+     * Guarda productos cargados en bloque
+     */
+    public void guardar(List<ProductoResponseDTO> productos, long generacion) {
+        if (generacionIds.get() == generacion) {
+            productos.forEach(producto -> porId.put(producto.getId(), producto));
+        }
+    }
+
+    /**
+     * Generación actual de la caché por ID, a leer antes de una carga en bloque
+     */
+    public long generacionActual() {
+        return generacionIds.get();
+    }
+
+    /**
+     * Devuelve el listado cacheado de la categoría o lo carga con el cargador indicado
+     */
+    public List<ProductoResponseDTO> obtenerPorCategoria(Categoria categoria,
+                                                        Supplier<List<ProductoResponseDTO>> cargador) {
+        List<ProductoResponseDTO> productos = porCategoria.getIfPresent(categoria);
+        if (productos != null) {
+            return productos;
+        }
+        AtomicLong generacionCategoria = generacionCategorias.get(categoria);
+        long generacion = generacionCategoria.get();
+        productos = cargador.get();
+        if (generacionCategoria.get() == generacion) {
+            porCategoria.put(categoria, productos);
+        }
+        return productos;
+    }
+
+    /**
+     * Invalida las entradas afectadas por un cambio ya confirmado
+     * fallbackExecution permite invalidar también cuando el evento se publica sin transacción
+     * Corre antes que el resto de los oyentes, que pueden depender de no ver entradas viejas
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarProducto(ProductoEvento evento) {
+        generacionIds.incrementAndGet();
+        porId.invalidate(evento.getId());
+        // Una carga que empezó antes del commit puede traer el estado anterior: las lecturas nuevas no la esperan
+        cargasEnCurso.remove(evento.getId());
+        for (Categoria categoria : evento.getCategoriasAfectadas()) {
+            generacionCategorias.get(categoria).incrementAndGet();
+            porCategoria.invalidate(categoria);
+        }
+    }
+
+    /**
+     * Vacía la caché completa
+     */
+    public void invalidarTodo() {
+        generacionIds.incrementAndGet();
+        generacionCategorias.values().forEach(AtomicLong::incrementAndGet);
+        cargasEnCurso.clear();
+        porId.invalidateAll();
+        porCategoria.invalidateAll();
+    }
+
+    public List<CacheEstadisticasDTO> obtenerEstadisticas() {
+        return List.of(
+                convertirEstadisticas("productosPorId", porId),
+                convertirEstadisticas("productosPorCategoria", porCategoria)
+        );
+    }
+
+    /**
+     * Espera una carga iniciada por otro hilo; si falló, relanza la misma excepción (por ejemplo, producto inexistente)
+     */
+    private static ProductoResponseDTO esperar(CompletableFuture<ProductoResponseDTO> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private CacheEstadisticasDTO convertirEstadisticas(String nombre, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheEstadisticasDTO(
+                nombre,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+}
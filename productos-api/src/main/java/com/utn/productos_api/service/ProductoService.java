@@ -1,26 +1,98 @@
 package com.utn.productos_api.service;
 
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.ActualizarProductoLoteDTO;
 import com.utn.productos_api.dto.ActualizarStockDTO;
+import com.utn.productos_api.dto.CampoProducto;
+import com.utn.productos_api.dto.FiltroBusquedaDTO;
+import com.utn.productos_api.dto.LoteProductosDTO;
+import com.utn.productos_api.dto.PaginaProductosDTO;
 import com.utn.productos_api.dto.ProductoDTO;
 import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.dto.ResultadoItemLoteDTO;
+import com.utn.productos_api.dto.ResultadoBusquedaDTO;
+import com.utn.productos_api.dto.ResultadoLoteDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.event.TipoEventoProducto;
+import com.utn.productos_api.exception.PrecondicionFallidaException;
 import com.utn.productos_api.exception.ProductoNotFoundException;
+import com.utn.productos_api.exception.SolicitudInvalidaException;
+import com.utn.productos_api.exception.StockInsuficienteException;
 import com.utn.productos_api.model.Categoria;
 import com.utn.productos_api.model.Producto;
 import com.utn.productos_api.repository.ProductoRepository;
+import com.utn.productos_api.repository.ProductoSpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 // Servicio que contiene la lógica de negocio para gestionar productos
+// Cada método público se mide con el timer productos.servicio (etiquetas class y method)
 
 @Service
+@Timed("productos.servicio")
 @RequiredArgsConstructor
 public class ProductoService {
 
+    public static final int LIMITE_PAGINA_MAXIMO = 1000;
+    private static final int TAMANIO_BUSQUEDA_DEFECTO = 20;
+    private static final Set<String> CAMPOS_ORDENABLES = Set.of("id", "nombre", "precio", "stock");
+    public static final int LIMITE_BUSQUEDA_TEXTO_MAXIMO = 100;
+    public static final String ETAG_CUALQUIERA = "*";
+    private static final int INTENTOS_ACTUALIZACION = 3;
+
+    // ETag de producto: p-{id}-{version}, con el stock en memoria (-s) y la proyección (-f) opcionales
+    private static final Pattern ETAG_PRODUCTO = Pattern.compile("p-(\\d+)-(\\d+)(?:-s(-?\\d+))?(?:-f[0-9a-z]+)?");
+
     private final ProductoRepository productoRepository;
+    private final EntityManager entityManager;
+    private final ProductoCache productoCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ProductosProperties properties;
+    private final StockEnCaliente stockEnCaliente;
+    private final JdbcTemplate jdbcTemplate;
+    private final IndiceTextoProductos indiceTexto;
+    private final CatalogoColumnar catalogoColumnar;
+
+    // Serializa los volcados del stock en caliente con las desactivaciones: un delta ya tomado por un
+    // volcado tiene que llegar a la base antes de que la desactivación libere la fila
+    private final Object volcadoStock = new Object();
 
     /**
      * Crea un nuevo producto
@@ -30,86 +102,529 @@ public class ProductoService {
     @Transactional
     public ProductoResponseDTO crearProducto(ProductoDTO productoDTO) {
         Producto producto = convertirDTOaEntidad(productoDTO);
-        Producto productoGuardado = productoRepository.save(producto);
-        return convertirEntidadAResponseDTO(productoGuardado);
+        Producto productoGuardado = productoRepository.saveAndFlush(producto);
+        ProductoResponseDTO creado = convertirEntidadAResponseDTO(productoGuardado);
+        publicarEvento(TipoEventoProducto.CREADO, null, creado);
+        return creado;
     }
 
     /**
      * Obtiene todos los productos
+     * Los DTOs se arman en la consulta, sin pasar por entidades
      * @return Lista de productos
      */
     @Transactional(readOnly = true)
     public List<ProductoResponseDTO> obtenerTodos() {
-        return productoRepository.findAll()
-                .stream()
-                .map(this::convertirEntidadAResponseDTO)
-                .collect(Collectors.toList());
+        return productoRepository.findAllRespuestas();
+    }
+
+    /**
+     * Obtiene una página de productos usando paginación por cursor (keyset)
+     * @param after ID del último producto de la página anterior (null para la primera)
+     * @param limit Cantidad máxima de productos (se acota entre 1 y LIMITE_PAGINA_MAXIMO)
+     * @return Página con los productos y el cursor para pedir la siguiente
+     */
+    @Transactional(readOnly = true)
+    public PaginaProductosDTO obtenerPagina(Long after, int limit) {
+        int tamanio = Math.min(Math.max(limit, 1), LIMITE_PAGINA_MAXIMO);
+        long desde = after != null ? after : 0L;
+
+        List<ProductoResponseDTO> productos = productoRepository
+                .findRespuestasDespuesDe(desde, PageRequest.of(0, tamanio));
+
+        Long siguienteCursor = productos.size() == tamanio
+                ? productos.get(productos.size() - 1).getId()
+                : null;
+        return new PaginaProductosDTO(productos, siguienteCursor);
+    }
+
+    /**
+     * Recorre todos los productos con un cursor de solo avance, entregándolos de a uno
+     * Las filas se leen directamente como DTOs, que no quedan en el contexto de persistencia,
+     * por lo que la memoria usada no depende del tamaño de la tabla
+     * @param consumidor Recibe cada producto en orden de ID
+     */
+    @Transactional(readOnly = true)
+    public void recorrerTodos(Consumer<ProductoResponseDTO> consumidor) {
+        try (Stream<ProductoResponseDTO> productos = productoRepository.streamRespuestasOrderById()) {
+            productos.forEach(consumidor);
+        }
     }
 
     /**
      * Obtiene un producto por su ID
+     * Se resuelve desde la caché; solo ante un fallo se consulta la base de datos
+     * Si el producto tiene stock en caliente, el stock informado es el de memoria
      * @param id ID del producto
      * @return DTO del producto encontrado
      * @throws ProductoNotFoundException si no existe el producto
      */
-    @Transactional(readOnly = true)
     public ProductoResponseDTO obtenerPorId(Long id) {
-        Producto producto = productoRepository.findById(id)
-                .orElseThrow(() -> new ProductoNotFoundException(id));
-        return convertirEntidadAResponseDTO(producto);
+        ProductoResponseDTO producto = productoCache.obtenerPorId(id, () -> productoRepository.findRespuestaById(id)
+                .orElseThrow(() -> new ProductoNotFoundException(id)));
+        return aplicarStockEnCaliente(producto);
+    }
+
+    /**
+     * Obtiene varios productos por ID con una sola consulta IN para los que no están en caché
+     * @param ids IDs solicitados (hasta LIMITE_PAGINA_MAXIMO)
+     * @return Productos en el orden de los IDs y los IDs que no existen
+     * @throws SolicitudInvalidaException si la lista está vacía, supera el máximo o tiene IDs nulos
+     */
+    public LoteProductosDTO obtenerPorIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > LIMITE_PAGINA_MAXIMO) {
+            throw new SolicitudInvalidaException(
+                    "Se deben pedir entre 1 y " + LIMITE_PAGINA_MAXIMO + " productos por solicitud");
+        }
+        if (ids.contains(null)) {
+            throw new SolicitudInvalidaException("Los IDs no pueden ser nulos");
+        }
+        List<ProductoResponseDTO> productos = obtenerPorIdsEnOrden(ids);
+        Set<Long> encontrados = productos.stream()
+                .map(ProductoResponseDTO::getId)
+                .collect(Collectors.toSet());
+        List<Long> inexistentes = ids.stream()
+                .distinct()
+                .filter(id -> !encontrados.contains(id))
+                .toList();
+        return new LoteProductosDTO(productos, inexistentes);
+    }
+
+    /**
+     * Calcula el ETag de un producto sin armar su DTO
+     * Usa la versión de la entrada cacheada o, si no está, solo la columna version;
+     * con stock en caliente se agrega el stock de memoria, que cambia sin tocar la versión
+     * @param id ID del producto
+     * @return ETag fuerte (sin comillas)
+     * @throws ProductoNotFoundException si no existe el producto
+     */
+    public String calcularEtag(Long id) {
+        ContadorStock contador = stockEnCaliente.obtener(id);
+        return armarEtag(id, versionActual(id), contador != null ? contador.disponible() : null);
+    }
+
+    /**
+     * Versión del producto desde la caché o, si no está, solo la columna version
+     * @throws ProductoNotFoundException si no existe el producto
+     */
+    private Long versionActual(Long id) {
+        ProductoResponseDTO cacheado = productoCache.obtenerSiPresente(id);
+        return cacheado != null
+                ? cacheado.getVersion()
+                : productoRepository.findVersionById(id).orElseThrow(() -> new ProductoNotFoundException(id));
+    }
+
+    /**
+     * Calcula el ETag del DTO que efectivamente se va a responder
+     * Se usa en lugar de calcularEtag(id) al enviar el cuerpo, para no etiquetar datos viejos con una versión nueva
+     */
+    public String calcularEtag(ProductoResponseDTO producto) {
+        Integer stockEnMemoria = stockEnCaliente.estaActivo(producto.getId()) ? producto.getStock() : null;
+        return armarEtag(producto.getId(), producto.getVersion(), stockEnMemoria);
     }
 
     /**
      * Obtiene productos por categoría
+     * Se resuelve desde la caché; solo ante un fallo se consulta la base de datos
      * @param categoria Categoría a filtrar
-     * @return Lista de productos de esa categoría
+     * @return Lista (inmodificable) de productos de esa categoría
      */
-    @Transactional(readOnly = true)
     public List<ProductoResponseDTO> obtenerPorCategoria(Categoria categoria) {
-        return productoRepository.findByCategoria(categoria)
-                .stream()
-                .map(this::convertirEntidadAResponseDTO)
-                .collect(Collectors.toList());
+        return productoCache.obtenerPorCategoria(categoria,
+                () -> List.copyOf(productoRepository.findRespuestasByCategoria(categoria)));
+    }
+
+    // ========== PROYECCIONES (?campos=) ==========
+
+    /**
+     * Convierte "id,precio,stock" en el conjunto de campos pedidos
+     * @throws SolicitudInvalidaException si la lista está vacía o nombra un campo que no existe
+     */
+    public Set<CampoProducto> parsearCampos(String campos) {
+        Set<CampoProducto> resultado = EnumSet.noneOf(CampoProducto.class);
+        for (String nombre : campos.split(",")) {
+            String campo = nombre.trim();
+            if (campo.isEmpty()) {
+                continue;
+            }
+            resultado.add(Arrays.stream(CampoProducto.values())
+                    .filter(candidato -> candidato.getPropiedad().equals(campo))
+                    .findFirst()
+                    .orElseThrow(() -> new SolicitudInvalidaException("Campo desconocido '" + campo
+                            + "'. Campos válidos: " + Arrays.stream(CampoProducto.values())
+                            .map(CampoProducto::getPropiedad).collect(Collectors.joining(", ")))));
+        }
+        if (resultado.isEmpty()) {
+            throw new SolicitudInvalidaException("Se debe pedir al menos un campo");
+        }
+        return resultado;
+    }
+
+    /**
+     * Todos los productos con solo los campos pedidos; la consulta selecciona solo esas columnas
+     */
+    public List<Map<String, Object>> obtenerTodosProyectados(Set<CampoProducto> campos) {
+        return proyectar(campos, null, null);
+    }
+
+    /**
+     * Productos de una categoría con solo los campos pedidos
+     */
+    public List<Map<String, Object>> obtenerPorCategoriaProyectados(Categoria categoria, Set<CampoProducto> campos) {
+        return proyectar(campos, null, categoria);
+    }
+
+    /**
+     * Un producto con solo los campos pedidos
+     * Si está en caché se proyecta desde ahí; si no, se seleccionan solo esas columnas
+     * @throws ProductoNotFoundException si no existe el producto
+     */
+    public Map<String, Object> obtenerPorIdProyectado(Long id, Set<CampoProducto> campos) {
+        ProductoResponseDTO cacheado = productoCache.obtenerSiPresente(id);
+        if (cacheado != null) {
+            ProductoResponseDTO producto = aplicarStockEnCaliente(cacheado);
+            Map<String, Object> valores = new LinkedHashMap<>();
+            campos.forEach(campo -> valores.put(campo.getPropiedad(), campo.leer(producto)));
+            return valores;
+        }
+        List<Map<String, Object>> encontrados = proyectar(campos, id, null);
+        if (encontrados.isEmpty()) {
+            throw new ProductoNotFoundException(id);
+        }
+        return encontrados.get(0);
+    }
+
+    /**
+     * El ID se selecciona siempre para aplicar el stock en caliente, pero solo se devuelve si se pidió
+     */
+    private List<Map<String, Object>> proyectar(Set<CampoProducto> campos, Long id, Categoria categoria) {
+        Set<CampoProducto> columnas = EnumSet.copyOf(campos);
+        columnas.add(CampoProducto.ID);
+        List<String> propiedades = columnas.stream().map(CampoProducto::getPropiedad).toList();
+        boolean conStock = campos.contains(CampoProducto.STOCK);
+        boolean conId = campos.contains(CampoProducto.ID);
+
+        List<Tuple> filas = productoRepository.findProyectados(propiedades, id, categoria);
+        List<Map<String, Object>> resultado = new ArrayList<>(filas.size());
+        for (Tuple fila : filas) {
+            Map<String, Object> valores = new LinkedHashMap<>();
+            for (CampoProducto campo : columnas) {
+                valores.put(campo.getPropiedad(), fila.get(campo.getPropiedad()));
+            }
+            Long idProducto = (Long) valores.get(CampoProducto.ID.getPropiedad());
+            if (conStock) {
+                ContadorStock contador = stockEnCaliente.obtener(idProducto);
+                if (contador != null) {
+                    valores.put(CampoProducto.STOCK.getPropiedad(), contador.disponible());
+                }
+            }
+            if (!conId) {
+                valores.remove(CampoProducto.ID.getPropiedad());
+            }
+            resultado.add(valores);
+        }
+        return resultado;
     }
 
     /**
-     * Actualiza completamente un producto
+     * Busca productos combinando criterios opcionales, con paginación y orden
+     * Con la réplica columnar lista, se resuelve en memoria; si no, la consulta
+     * se arma dinámicamente solo con los criterios presentes
+     * @param filtro Criterios de búsqueda
+     * @return Página de productos que cumplen todos los criterios
+     * @throws SolicitudInvalidaException si el rango de precios o el orden son inválidos
+     */
+    public ResultadoBusquedaDTO buscar(FiltroBusquedaDTO filtro) {
+        if (filtro.getPrecioMin() != null && filtro.getPrecioMax() != null
+                && filtro.getPrecioMin() > filtro.getPrecioMax()) {
+            throw new SolicitudInvalidaException("El precio mínimo no puede ser mayor al precio máximo");
+        }
+        int pagina = filtro.getPagina() != null ? Math.max(filtro.getPagina(), 0) : 0;
+        int tamanio = filtro.getTamanio() != null
+                ? Math.min(Math.max(filtro.getTamanio(), 1), LIMITE_PAGINA_MAXIMO)
+                : TAMANIO_BUSQUEDA_DEFECTO;
+        Sort orden = convertirOrden(filtro.getOrden());
+
+        if (catalogoColumnar.estaListo()) {
+            CatalogoColumnar.Pagina resultado = catalogoColumnar.buscar(
+                    filtro, orden.iterator().next(), pagina, tamanio);
+            return new ResultadoBusquedaDTO(
+                    completarDescripciones(resultado.contenido()).stream().map(this::aplicarStockEnCaliente).toList(),
+                    pagina,
+                    tamanio,
+                    resultado.total(),
+                    (int) ((resultado.total() + tamanio - 1) / tamanio)
+            );
+        }
+
+        // Conteo y página se leen en la misma transacción de solo lectura del repositorio
+        List<Specification<Producto>> criterios = new ArrayList<>();
+        if (filtro.getPrecioMin() != null) {
+            criterios.add(ProductoSpecifications.precioDesde(filtro.getPrecioMin()));
+        }
+        if (filtro.getPrecioMax() != null) {
+            criterios.add(ProductoSpecifications.precioHasta(filtro.getPrecioMax()));
+        }
+        if (Boolean.TRUE.equals(filtro.getSoloConStock())) {
+            criterios.add(ProductoSpecifications.conStock());
+        }
+        if (filtro.getCategorias() != null && !filtro.getCategorias().isEmpty()) {
+            criterios.add(ProductoSpecifications.categoriaEn(filtro.getCategorias()));
+        }
+        if (filtro.getPrefijo() != null && !filtro.getPrefijo().isBlank()) {
+            criterios.add(ProductoSpecifications.nombreEmpiezaCon(filtro.getPrefijo().trim()));
+        }
+
+        PageRequest pageRequest = PageRequest.of(pagina, tamanio, orden);
+
+        Page<ProductoResponseDTO> resultado = productoRepository
+                .findAll(Specification.allOf(criterios), pageRequest)
+                .map(ProductoService::convertirEntidadAResponseDTO)
+                .map(this::aplicarStockEnCaliente);
+        return new ResultadoBusquedaDTO(
+                resultado.getContent(),
+                resultado.getNumber(),
+                resultado.getSize(),
+                resultado.getTotalElements(),
+                resultado.getTotalPages()
+        );
+    }
+
+    /**
+     * La réplica columnar no guarda las descripciones: se leen de la base solo para la página devuelta
+     */
+    private List<ProductoResponseDTO> completarDescripciones(List<ProductoResponseDTO> productos) {
+        if (productos.isEmpty()) {
+            return productos;
+        }
+        // HashMap: la descripción es opcional y Collectors.toMap no admite valores null
+        Map<Long, String> descripciones = new HashMap<>();
+        productoRepository.findDescripcionesByIdIn(productos.stream().map(ProductoResponseDTO::getId).toList())
+                .forEach(fila -> descripciones.put(fila.getId(), fila.getDescripcion()));
+        return productos.stream()
+                .map(producto -> new ProductoResponseDTO(
+                        producto.getId(),
+                        producto.getNombre(),
+                        descripciones.get(producto.getId()),
+                        producto.getPrecio(),
+                        producto.getStock(),
+                        producto.getCategoria(),
+                        producto.getVersion(),
+                        producto.getActualizadoEn()))
+                .toList();
+    }
+
+    /**
+     * Búsqueda de texto libre sobre nombre y descripción, resuelta con el índice invertido en memoria
+     * @param consulta Palabras a buscar (sin distinguir acentos ni mayúsculas; la última puede ser un prefijo)
+     * @param limite Cantidad máxima de resultados (1 a LIMITE_BUSQUEDA_TEXTO_MAXIMO)
+     * @return Productos ordenados por relevancia
+     * @throws SolicitudInvalidaException si la consulta está vacía
+     */
+    public List<ProductoResponseDTO> buscarTexto(String consulta, int limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new SolicitudInvalidaException("La consulta de búsqueda no puede estar vacía");
+        }
+        int tamanio = Math.min(Math.max(limite, 1), LIMITE_BUSQUEDA_TEXTO_MAXIMO);
+        return obtenerPorIdsEnOrden(indiceTexto.buscar(consulta, tamanio));
+    }
+
+    /**
+     * Actualiza completamente un producto, sin condición sobre su versión
      * @param id ID del producto a actualizar
      * @param productoDTO DTO con los nuevos datos
      * @return DTO del producto actualizado
      * @throws ProductoNotFoundException si no existe el producto
      */
-    @Transactional
     public ProductoResponseDTO actualizarProducto(Long id, ProductoDTO productoDTO) {
-        Producto productoExistente = productoRepository.findById(id)
-                .orElseThrow(() -> new ProductoNotFoundException(id));
-
-        // Actualizar campos
-        productoExistente.setNombre(productoDTO.getNombre());
-        productoExistente.setDescripcion(productoDTO.getDescripcion());
-        productoExistente.setPrecio(productoDTO.getPrecio());
-        productoExistente.setStock(productoDTO.getStock());
-        productoExistente.setCategoria(productoDTO.getCategoria());
+        return actualizarProducto(id, productoDTO, null);
+    }
 
-        Producto productoActualizado = productoRepository.save(productoExistente);
-        return convertirEntidadAResponseDTO(productoActualizado);
+    /**
+     * Actualiza completamente un producto con un único UPDATE versionado (WHERE id = ? AND version = ?)
+     * No bloquea la fila: el estado anterior sale de la caché si está vigente y, si otra escritura
+     * gana la carrera, se relee y se reintenta (salvo que se haya pedido una versión exacta)
+     * @param id ID del producto a actualizar
+     * @param productoDTO DTO con los nuevos datos
+     * @param etagEsperado ETag (sin comillas) de If-Match, "*" o null para actualizar la versión vigente
+     * @return DTO del producto actualizado
+     * @throws ProductoNotFoundException si no existe el producto
+     * @throws PrecondicionFallidaException si el producto ya no tiene el ETag esperado
+     */
+    public ProductoResponseDTO actualizarProducto(Long id, ProductoDTO productoDTO, String etagEsperado) {
+        ProductoResponseDTO actualizado = actualizarVersionado(id, versionSegunEtag(id, etagEsperado),
+                TipoEventoProducto.ACTUALIZADO, anterior -> {
+                    // Con stock en caliente la columna no se toca: el stock nuevo va al contador
+                    // El modo se consulta con la fila bloqueada, así no cambia hasta el commit
+                    ContadorStock contador = activadoConFilaBloqueada(id) ? stockEnCaliente.obtener(id) : null;
+                    Integer stock = contador != null ? null : productoDTO.getStock();
+                    LocalDateTime ahora = LocalDateTime.now();
+                    int filas = productoRepository.actualizarSiVersion(id, anterior.getVersion(),
+                            productoDTO.getNombre(), productoDTO.getDescripcion(), productoDTO.getPrecio(),
+                            stock, productoDTO.getCategoria(), ahora);
+                    if (filas == 0) {
+                        return null;
+                    }
+                    if (contador != null) {
+                        contador.establecer(productoDTO.getStock());
+                    }
+                    return new ProductoResponseDTO(
+                            id,
+                            productoDTO.getNombre(),
+                            productoDTO.getDescripcion(),
+                            productoDTO.getPrecio(),
+                            stock != null ? stock : anterior.getStock(),
+                            productoDTO.getCategoria(),
+                            anterior.getVersion() + 1,
+                            ahora
+                    );
+                });
+        return aplicarStockEnCaliente(actualizado);
     }
 
     /**
-     * Actualiza solo el stock de un producto
+     * Actualiza solo el stock de un producto, sin condición sobre su versión
      * @param id ID del producto
      * @param stockDTO DTO con el nuevo stock
      * @return DTO del producto actualizado
      * @throws ProductoNotFoundException si no existe el producto
      */
-    @Transactional
     public ProductoResponseDTO actualizarStock(Long id, ActualizarStockDTO stockDTO) {
-        Producto producto = productoRepository.findById(id)
-                .orElseThrow(() -> new ProductoNotFoundException(id));
+        return actualizarStock(id, stockDTO, null);
+    }
+
+    /**
+     * Actualiza solo el stock de un producto con un único UPDATE versionado
+     * Si el producto tiene stock en caliente, el stock se fija en memoria
+     * @param id ID del producto
+     * @param stockDTO DTO con el nuevo stock
+     * @param etagEsperado ETag (sin comillas) de If-Match, "*" o null para actualizar la versión vigente
+     * @return DTO del producto actualizado
+     * @throws ProductoNotFoundException si no existe el producto
+     * @throws PrecondicionFallidaException si el producto ya no tiene el ETag esperado
+     */
+    public ProductoResponseDTO actualizarStock(Long id, ActualizarStockDTO stockDTO, String etagEsperado) {
+        Long versionEsperada = versionSegunEtag(id, etagEsperado);
+        ContadorStock contador = stockEnCaliente.obtener(id);
+        if (contador != null) {
+            if (versionEsperada != null && !versionEsperada.equals(versionActual(id))) {
+                throw new PrecondicionFallidaException(id);
+            }
+            // Un contador cerrado por una desactivación concurrente rechaza el cambio: se escribe en la base
+            if (contador.establecer(stockDTO.getStock())) {
+                return obtenerPorId(id);
+            }
+        }
 
-        producto.setStock(stockDTO.getStock());
-        Producto productoActualizado = productoRepository.save(producto);
-        return convertirEntidadAResponseDTO(productoActualizado);
+        return actualizarVersionado(id, versionEsperada, TipoEventoProducto.STOCK, anterior -> {
+            // Si el producto se activó mientras tanto, no se pisa la columna: se reintenta (y termina en 409)
+            if (activadoConFilaBloqueada(id)) {
+                return null;
+            }
+            LocalDateTime ahora = LocalDateTime.now();
+            if (productoRepository.actualizarStockSiVersion(id, anterior.getVersion(), stockDTO.getStock(), ahora) == 0) {
+                return null;
+            }
+            return new ProductoResponseDTO(
+                    id,
+                    anterior.getNombre(),
+                    anterior.getDescripcion(),
+                    anterior.getPrecio(),
+                    stockDTO.getStock(),
+                    anterior.getCategoria(),
+                    anterior.getVersion() + 1,
+                    ahora
+            );
+        });
+    }
+
+    /**
+     * Reserva unidades de stock con un único UPDATE condicional, sin leer antes
+     * Si el producto tiene stock en caliente, la reserva se resuelve en memoria sin tocar la base
+     * @param id ID del producto
+     * @param cantidad Unidades a descontar
+     * @return DTO del producto con el stock resultante
+     * @throws ProductoNotFoundException si no existe el producto
+     * @throws StockInsuficienteException si el stock disponible no alcanza
+     */
+    public ProductoResponseDTO reservarStock(Long id, int cantidad) {
+        while (true) {
+            ContadorStock contador = stockEnCaliente.obtener(id);
+            if (contador != null) {
+                if (contador.reservar(cantidad)) {
+                    return obtenerPorId(id);
+                }
+                // Un contador cerrado por una desactivación concurrente rechaza todo: se reintenta en la base
+                if (!contador.estaCerrado()) {
+                    throw new StockInsuficienteException(id, cantidad);
+                }
+                continue;
+            }
+
+            ProductoResponseDTO reservado = transactionTemplate.execute(status -> {
+                if (activadoConFilaBloqueada(id)) {
+                    return null;
+                }
+                if (productoRepository.reservarStock(id, cantidad, LocalDateTime.now()) == 0) {
+                    if (!productoRepository.existsById(id)) {
+                        throw new ProductoNotFoundException(id);
+                    }
+                    throw new StockInsuficienteException(id, cantidad);
+                }
+                return registrarMovimientoStock(id, -cantidad);
+            });
+            if (reservado != null) {
+                return reservado;
+            }
+        }
+    }
+
+    /**
+     * Libera (devuelve) unidades de stock con un único UPDATE relativo
+     * Si el producto tiene stock en caliente, se suma en memoria sin tocar la base
+     * @param id ID del producto
+     * @param cantidad Unidades a sumar
+     * @return DTO del producto con el stock resultante
+     * @throws ProductoNotFoundException si no existe el producto
+     */
+    public ProductoResponseDTO liberarStock(Long id, int cantidad) {
+        while (true) {
+            ContadorStock contador = stockEnCaliente.obtener(id);
+            if (contador != null) {
+                contador.liberar(cantidad);
+                return obtenerPorId(id);
+            }
+
+            ProductoResponseDTO liberado = transactionTemplate.execute(status -> {
+                if (activadoConFilaBloqueada(id)) {
+                    return null;
+                }
+                if (productoRepository.liberarStock(id, cantidad, LocalDateTime.now()) == 0) {
+                    throw new ProductoNotFoundException(id);
+                }
+                return registrarMovimientoStock(id, cantidad);
+            });
+            if (liberado != null) {
+                return liberado;
+            }
+        }
+    }
+
+    /**
+     * Con el stock en caliente habilitado, bloquea la fila y revisa si el producto pasó a memoria
+     * La activación y la desactivación cambian de modo con la fila bloqueada: un movimiento que vio el
+     * producto sin contador y esperó el bloqueo no escribe en la base si mientras tanto se activó
+     * @return true si el producto tiene stock en caliente (el movimiento se resuelve en memoria)
+     * @throws ProductoNotFoundException si no existe el producto
+     */
+    private boolean activadoConFilaBloqueada(Long id) {
+        if (!stockEnCaliente.estaHabilitado()) {
+            return false;
+        }
+        if (productoRepository.bloquearFila(id).isEmpty()) {
+            throw new ProductoNotFoundException(id);
+        }
+        return stockEnCaliente.obtener(id) != null;
     }
 
     /**
@@ -119,14 +634,553 @@ public class ProductoService {
      */
     @Transactional
     public void eliminarProducto(Long id) {
-        if (!productoRepository.existsById(id)) {
-            throw new ProductoNotFoundException(id);
+        Producto producto = productoRepository.findById(id)
+                .orElseThrow(() -> new ProductoNotFoundException(id));
+        ProductoResponseDTO eliminado = convertirEntidadAResponseDTO(producto);
+        productoRepository.delete(producto);
+        stockEnCaliente.retirar(id);
+        publicarEvento(TipoEventoProducto.ELIMINADO, eliminado, null);
+    }
+
+    // ========== ÍNDICES EN MEMORIA ==========
+
+    /**
+     * Carga los índices en memoria (y la réplica columnar, si está habilitada)
+     * recorriendo el catálogo una sola vez al iniciar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarIndices() {
+        indiceTexto.limpiar();
+        long cargaTexto = indiceTexto.iniciarCarga();
+        try {
+            if (!catalogoColumnar.estaHabilitado()) {
+                transactionTemplate.executeWithoutResult(status -> recorrerTodos(indiceTexto::indexar));
+                return;
+            }
+            catalogoColumnar.limpiar();
+            int cargaColumnar = catalogoColumnar.iniciarCarga();
+            try {
+                transactionTemplate.executeWithoutResult(status -> recorrerTodos(producto -> {
+                    indiceTexto.indexar(producto);
+                    catalogoColumnar.guardar(producto);
+                }));
+            } finally {
+                catalogoColumnar.terminarCarga(cargaColumnar);
+            }
+            catalogoColumnar.marcarListo();
+        } finally {
+            indiceTexto.terminarCarga(cargaTexto);
+        }
+    }
+
+    // ========== STOCK EN CALIENTE ==========
+
+    /**
+     * Marca un producto con stock en caliente: desde ahora su stock se sirve desde memoria
+     * Conviene activarlo antes del pico de tráfico; la fila se bloquea solo mientras se lee el stock inicial
+     * @param id ID del producto
+     * @return DTO del producto
+     * @throws SolicitudInvalidaException si el modo está deshabilitado
+     * @throws ProductoNotFoundException si no existe el producto
+     */
+    public ProductoResponseDTO activarStockEnCaliente(Long id) {
+        if (!stockEnCaliente.estaHabilitado()) {
+            throw new SolicitudInvalidaException("El modo de stock en caliente está deshabilitado");
+        }
+        // Vuelca antes lo pendiente de una activación anterior, para partir del stock real
+        // El volcado confirma su propia transacción: un 404 acá no puede deshacerlo
+        volcarStockEnCaliente();
+        ProductoResponseDTO producto = transactionTemplate.execute(status -> {
+            Producto bloqueado = productoRepository.findByIdParaActualizar(id)
+                    .orElseThrow(() -> new ProductoNotFoundException(id));
+            stockEnCaliente.activar(id, bloqueado.getStock());
+            return convertirEntidadAResponseDTO(bloqueado);
+        });
+        return aplicarStockEnCaliente(producto);
+    }
+
+    /**
+     * Quita la marca de stock en caliente y vuelca los deltas pendientes
+     * El contador se quita y su pendiente se vuelca con la fila bloqueada: las reservas por la base
+     * esperan ese commit y recién entonces ven el stock real
+     * @param id ID del producto
+     * @return DTO del producto con el stock ya persistido
+     * @throws ProductoNotFoundException si no existe el producto
+     */
+    public ProductoResponseDTO desactivarStockEnCaliente(Long id) {
+        long[] volcado = new long[1];
+        ContadorStock[] quitado = new ContadorStock[1];
+        synchronized (volcadoStock) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (productoRepository.bloquearFila(id).isEmpty()) {
+                        throw new ProductoNotFoundException(id);
+                    }
+                    quitado[0] = stockEnCaliente.quitar(id);
+                    if (quitado[0] == null) {
+                        return;
+                    }
+                    // Se escribe aunque el delta sea cero: la versión nueva hace fallar las escrituras
+                    // versionadas que leyeron el modo antes de la desactivación
+                    volcado[0] = quitado[0].tomarPendiente();
+                    escribirDeltasStock(Map.of(id, volcado[0]));
+                });
+            } catch (RuntimeException e) {
+                if (quitado[0] != null) {
+                    // El próximo volcado periódico reintenta lo que no se pudo escribir
+                    quitado[0].devolverPendiente(volcado[0]);
+                }
+                throw e;
+            } finally {
+                if (quitado[0] != null) {
+                    stockEnCaliente.retirar(quitado[0]);
+                }
+            }
+        }
+        return obtenerPorId(id);
+    }
+
+    /**
+     * Vuelca a la base de datos los deltas acumulados por el stock en caliente
+     * Usa un único batch JDBC de UPDATEs relativos; si falla, los deltas se reintentan en el próximo ciclo
+     * Corre siempre en una transacción propia (REQUIRES_NEW): los deltas se dan por volcados recién
+     * después de su commit, aunque quien llama tenga una transacción abierta que luego se deshaga.
+     * No se superpone con una desactivación (ver volcadoStock)
+     * @return Cantidad de contadores volcados
+     */
+    public int volcarStockEnCaliente() {
+        synchronized (volcadoStock) {
+            return volcarPendientes();
+        }
+    }
+
+    private int volcarPendientes() {
+        Map<ContadorStock, Long> pendientes = stockEnCaliente.tomarPendientes();
+        if (pendientes.isEmpty()) {
+            stockEnCaliente.confirmarVolcado();
+            return 0;
+        }
+
+        TransactionTemplate transaccionPropia = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaccionPropia.executeWithoutResult(status -> escribirDeltasStock(pendientes.entrySet().stream()
+                    .collect(Collectors.toMap(fila -> fila.getKey().getId(), Map.Entry::getValue, Long::sum))));
+        } catch (RuntimeException e) {
+            stockEnCaliente.devolverPendientes(pendientes);
+            throw e;
         }
-        productoRepository.deleteById(id);
+        stockEnCaliente.confirmarVolcado();
+        return pendientes.size();
+    }
+
+    /**
+     * Suma los deltas al stock de la base con un batch de UPDATEs relativos y publica un evento STOCK por producto
+     */
+    private void escribirDeltasStock(Map<Long, Long> deltasPorId) {
+        List<Map.Entry<Long, Long>> filas = new ArrayList<>(deltasPorId.entrySet());
+        jdbcTemplate.batchUpdate(
+                "UPDATE producto SET stock = stock + ?, version = version + 1, " +
+                        "actualizado_en = CURRENT_TIMESTAMP WHERE id = ?",
+                filas,
+                properties.getBulk().getTamanioLote(),
+                (ps, fila) -> {
+                    ps.setLong(1, fila.getValue());
+                    ps.setLong(2, fila.getKey());
+                });
+
+        productoRepository.findAllById(deltasPorId.keySet()).forEach(producto -> {
+            ProductoResponseDTO actual = convertirEntidadAResponseDTO(producto);
+            int stockAnterior = (int) (actual.getStock() - deltasPorId.get(producto.getId()));
+            publicarEvento(TipoEventoProducto.STOCK, copiarConStock(actual, stockAnterior), actual);
+        });
+    }
+
+    /**
+     * Aplica en una sola transacción las escrituras diferidas de varios productos
+     * Los productos se resuelven con una consulta IN y se escriben con batch updates JDBC
+     * @param escrituras Escrituras combinadas por ID de producto
+     * @return IDs de los productos actualizados; los que ya no existen se omiten
+     */
+    public Set<Long> aplicarEscriturasDiferidas(Map<Long, EscrituraPendiente> escrituras) {
+        return transactionTemplate.execute(status -> {
+            List<Producto> productos = productoRepository.findAllById(escrituras.keySet());
+            List<ProductoResponseDTO> anteriores = new ArrayList<>(productos.size());
+            for (Producto producto : productos) {
+                anteriores.add(convertirEntidadAResponseDTO(producto));
+                EscrituraPendiente escritura = escrituras.get(producto.getId());
+                if (escritura.producto() != null) {
+                    aplicarCambios(producto, escritura.producto());
+                }
+                ContadorStock contador = stockEnCaliente.obtener(producto.getId());
+                if (escritura.stock() != null) {
+                    if (contador == null || !contador.establecer(escritura.stock())) {
+                        producto.setStock(escritura.stock());
+                    }
+                }
+                if (escritura.delta() != 0) {
+                    if (contador != null) {
+                        contador.liberar(Math.toIntExact(escritura.delta()));
+                    } else {
+                        producto.setStock(Math.toIntExact(producto.getStock() + escritura.delta()));
+                    }
+                }
+            }
+            entityManager.flush();
+
+            Set<Long> aplicados = new LinkedHashSet<>();
+            for (int k = 0; k < productos.size(); k++) {
+                Producto producto = productos.get(k);
+                ProductoResponseDTO actualizado = convertirEntidadAResponseDTO(producto);
+                aplicados.add(producto.getId());
+                // Con stock en caliente un cambio solo de stock no toca la fila
+                if (!Objects.equals(anteriores.get(k).getVersion(), actualizado.getVersion())) {
+                    TipoEventoProducto tipo = escrituras.get(producto.getId()).soloStock()
+                            ? TipoEventoProducto.STOCK
+                            : TipoEventoProducto.ACTUALIZADO;
+                    publicarEvento(tipo, anteriores.get(k), actualizado);
+                }
+            }
+            entityManager.clear();
+            return aplicados;
+        });
+    }
+
+    // ========== OPERACIONES MASIVAS ==========
+
+    /**
+     * Crea muchos productos en transacciones por lotes, usando batch inserts JDBC
+     * Cada elemento se valida por separado: los inválidos se informan sin afectar al resto
+     * @param productos DTOs de los productos a crear
+     * @return Resultado de cada elemento y rendimiento medido
+     * @throws SolicitudInvalidaException si la lista está vacía o supera el máximo permitido
+     */
+    public ResultadoLoteDTO crearProductosEnLote(List<ProductoDTO> productos) {
+        validarTamanioLote(productos);
+        long inicio = System.nanoTime();
+        ResultadoItemLoteDTO[] resultados = new ResultadoItemLoteDTO[productos.size()];
+        int tamanioLote = properties.getBulk().getTamanioLote();
+
+        for (int desde = 0; desde < productos.size(); desde += tamanioLote) {
+            int hasta = Math.min(desde + tamanioLote, productos.size());
+            List<Integer> indices = new ArrayList<>();
+            List<Producto> entidades = new ArrayList<>();
+            for (int i = desde; i < hasta; i++) {
+                String error = validar(productos.get(i));
+                if (error != null) {
+                    resultados[i] = ResultadoItemLoteDTO.fallo(i, error);
+                } else {
+                    indices.add(i);
+                    entidades.add(convertirDTOaEntidad(productos.get(i)));
+                }
+            }
+            if (entidades.isEmpty()) {
+                continue;
+            }
+
+            try {
+                List<ProductoResponseDTO> creados = transactionTemplate.execute(status -> {
+                    productoRepository.saveAll(entidades);
+                    entityManager.flush();
+                    List<ProductoResponseDTO> dtos = entidades.stream()
+                            .map(ProductoService::convertirEntidadAResponseDTO)
+                            .toList();
+                    entityManager.clear();
+                    dtos.forEach(dto -> publicarEvento(TipoEventoProducto.CREADO, null, dto));
+                    return dtos;
+                });
+                for (int k = 0; k < indices.size(); k++) {
+                    resultados[indices.get(k)] = ResultadoItemLoteDTO.exito(indices.get(k), creados.get(k));
+                }
+            } catch (RuntimeException e) {
+                indices.forEach(i -> resultados[i] = ResultadoItemLoteDTO.fallo(i,
+                        "Error al guardar el lote: " + e.getMessage()));
+            }
+        }
+        return armarResultado(Arrays.asList(resultados), inicio);
+    }
+
+    /**
+     * Actualiza muchos productos en transacciones por lotes
+     * Cada lote resuelve sus productos con una sola consulta IN y se escribe con batch updates JDBC
+     * @param actualizaciones IDs y nuevos datos de los productos
+     * @return Resultado de cada elemento y rendimiento medido
+     * @throws SolicitudInvalidaException si la lista está vacía o supera el máximo permitido
+     */
+    public ResultadoLoteDTO actualizarProductosEnLote(List<ActualizarProductoLoteDTO> actualizaciones) {
+        validarTamanioLote(actualizaciones);
+        long inicio = System.nanoTime();
+        ResultadoItemLoteDTO[] resultados = new ResultadoItemLoteDTO[actualizaciones.size()];
+        int tamanioLote = properties.getBulk().getTamanioLote();
+
+        for (int desde = 0; desde < actualizaciones.size(); desde += tamanioLote) {
+            int hasta = Math.min(desde + tamanioLote, actualizaciones.size());
+            List<Integer> indices = new ArrayList<>();
+            for (int i = desde; i < hasta; i++) {
+                String error = validar(actualizaciones.get(i));
+                if (error != null) {
+                    resultados[i] = ResultadoItemLoteDTO.fallo(i, error);
+                } else {
+                    indices.add(i);
+                }
+            }
+            if (indices.isEmpty()) {
+                continue;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Long> ids = indices.stream().map(i -> actualizaciones.get(i).getId()).toList();
+                    Map<Long, Producto> existentes = productoRepository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
+                    List<Integer> actualizados = new ArrayList<>();
+                    List<ProductoResponseDTO> anteriores = new ArrayList<>();
+                    for (Integer i : indices) {
+                        ActualizarProductoLoteDTO actualizacion = actualizaciones.get(i);
+                        Producto producto = existentes.get(actualizacion.getId());
+                        if (producto == null) {
+                            resultados[i] = ResultadoItemLoteDTO.fallo(i,
+                                    new ProductoNotFoundException(actualizacion.getId()).getMessage());
+                            continue;
+                        }
+                        anteriores.add(convertirEntidadAResponseDTO(producto));
+                        aplicarCambios(producto, actualizacion.getProducto());
+                        actualizados.add(i);
+                    }
+                    entityManager.flush();
+
+                    for (int k = 0; k < actualizados.size(); k++) {
+                        int i = actualizados.get(k);
+                        Producto producto = existentes.get(actualizaciones.get(i).getId());
+                        ProductoResponseDTO actualizado = convertirEntidadAResponseDTO(producto);
+                        publicarEvento(TipoEventoProducto.ACTUALIZADO, anteriores.get(k), actualizado);
+                        resultados[i] = ResultadoItemLoteDTO.exito(i, aplicarStockEnCaliente(actualizado));
+                    }
+                    entityManager.clear();
+                });
+            } catch (RuntimeException e) {
+                indices.forEach(i -> resultados[i] = ResultadoItemLoteDTO.fallo(i,
+                        "Error al guardar el lote: " + e.getMessage()));
+            }
+        }
+        return armarResultado(Arrays.asList(resultados), inicio);
+    }
+
+    private void validarTamanioLote(List<?> elementos) {
+        if (elementos == null || elementos.isEmpty()) {
+            throw new SolicitudInvalidaException("La lista de productos no puede estar vacía");
+        }
+        int maximo = properties.getBulk().getMaximoItems();
+        if (elementos.size() > maximo) {
+            throw new SolicitudInvalidaException(
+                    "La lista de productos no puede superar los " + maximo + " elementos");
+        }
+    }
+
+    /**
+     * Valida un elemento con Bean Validation
+     * @return Mensaje con todas las violaciones, o null si es válido
+     */
+    private String validar(Object dto) {
+        if (dto == null) {
+            return "El elemento no puede ser nulo";
+        }
+        Set<ConstraintViolation<Object>> violaciones = validator.validate(dto);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private ResultadoLoteDTO armarResultado(List<ResultadoItemLoteDTO> resultados, long inicioNanos) {
+        long duracionNanos = System.nanoTime() - inicioNanos;
+        int exitosos = (int) resultados.stream().filter(ResultadoItemLoteDTO::isExitoso).count();
+        double porSegundo = duracionNanos > 0 ? resultados.size() * 1_000_000_000.0 / duracionNanos : 0;
+        return new ResultadoLoteDTO(
+                resultados.size(),
+                exitosos,
+                resultados.size() - exitosos,
+                duracionNanos / 1_000_000,
+                porSegundo,
+                resultados
+        );
+    }
+
+    /**
+     * Lee el producto ya modificado por un UPDATE relativo y publica el evento de stock
+     * El estado anterior se reconstruye a partir del delta aplicado
+     */
+    private ProductoResponseDTO registrarMovimientoStock(Long id, int delta) {
+        ProductoResponseDTO actual = productoRepository.findRespuestaById(id)
+                .orElseThrow(() -> new ProductoNotFoundException(id));
+        ProductoResponseDTO anterior = copiarConStock(actual, actual.getStock() - delta);
+        publicarEvento(TipoEventoProducto.STOCK, anterior, actual);
+        return actual;
+    }
+
+    /**
+     * Resuelve varios productos respetando el orden de los IDs recibidos
+     * Los que están en caché no se consultan; el resto se trae con una sola consulta IN.
+     * Los IDs inexistentes se omiten.
+     */
+    private List<ProductoResponseDTO> obtenerPorIdsEnOrden(List<Long> ids) {
+        Map<Long, ProductoResponseDTO> encontrados = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            ProductoResponseDTO cacheado = productoCache.obtenerSiPresente(id);
+            if (cacheado != null) {
+                encontrados.put(id, cacheado);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            long generacion = productoCache.generacionActual();
+            List<ProductoResponseDTO> cargados = productoRepository.findRespuestasByIdIn(faltantes);
+            productoCache.guardar(cargados, generacion);
+            cargados.forEach(producto -> encontrados.put(producto.getId(), producto));
+        }
+        return ids.stream()
+                .map(encontrados::get)
+                .filter(Objects::nonNull)
+                .map(this::aplicarStockEnCaliente)
+                .toList();
+    }
+
+    /**
+     * Convierte "campo,direccion" en un Sort; el ID se agrega siempre para que el orden sea estable
+     */
+    private Sort convertirOrden(String orden) {
+        if (orden == null || orden.isBlank()) {
+            return Sort.by("id");
+        }
+        String[] partes = orden.split(",");
+        String campo = partes[0].trim();
+        if (!CAMPOS_ORDENABLES.contains(campo)) {
+            throw new SolicitudInvalidaException(
+                    "No se puede ordenar por '" + campo + "'. Campos válidos: " + CAMPOS_ORDENABLES);
+        }
+        Sort.Direction direccion = Sort.Direction.ASC;
+        if (partes.length > 1) {
+            direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                    .orElseThrow(() -> new SolicitudInvalidaException(
+                            "Dirección de orden inválida: '" + partes[1].trim() + "' (usar asc o desc)"));
+        }
+        Sort sort = Sort.by(direccion, campo);
+        return campo.equals("id") ? sort : sort.and(Sort.by("id"));
+    }
+
+    /**
+     * Escribe con un UPDATE versionado a partir del estado vigente del producto
+     * La escritura recibe el estado anterior y devuelve el nuevo, o null si el UPDATE no afectó filas
+     * porque otra transacción cambió la versión; en ese caso se relee de la base y se reintenta.
+     */
+    private ProductoResponseDTO actualizarVersionado(Long id, Long versionEsperada, TipoEventoProducto tipo,
+                                                     Function<ProductoResponseDTO, ProductoResponseDTO> escritura) {
+        for (int intento = 1; intento <= INTENTOS_ACTUALIZACION; intento++) {
+            ProductoResponseDTO anterior = estadoVigente(id, versionEsperada, intento == 1);
+            ProductoResponseDTO actualizado = transactionTemplate.execute(status -> {
+                ProductoResponseDTO resultado = escritura.apply(anterior);
+                if (resultado != null) {
+                    publicarEvento(tipo, anterior, resultado);
+                }
+                return resultado;
+            });
+            if (actualizado != null) {
+                return actualizado;
+            }
+        }
+        throw new ObjectOptimisticLockingFailureException(Producto.class, id);
+    }
+
+    /**
+     * Estado del producto sobre el que se aplica una escritura versionada
+     * La entrada de la caché solo se usa si tiene la versión esperada: así se evita la lectura previa.
+     * @throws ProductoNotFoundException si no existe el producto
+     * @throws PrecondicionFallidaException si la versión vigente no es la esperada
+     */
+    private ProductoResponseDTO estadoVigente(Long id, Long versionEsperada, boolean usarCache) {
+        if (usarCache) {
+            ProductoResponseDTO cacheado = productoCache.obtenerSiPresente(id);
+            if (cacheado != null && (versionEsperada == null || versionEsperada.equals(cacheado.getVersion()))) {
+                return cacheado;
+            }
+            // La caché se actualiza recién tras el commit: una versión mayor ya está confirmada
+            if (cacheado != null && cacheado.getVersion() > versionEsperada) {
+                throw new PrecondicionFallidaException(id);
+            }
+        }
+        ProductoResponseDTO vigente = productoRepository.findRespuestaById(id)
+                .orElseThrow(() -> new ProductoNotFoundException(id));
+        if (versionEsperada != null && !versionEsperada.equals(vigente.getVersion())) {
+            throw new PrecondicionFallidaException(id);
+        }
+        return vigente;
+    }
+
+    /**
+     * Versión que pide el ETag de If-Match; null si no hay condición o es "*"
+     * Con stock en caliente el ETag incluye el stock de memoria, que también debe coincidir
+     * @throws PrecondicionFallidaException si el ETag no es de este producto o su stock en memoria cambió
+     */
+    private Long versionSegunEtag(Long id, String etag) {
+        if (etag == null || ETAG_CUALQUIERA.equals(etag)) {
+            return null;
+        }
+        Matcher matcher = ETAG_PRODUCTO.matcher(etag);
+        if (!matcher.matches() || !matcher.group(1).equals(id.toString())) {
+            throw new PrecondicionFallidaException(id);
+        }
+        ContadorStock contador = stockEnCaliente.obtener(id);
+        if (contador != null && matcher.group(3) != null
+                && contador.disponible() != Integer.parseInt(matcher.group(3))) {
+            throw new PrecondicionFallidaException(id);
+        }
+        return Long.parseLong(matcher.group(2));
+    }
+
+    /**
+     * Publica el cambio para que la caché (y demás oyentes) se actualicen tras el commit
+     */
+    private void publicarEvento(TipoEventoProducto tipo, ProductoResponseDTO anterior, ProductoResponseDTO actual) {
+        eventPublisher.publishEvent(new ProductoEvento(tipo, anterior, actual));
     }
 
     // ========== MÉTODOS AUXILIARES DE CONVERSIÓN ==========
 
+    /**
+     * Copia los datos del DTO sobre una entidad existente
+     * Con stock en caliente el stock se fija en memoria y la columna queda a cargo del volcado
+     */
+    private void aplicarCambios(Producto producto, ProductoDTO dto) {
+        producto.setNombre(dto.getNombre());
+        producto.setDescripcion(dto.getDescripcion());
+        producto.setPrecio(dto.getPrecio());
+        producto.setCategoria(dto.getCategoria());
+
+        ContadorStock contador = stockEnCaliente.obtener(producto.getId());
+        if (contador == null || !contador.establecer(dto.getStock())) {
+            producto.setStock(dto.getStock());
+        }
+    }
+
+    /**
+     * Reemplaza el stock por el valor en memoria si el producto tiene stock en caliente
+     */
+    private ProductoResponseDTO aplicarStockEnCaliente(ProductoResponseDTO dto) {
+        ContadorStock contador = stockEnCaliente.obtener(dto.getId());
+        return contador != null ? copiarConStock(dto, contador.disponible()) : dto;
+    }
+
+    private static String armarEtag(Long id, Long version, Integer stockEnMemoria) {
+        String etag = "p-" + id + "-" + version;
+        return stockEnMemoria != null ? etag + "-s" + stockEnMemoria : etag;
+    }
+
     /**
      * Convierte ProductoDTO a entidad Producto
      */
@@ -142,15 +1196,34 @@ public class ProductoService {
 
     /**
      * Convierte entidad Producto a ProductoResponseDTO
+     * Visible en el paquete para los benchmarks JMH
      */
-    private ProductoResponseDTO convertirEntidadAResponseDTO(Producto producto) {
+    static ProductoResponseDTO convertirEntidadAResponseDTO(Producto producto) {
         return new ProductoResponseDTO(
                 producto.getId(),
                 producto.getNombre(),
                 producto.getDescripcion(),
                 producto.getPrecio(),
                 producto.getStock(),
-                producto.getCategoria()
+                producto.getCategoria(),
+                producto.getVersion(),
+                producto.getActualizadoEn()
+        );
+    }
+
+    /**
+     * Crea una copia del DTO con otro valor de stock (los DTOs cacheados no se modifican)
+     */
+    private ProductoResponseDTO copiarConStock(ProductoResponseDTO dto, Integer stock) {
+        return new ProductoResponseDTO(
+                dto.getId(),
+                dto.getNombre(),
+                dto.getDescripcion(),
+                dto.getPrecio(),
+                stock,
+                dto.getCategoria(),
+                dto.getVersion(),
+                dto.getActualizadoEn()
         );
     }
 }
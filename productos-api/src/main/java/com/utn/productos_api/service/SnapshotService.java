@@ -0,0 +1,223 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.SnapshotDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instantánea binaria de la tabla producto, para que un nodo nuevo arranque con el catálogo cargado
+ * Formato: encabezado (MAGIA, FORMATO), una fila por producto precedida por el byte 1,
+ * el byte 0 como fin y la cantidad de filas escritas como control
+ * Se lee y escribe con JDBC directo: restaurar no pasa por Hibernate ni por la validación de DTOs
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotService {
+
+    private static final int MAGIA = 0x50524F44; // "PROD"
+    private static final int FORMATO = 1;
+    private static final int TAMANIO_BUFFER = 1 << 20;
+
+    // Debe coincidir con allocationSize de la secuencia producto_seq
+    private static final int ASIGNACION_SECUENCIA = 50;
+
+    private static final String SELECT_TODOS = "SELECT id, nombre, descripcion, precio, stock, categoria, " +
+            "version, actualizado_en FROM producto ORDER BY id";
+    private static final String INSERT = "INSERT INTO producto (id, nombre, descripcion, precio, stock, " +
+            "categoria, version, actualizado_en) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductosProperties properties;
+    private final ProductoService productoService;
+
+    /**
+     * Escribe la instantánea del catálogo completo en el archivo configurado
+     * Primero vuelca el stock en caliente; el archivo se reemplaza recién cuando está completo
+     * @return Archivo, filas escritas, tamaño y duración
+     */
+    public synchronized SnapshotDTO exportar() {
+        long inicio = System.nanoTime();
+        productoService.volcarStockEnCaliente();
+
+        Path archivo = Path.of(properties.getSnapshot().getArchivo());
+        try {
+            Path directorio = archivo.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            Path temporal = Files.createTempFile(directorio, "productos", ".tmp");
+            long filas;
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporal), TAMANIO_BUFFER))) {
+                filas = escribir(out);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporal);
+                throw e;
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Instantánea exportada: {} productos en {} ms", filas, duracionMs);
+            return new SnapshotDTO(archivo.toString(), filas, Files.size(archivo), duracionMs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la instantánea " + archivo, e);
+        }
+    }
+
+    /**
+     * Restaura la instantánea al iniciar, antes de que la aplicación se informe lista
+     * Solo actúa si está habilitado, la tabla está vacía y el archivo existe: nunca pisa datos
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void restaurarAlIniciar() {
+        ProductosProperties.Snapshot config = properties.getSnapshot();
+        Path archivo = Path.of(config.getArchivo());
+        if (!config.isRestaurarAlIniciar() || !Files.isRegularFile(archivo)) {
+            return;
+        }
+        Boolean hayProductos = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM producto)", Boolean.class);
+        if (Boolean.TRUE.equals(hayProductos)) {
+            log.info("La tabla producto ya tiene datos; no se restaura la instantánea {}", archivo);
+            return;
+        }
+
+        SnapshotDTO resultado = restaurar(archivo);
+        log.info("Instantánea restaurada: {} productos en {} ms", resultado.getFilas(), resultado.getDuracionMs());
+    }
+
+    private long escribir(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIA);
+        out.writeInt(FORMATO);
+        long[] filas = {0};
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_TODOS);
+                ps.setFetchSize(1000);
+                return ps;
+            }, rs -> {
+                try {
+                    String descripcion = rs.getString("descripcion");
+                    LocalDateTime actualizadoEn = rs.getObject("actualizado_en", LocalDateTime.class);
+                    out.writeByte(1);
+                    out.writeLong(rs.getLong("id"));
+                    out.writeUTF(rs.getString("nombre"));
+                    out.writeBoolean(descripcion != null);
+                    if (descripcion != null) {
+                        out.writeUTF(descripcion);
+                    }
+                    out.writeDouble(rs.getDouble("precio"));
+                    out.writeInt(rs.getInt("stock"));
+                    out.writeUTF(rs.getString("categoria"));
+                    out.writeLong(rs.getLong("version"));
+                    out.writeLong(actualizadoEn.toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(actualizadoEn.getNano());
+                    filas[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.writeByte(0);
+        out.writeLong(filas[0]);
+        return filas[0];
+    }
+
+    private SnapshotDTO restaurar(Path archivo) {
+        long inicio = System.nanoTime();
+        int tamanioLote = properties.getSnapshot().getTamanioLote();
+        long filas = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo), TAMANIO_BUFFER))) {
+            if (in.readInt() != MAGIA || in.readInt() != FORMATO) {
+                throw new IllegalStateException("El archivo " + archivo + " no es una instantánea de productos");
+            }
+            List<Fila> lote = new ArrayList<>(tamanioLote);
+            while (in.readByte() == 1) {
+                lote.add(leerFila(in));
+                if (lote.size() == tamanioLote) {
+                    insertar(lote);
+                    filas += lote.size();
+                    lote.clear();
+                }
+            }
+            insertar(lote);
+            filas += lote.size();
+            if (in.readLong() != filas) {
+                throw new IllegalStateException("La instantánea " + archivo + " está incompleta");
+            }
+            reiniciarSecuencia();
+            return new SnapshotDTO(archivo.toString(), filas, Files.size(archivo),
+                    (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            // Un nodo a medio cargar es peor que uno vacío: se descarta lo insertado y falla el arranque
+            jdbcTemplate.execute("TRUNCATE TABLE producto");
+            throw new IllegalStateException("No se pudo restaurar la instantánea " + archivo, e);
+        }
+    }
+
+    private static Fila leerFila(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String nombre = in.readUTF();
+        String descripcion = in.readBoolean() ? in.readUTF() : null;
+        double precio = in.readDouble();
+        int stock = in.readInt();
+        String categoria = in.readUTF();
+        long version = in.readLong();
+        LocalDateTime actualizadoEn = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        return new Fila(id, nombre, descripcion, precio, stock, categoria, version, actualizadoEn);
+    }
+
+    private void insertar(List<Fila> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT, lote, lote.size(), (ps, fila) -> {
+                    ps.setLong(1, fila.id());
+                    ps.setString(2, fila.nombre());
+                    ps.setString(3, fila.descripcion());
+                    ps.setDouble(4, fila.precio());
+                    ps.setInt(5, fila.stock());
+                    ps.setString(6, fila.categoria());
+                    ps.setLong(7, fila.version());
+                    ps.setObject(8, fila.actualizadoEn());
+                }));
+    }
+
+    /**
+     * Deja la secuencia por encima del mayor ID restaurado
+     * Con el optimizador pooled el primer valor leído es el tope del bloque: se suma un bloque completo
+     */
+    private void reiniciarSecuencia() {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM producto", Long.class);
+        jdbcTemplate.execute("ALTER SEQUENCE producto_seq RESTART WITH " + (maximo + ASIGNACION_SECUENCIA));
+    }
+
+    private record Fila(long id, String nombre, String descripcion, double precio, int stock,
+                        String categoria, long version, LocalDateTime actualizadoEn) {
+    }
+}
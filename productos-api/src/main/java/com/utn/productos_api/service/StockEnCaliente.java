@@ -0,0 +1,123 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Registro de los productos marcados con "stock en caliente"
+ * Para esos productos el stock vive en un ContadorStock en memoria y la base de datos
+ * se actualiza periódicamente con los deltas acumulados (write-behind)
+ */
+@Component
+@RequiredArgsConstructor
+public class StockEnCaliente {
+
+    // Un contador retirado se sigue volcando un ciclo más, por si quedó una operación en vuelo
+    private static final int VOLCADOS_TRAS_RETIRO = 2;
+
+    private final ProductosProperties properties;
+
+    private final Map<Long, ContadorStock> contadores = new ConcurrentHashMap<>();
+    private final Queue<ContadorStock> retirados = new ConcurrentLinkedQueue<>();
+
+    public boolean estaHabilitado() {
+        return properties.getStockCaliente().isHabilitado();
+    }
+
+    public boolean estaActivo(Long id) {
+        return contadores.containsKey(id);
+    }
+
+    public Set<Long> idsActivos() {
+        return Set.copyOf(contadores.keySet());
+    }
+
+    ContadorStock obtener(Long id) {
+        return contadores.get(id);
+    }
+
+    /**
+     * Empieza a servir el stock del producto desde memoria (si ya estaba activo no hace nada)
+     */
+    void activar(Long id, int stockActual) {
+        contadores.computeIfAbsent(id, clave -> new ContadorStock(clave, cantidadFranjas(), stockActual));
+    }
+
+    /**
+     * Deja de servir el stock desde memoria; los deltas pendientes se vuelcan igual
+     */
+    void retirar(Long id) {
+        ContadorStock contador = quitar(id);
+        if (contador != null) {
+            retirar(contador);
+        }
+    }
+
+    /**
+     * Deja de servir el stock desde memoria y devuelve el contador ya cerrado (null si no estaba activo)
+     * Quien lo llama vuelca su pendiente y después lo pasa a retirar(contador)
+     */
+    ContadorStock quitar(Long id) {
+        ContadorStock contador = contadores.remove(id);
+        if (contador != null) {
+            contador.cerrar();
+        }
+        return contador;
+    }
+
+    /**
+     * Sigue volcando un contador ya quitado, por las operaciones que lo tomaron antes de quitarlo
+     */
+    void retirar(ContadorStock contador) {
+        contador.retirar(VOLCADOS_TRAS_RETIRO);
+        retirados.add(contador);
+    }
+
+    /**
+     * Toma los deltas pendientes (distintos de cero) de los contadores activos y retirados
+     */
+    Map<ContadorStock, Long> tomarPendientes() {
+        Map<ContadorStock, Long> pendientes = new HashMap<>();
+        for (ContadorStock contador : contadores.values()) {
+            agregarPendiente(pendientes, contador);
+        }
+        for (ContadorStock contador : retirados) {
+            agregarPendiente(pendientes, contador);
+        }
+        return pendientes;
+    }
+
+    /**
+     * Devuelve a sus contadores los deltas de un volcado que falló
+     */
+    void devolverPendientes(Map<ContadorStock, Long> pendientes) {
+        pendientes.forEach(ContadorStock::devolverPendiente);
+    }
+
+    /**
+     * Registra un volcado exitoso: los contadores retirados que cumplieron sus ciclos se descartan
+     */
+    void confirmarVolcado() {
+        retirados.removeIf(ContadorStock::descontarVolcado);
+    }
+
+    private void agregarPendiente(Map<ContadorStock, Long> pendientes, ContadorStock contador) {
+        long delta = contador.tomarPendiente();
+        if (delta != 0) {
+            pendientes.put(contador, delta);
+        }
+    }
+
+    private int cantidadFranjas() {
+        int franjas = properties.getStockCaliente().getFranjas();
+        return franjas > 0 ? franjas : Runtime.getRuntime().availableProcessors();
+    }
+}
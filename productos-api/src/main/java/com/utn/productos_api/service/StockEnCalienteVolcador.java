@@ -0,0 +1,52 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Tareas del stock en caliente: activación inicial, volcado periódico y volcado final al apagar
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockEnCalienteVolcador {
+
+    private final ProductoService productoService;
+    private final StockEnCaliente stockEnCaliente;
+    private final ProductosProperties properties;
+
+    /**
+     * Activa los productos configurados en productos.stock-caliente.ids
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void activarProductosConfigurados() {
+        if (!stockEnCaliente.estaHabilitado()) {
+            return;
+        }
+        for (Long id : properties.getStockCaliente().getIds()) {
+            try {
+                productoService.activarStockEnCaliente(id);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo activar el stock en caliente del producto {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${productos.stock-caliente.intervalo-volcado-ms:1000}")
+    public void volcarPeriodicamente() {
+        productoService.volcarStockEnCaliente();
+    }
+
+    @PreDestroy
+    public void volcarAlApagar() {
+        int volcados = productoService.volcarStockEnCaliente();
+        if (volcados > 0) {
+            log.info("Stock en caliente volcado al apagar: {} productos", volcados);
+        }
+    }
+}
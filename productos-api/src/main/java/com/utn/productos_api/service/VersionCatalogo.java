@@ -0,0 +1,91 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.model.Categoria;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versiones agregadas del catálogo (total y por categoría), usadas para armar ETags
+ * sin tener que cargar ni serializar los productos
+ * Cada versión avanza con los eventos de ProductoService recién después del commit
+ */
+@Component
+public class VersionCatalogo {
+
+    // Distingue las versiones de distintos arranques: los contadores vuelven a empezar en cero
+    private final long arranque = System.currentTimeMillis();
+
+    private final Version total = new Version(arranque);
+    private final Map<Categoria, Version> porCategoria = new EnumMap<>(Categoria.class);
+
+    public VersionCatalogo() {
+        for (Categoria categoria : Categoria.values()) {
+            porCategoria.put(categoria, new Version(arranque));
+        }
+    }
+
+    /**
+     * Avanza las versiones afectadas por un cambio ya confirmado
+     * Corre después de invalidar la caché: quien lee la versión nueva ya no puede recibir datos viejos
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarProducto(ProductoEvento evento) {
+        for (Categoria categoria : evento.getCategoriasAfectadas()) {
+            porCategoria.get(categoria).avanzar();
+        }
+        total.avanzar();
+    }
+
+    /**
+     * Avanza todas las versiones (por ejemplo, tras reemplazar el catálogo completo)
+     */
+    public void avanzarTodo() {
+        porCategoria.values().forEach(Version::avanzar);
+        total.avanzar();
+    }
+
+    public String etagTodos() {
+        return "t-" + Long.toString(arranque, 36) + "-" + total.numero.get();
+    }
+
+    public String etagCategoria(Categoria categoria) {
+        return "c-" + categoria.name() + "-" + Long.toString(arranque, 36) + "-"
+                + porCategoria.get(categoria).numero.get();
+    }
+
+    /**
+     * Instante (epoch ms) del último cambio en cualquier producto
+     */
+    public long ultimoCambioTodos() {
+        return total.ultimoCambio;
+    }
+
+    /**
+     * Instante (epoch ms) del último cambio en la categoría
+     */
+    public long ultimoCambioCategoria(Categoria categoria) {
+        return porCategoria.get(categoria).ultimoCambio;
+    }
+
+    private static final class Version {
+        private final AtomicLong numero = new AtomicLong();
+        private volatile long ultimoCambio;
+
+        private Version(long inicio) {
+            this.ultimoCambio = inicio;
+        }
+
+        private void avanzar() {
+            ultimoCambio = System.currentTimeMillis();
+            numero.incrementAndGet();
+        }
+    }
+}
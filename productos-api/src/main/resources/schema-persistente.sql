@@ -0,0 +1,19 @@
+-- Esquema de la tabla producto para el perfil "persistente" (ddl-auto=validate)
+-- Debe coincidir con el mapeo de la entidad Producto
+
+CREATE SEQUENCE IF NOT EXISTS producto_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS producto (
+    id             BIGINT           NOT NULL PRIMARY KEY,
+    nombre         VARCHAR(100)     NOT NULL,
+    descripcion    VARCHAR(500),
+    precio         DOUBLE PRECISION NOT NULL,
+    stock          INTEGER          NOT NULL,
+    categoria      ENUM('ELECTRONICA', 'ROPA', 'HOGAR', 'ALIMENTOS', 'DEPORTES') NOT NULL,
+    version        BIGINT           NOT NULL,
+    actualizado_en TIMESTAMP(6)     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_producto_categoria_precio ON producto (categoria, precio);
+CREATE INDEX IF NOT EXISTS idx_producto_categoria_stock ON producto (categoria, stock);
+CREATE INDEX IF NOT EXISTS idx_producto_precio ON producto (precio);
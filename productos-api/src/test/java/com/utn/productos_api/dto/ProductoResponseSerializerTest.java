@@ -0,0 +1,31 @@
+package com.utn.productos_api.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.utn.productos_api.model.Categoria;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductoResponseSerializerTest {
+
+    private final ObjectMapper bean = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper dedicado = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new SimpleModule()
+                    .addSerializer(ProductoResponseDTO.class, new ProductoResponseSerializer()))
+            .build();
+
+    @Test
+    void escribeLoMismoQueElSerializadorDeBeans() throws Exception {
+        List<ProductoResponseDTO> productos = List.of(
+                new ProductoResponseDTO(1L, "Mouse \"gamer\"", "Con cable", 25.5, 10, Categoria.ELECTRONICA, 3L,
+                        LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000)),
+                new ProductoResponseDTO(2L, "Silla", null, null, null, null, null, null));
+
+        assertEquals(bean.writeValueAsString(productos), dedicado.writeValueAsString(productos));
+    }
+}
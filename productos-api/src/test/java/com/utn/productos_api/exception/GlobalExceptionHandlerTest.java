@@ -0,0 +1,75 @@
+package com.utn.productos_api.exception;
+
+import com.utn.productos_api.dto.FormatoExportacion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(registry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos/1");
+
+    @Test
+    void cadaRespuestaDeErrorSumaEnSuContador() {
+        assertEquals(HttpStatus.CONFLICT,
+                handler.handleStockInsuficiente(new StockInsuficienteException(1L, 5), request).getStatusCode());
+        handler.handleConflictoDeVersion(new ObjectOptimisticLockingFailureException("Producto", 1L), request);
+        handler.handlePrecondicionFallida(new PrecondicionFallidaException(1L), request);
+        handler.handleEscrituraDiferidaNoDisponible(new EscrituraDiferidaNoDisponibleException("cola llena"), request);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                handler.handleImportacionNoDisponible(new ImportacionNoDisponibleException(2), request).getStatusCode());
+        handler.handleImportacionNotFound(new ImportacionNotFoundException("abc"), request);
+        handler.handleExportacionNotFound(new ExportacionNotFoundException("productos.csv"), request);
+
+        assertEquals(1.0, contador("stock_insuficiente"));
+        assertEquals(1.0, contador("conflicto_version"));
+        assertEquals(1.0, contador("precondicion_fallida"));
+        assertEquals(1.0, contador("escritura_diferida_no_disponible"));
+        assertEquals(1.0, contador("importacion_no_disponible"));
+        assertEquals(1.0, contador("importacion_no_encontrada"));
+        assertEquals(1.0, contador("exportacion_no_encontrada"));
+    }
+
+    @Test
+    void losErroresInesperadosTambienSeCuentan() {
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                handler.handleGeneralException(new IllegalStateException("falla"), request).getStatusCode());
+        assertEquals(1.0, contador("interno"));
+    }
+
+    @Test
+    void unParametroInvalidoOFaltanteEsUn400() throws Exception {
+        MethodParameter parametro = new MethodParameter(
+                GlobalExceptionHandlerTest.class.getDeclaredMethod("exportar", FormatoExportacion.class), 0);
+        ResponseEntity<ErrorResponse> invalido = handler.handleParametroInvalido(new MethodArgumentTypeMismatchException(
+                "XML", FormatoExportacion.class, "formato", parametro, new IllegalArgumentException()), request);
+        ResponseEntity<ErrorResponse> faltante = handler.handleParametroFaltante(
+                new MissingServletRequestParameterException("formato", "FormatoExportacion"), request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, invalido.getStatusCode());
+        assertTrue(invalido.getBody().getMessage().contains("CSV"));
+        assertEquals(HttpStatus.BAD_REQUEST, faltante.getStatusCode());
+        assertEquals(2.0, contador("parametro_invalido"));
+        assertEquals(0.0, contador("interno"));
+    }
+
+    // Firma de referencia para el MethodParameter del parámetro mal convertido
+    @SuppressWarnings("unused")
+    private static void exportar(FormatoExportacion formato) {
+    }
+
+    private double contador(String tipo) {
+        return registry.get("productos.errores").tag("tipo", tipo).counter().count();
+    }
+}
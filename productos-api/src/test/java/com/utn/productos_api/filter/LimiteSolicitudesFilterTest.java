@@ -0,0 +1,110 @@
+package com.utn.productos_api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.filter.LimiteSolicitudesFilter.Clase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteSolicitudesFilterTest {
+
+    private LimiteSolicitudesFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        ProductosProperties properties = new ProductosProperties();
+        properties.getLimites().setHabilitado(true);
+        properties.getLimites().setClavesApi(Set.of("clave-valida"));
+        properties.getLimites().setEscrituras(new ProductosProperties.Cubeta(1, 3));
+        filtro = new LimiteSolicitudesFilter(properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void unaCubetaSinRitmoNoPasaLaValidacion() {
+        ProductosProperties properties = new ProductosProperties();
+        properties.getLimites().setListados(new ProductosProperties.Cubeta(0, 10));
+        properties.getLimites().setEscrituras(new ProductosProperties.Cubeta(50, -1));
+
+        ValidatorFactory fabrica = Validation.buildDefaultValidatorFactory();
+        try {
+            Set<String> invalidas = fabrica.getValidator().validate(properties).stream()
+                    .map(violacion -> violacion.getPropertyPath().toString())
+                    .collect(Collectors.toSet());
+            assertEquals(Set.of("limites.listados.porSegundo", "limites.escrituras.capacidad"), invalidas);
+        } finally {
+            fabrica.close();
+        }
+    }
+
+    @Test
+    void admiteLaRafagaYLuegoRechazaConEspera() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, filtro.consumir("k:cliente", Clase.ESCRITURA));
+        }
+        long espera = filtro.consumir("k:cliente", Clase.ESCRITURA);
+        // Al ritmo de una por segundo, la próxima entra en a lo sumo un segundo
+        assertTrue(espera > 0 && espera <= 1_000_000_000L, "espera: " + espera);
+    }
+
+    @Test
+    void lasCubetasSonIndependientesPorClienteYPorClase() {
+        for (int i = 0; i < 3; i++) {
+            filtro.consumir("k:cliente", Clase.ESCRITURA);
+        }
+        assertTrue(filtro.consumir("k:cliente", Clase.ESCRITURA) > 0);
+        assertEquals(0, filtro.consumir("k:otro", Clase.ESCRITURA));
+        assertEquals(0, filtro.consumir("k:cliente", Clase.LECTURA));
+    }
+
+    @Test
+    void clasificaPorCostoDelEndpoint() {
+        assertEquals(Clase.LISTADO, LimiteSolicitudesFilter.clasificar(solicitud("GET", "/api/productos")));
+        assertEquals(Clase.LISTADO, LimiteSolicitudesFilter.clasificar(solicitud("GET", "/api/productos/categoria/HOGAR")));
+        assertEquals(Clase.LECTURA, LimiteSolicitudesFilter.clasificar(solicitud("GET", "/api/productos/7")));
+        assertEquals(Clase.LECTURA, LimiteSolicitudesFilter.clasificar(solicitud("POST", "/api/productos/lote")));
+        assertEquals(Clase.ESCRITURA, LimiteSolicitudesFilter.clasificar(solicitud("PATCH", "/api/productos/7/stock")));
+
+        MockHttpServletRequest pagina = solicitud("GET", "/api/productos");
+        pagina.setParameter("limit", "50");
+        assertEquals(Clase.LECTURA, LimiteSolicitudesFilter.clasificar(pagina));
+    }
+
+    @Test
+    void soloLasClavesConfiguradasIdentificanAlCliente() {
+        MockHttpServletRequest valida = solicitud("GET", "/api/productos/7");
+        valida.addHeader("X-API-Key", "clave-valida");
+        assertEquals("k:clave-valida", filtro.identificarCliente(valida));
+
+        MockHttpServletRequest inventada = solicitud("GET", "/api/productos/7");
+        inventada.addHeader("X-API-Key", "cualquier-cosa");
+        inventada.setRemoteAddr("10.0.0.5");
+        assertEquals("ip:10.0.0.5", filtro.identificarCliente(inventada));
+    }
+
+    @Test
+    void unaRespuestaAsincronicaOcupaSuLugarHastaCompletarse() throws Exception {
+        MockHttpServletRequest stream = solicitud("GET", "/api/productos/stream");
+        stream.setAsyncSupported(true);
+
+        filtro.doFilter(stream, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        assertEquals(1, filtro.enCurso());
+
+        stream.getAsyncContext().complete();
+        assertEquals(0, filtro.enCurso());
+    }
+
+    private static MockHttpServletRequest solicitud(String metodo, String ruta) {
+        return new MockHttpServletRequest(metodo, ruta);
+    }
+}
@@ -0,0 +1,132 @@
+package com.utn.productos_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.event.TipoEventoProducto;
+import com.utn.productos_api.model.Categoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CanalCambiosTest {
+
+    private final ProductoResponseDTO original = producto(10, 0L);
+    private final ProductoResponseDTO reservado = producto(8, 1L);
+    private final ProductoResponseDTO liberado = producto(9, 2L);
+
+    @Test
+    void variosCambiosDeStockQuedanEnUnoConElEstadoFinal() {
+        ProductoEvento combinado = CanalCambios.combinar(
+                new ProductoEvento(TipoEventoProducto.STOCK, original, reservado),
+                new ProductoEvento(TipoEventoProducto.STOCK, reservado, liberado));
+
+        assertEquals(TipoEventoProducto.STOCK, combinado.getTipo());
+        assertSame(original, combinado.getAnterior());
+        assertSame(liberado, combinado.getActual());
+    }
+
+    @Test
+    void unaModificacionYUnCambioDeStockSeInformanComoActualizacion() {
+        ProductoEvento combinado = CanalCambios.combinar(
+                new ProductoEvento(TipoEventoProducto.ACTUALIZADO, original, reservado),
+                new ProductoEvento(TipoEventoProducto.STOCK, reservado, liberado));
+
+        assertEquals(TipoEventoProducto.ACTUALIZADO, combinado.getTipo());
+    }
+
+    @Test
+    void altaSeguidaDeCambiosSigueSiendoAlta() {
+        ProductoEvento combinado = CanalCambios.combinar(
+                new ProductoEvento(TipoEventoProducto.CREADO, null, original),
+                new ProductoEvento(TipoEventoProducto.STOCK, original, reservado));
+
+        assertEquals(TipoEventoProducto.CREADO, combinado.getTipo());
+        assertNull(combinado.getAnterior());
+        assertSame(reservado, combinado.getActual());
+    }
+
+    @Test
+    void altaYBajaEnLaMismaVentanaNoSeNotifican() {
+        assertNull(CanalCambios.combinar(
+                new ProductoEvento(TipoEventoProducto.CREADO, null, original),
+                new ProductoEvento(TipoEventoProducto.ELIMINADO, original, null)));
+    }
+
+    @Test
+    void unSuscriptorQueNoLeeNoDetieneALosDemasYSeDesconecta() throws Exception {
+        ProductosProperties properties = new ProductosProperties();
+        properties.getCambios().setVentanaMs(10);
+        properties.getCambios().setLatidoMs(60_000);
+        properties.getCambios().setHilosEnvio(2);
+        properties.getCambios().setMaximoEnviosPendientes(3);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CanalCambios canal = new CanalCambios(new ObjectMapper().findAndRegisterModules(), properties, registry);
+
+        // El primer envío queda bloqueado para siempre, como un cliente que dejó de leer
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch completado = new CountDownLatch(1);
+        SseEmitter quieto = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder evento) throws IOException {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void complete() {
+                completado.countDown();
+            }
+        };
+        AtomicInteger recibidos = new AtomicInteger();
+        SseEmitter lector = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder evento) {
+                recibidos.incrementAndGet();
+            }
+        };
+        try {
+            canal.registrar(quieto, Set.of(), Set.of());
+            canal.registrar(lector, Set.of(), Set.of());
+
+            for (int i = 1; i <= 10; i++) {
+                int esperados = i + 1;
+                canal.alCambiarProducto(new ProductoEvento(TipoEventoProducto.STOCK, original, reservado));
+                long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (recibidos.get() < esperados && System.nanoTime() < limite) {
+                    Thread.sleep(5);
+                }
+                // El saludo más una ventana por cambio, aunque el otro suscriptor no lea
+                assertEquals(esperados, recibidos.get());
+            }
+
+            assertEquals(1.0, registry.counter("productos.cambios.lentos").count());
+            assertEquals(1.0, registry.get("productos.cambios.suscriptores").gauge().value());
+            // La conexión se completa en cuanto se libera el envío bloqueado
+            liberar.countDown();
+            assertTrue(completado.await(5, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            canal.cerrar();
+        }
+    }
+
+    private static ProductoResponseDTO producto(int stock, Long version) {
+        return new ProductoResponseDTO(1L, "Mouse", null, 25.0, stock, Categoria.ELECTRONICA, version, null);
+    }
+}
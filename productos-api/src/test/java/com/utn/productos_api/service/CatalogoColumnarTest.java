@@ -0,0 +1,134 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.FiltroBusquedaDTO;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.model.Categoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogoColumnarTest {
+
+    private CatalogoColumnar catalogo;
+
+    @BeforeEach
+    void setUp() {
+        ProductosProperties properties = new ProductosProperties();
+        properties.getReplica().setHabilitada(true);
+        catalogo = new CatalogoColumnar(properties);
+        catalogo.guardar(producto(1L, "Notebook", 900.0, 5, Categoria.ELECTRONICA, 0L));
+        catalogo.guardar(producto(2L, "Notebook Gamer", 1500.0, 0, Categoria.ELECTRONICA, 0L));
+        catalogo.guardar(producto(3L, "Remera", 20.0, 30, Categoria.ROPA, 0L));
+        catalogo.guardar(producto(4L, "Mouse", 25.0, 100, Categoria.ELECTRONICA, 0L));
+    }
+
+    @Test
+    void filtraYOrdenaComoLaBaseDeDatos() {
+        FiltroBusquedaDTO filtro = new FiltroBusquedaDTO();
+        filtro.setCategorias(List.of(Categoria.ELECTRONICA));
+        filtro.setPrecioMax(1000.0);
+
+        CatalogoColumnar.Pagina pagina = catalogo.buscar(filtro, Sort.Order.desc("precio"), 0, 10);
+
+        assertEquals(2, pagina.total());
+        assertEquals(List.of(1L, 4L), ids(pagina));
+    }
+
+    @Test
+    void paginaConPrefijoYSoloConStock() {
+        FiltroBusquedaDTO filtro = new FiltroBusquedaDTO();
+        filtro.setPrefijo("note");
+        assertEquals(List.of(2L), ids(catalogo.buscar(filtro, Sort.Order.asc("id"), 1, 1)));
+
+        filtro.setSoloConStock(true);
+        CatalogoColumnar.Pagina pagina = catalogo.buscar(filtro, Sort.Order.asc("id"), 0, 10);
+        assertEquals(1, pagina.total());
+        assertEquals(List.of(1L), ids(pagina));
+    }
+
+    @Test
+    void reflejaActualizacionesYEliminaciones() {
+        catalogo.guardar(producto(3L, "Remera", 18.0, 30, Categoria.ROPA, 2L));
+        // Una versión anterior no pisa a la más nueva
+        catalogo.guardar(producto(3L, "Remera", 22.0, 30, Categoria.ROPA, 1L));
+        catalogo.eliminar(1L);
+
+        assertEquals(3, catalogo.tamanio());
+        FiltroBusquedaDTO ropa = new FiltroBusquedaDTO();
+        ropa.setCategorias(List.of(Categoria.ROPA));
+        assertEquals(18.0, catalogo.buscar(ropa, Sort.Order.asc("id"), 0, 10).contenido().get(0).getPrecio());
+        FiltroBusquedaDTO electronica = new FiltroBusquedaDTO();
+        electronica.setCategorias(List.of(Categoria.ELECTRONICA));
+        assertEquals(List.of(2L, 4L), ids(catalogo.buscar(electronica, Sort.Order.asc("id"), 0, 10)));
+    }
+
+    @Test
+    void unProductoEliminadoNoVuelveConUnaCargaOUnEventoAtrasado() {
+        // La baja llega antes que la fila leída por la carga inicial, o que un evento de actualización anterior
+        catalogo.eliminar(9L);
+        catalogo.guardar(producto(9L, "Zapatilla", 80.0, 3, Categoria.DEPORTES, 0L));
+        catalogo.eliminar(4L);
+        catalogo.guardar(producto(4L, "Mouse", 30.0, 100, Categoria.ELECTRONICA, 5L));
+
+        assertEquals(3, catalogo.tamanio());
+        assertEquals(List.of(1L, 2L, 3L), ids(catalogo.buscar(new FiltroBusquedaDTO(), Sort.Order.asc("id"), 0, 10)));
+    }
+
+    @Test
+    void unaCargaDescartaLasMarcasDeBajasAnterioresASuInicio() {
+        catalogo.eliminar(1L);
+        int carga = catalogo.iniciarCarga();
+        // Una baja durante la carga sigue protegida hasta la carga siguiente
+        catalogo.eliminar(2L);
+        catalogo.terminarCarga(carga);
+        assertEquals(1, catalogo.cantidadEliminados());
+
+        catalogo.guardar(producto(2L, "Notebook Gamer", 1500.0, 0, Categoria.ELECTRONICA, 5L));
+        assertEquals(List.of(3L, 4L), ids(catalogo.buscar(new FiltroBusquedaDTO(), Sort.Order.asc("id"), 0, 10)));
+    }
+
+    @Test
+    void fueraDeUnaCargaLasMarcasDeBajaQuedanAcotadas() {
+        long ultima = 100 + 10L * CatalogoColumnar.BAJAS_POR_BARRIDO - 1;
+        for (long id = 100; id <= ultima; id++) {
+            catalogo.eliminar(id);
+        }
+        assertTrue(catalogo.cantidadEliminados() <= 2 * CatalogoColumnar.BAJAS_POR_BARRIDO);
+
+        // La baja más reciente sigue marcada
+        catalogo.guardar(producto(ultima, "Pelota", 40.0, 8, Categoria.DEPORTES, 0L));
+        assertEquals(4, catalogo.tamanio());
+    }
+
+    @Test
+    void mapaIdFilaSobreviveAColisionesYEliminaciones() {
+        MapaIdFila mapa = new MapaIdFila(4);
+        for (int i = 0; i < 10_000; i++) {
+            mapa.poner(i * 1024L, i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            mapa.eliminar(i * 1024L);
+        }
+        assertEquals(5_000, mapa.tamanio());
+        for (int i = 0; i < 10_000; i++) {
+            int esperado = i % 2 == 0 ? MapaIdFila.AUSENTE : i;
+            assertEquals(esperado, mapa.obtener(i * 1024L));
+        }
+        assertEquals(MapaIdFila.AUSENTE, mapa.obtener(-1L));
+    }
+
+    private static List<Long> ids(CatalogoColumnar.Pagina pagina) {
+        return pagina.contenido().stream().map(ProductoResponseDTO::getId).toList();
+    }
+
+    private static ProductoResponseDTO producto(Long id, String nombre, double precio, int stock,
+                                                Categoria categoria, Long version) {
+        return new ProductoResponseDTO(id, nombre, null, precio, stock, categoria, version, null);
+    }
+}
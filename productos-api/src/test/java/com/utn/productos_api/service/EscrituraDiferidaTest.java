@@ -0,0 +1,100 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.EscrituraDescartadaDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EscrituraDiferidaTest {
+
+    private final ProductoService productoService = mock(ProductoService.class);
+    private final ProductosProperties properties = new ProductosProperties();
+
+    @BeforeEach
+    void setUp() {
+        ProductosProperties.EscrituraDiferida config = properties.getEscrituraDiferida();
+        config.setHabilitada(true);
+        // La ronda periódica no llega a correr: las escrituras se aplican al cerrar
+        config.setIntervaloMs(3_600_000);
+        config.setEsperaReintentoMs(0);
+        config.setMaximoReintentos(2);
+    }
+
+    @Test
+    void unErrorTransitorioVuelveALaColaYSeReintenta() throws Exception {
+        when(productoService.aplicarEscriturasDiferidas(any()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(Set.of(1L));
+        EscrituraDiferida escrituraDiferida = nueva();
+
+        escrituraDiferida.actualizarStock(1L, 5);
+        escrituraDiferida.cerrar();
+
+        // Lote, reintento individual y, en la ronda siguiente, el lote que se aplica
+        verify(productoService, times(3)).aplicarEscriturasDiferidas(Map.of(1L, EscrituraPendiente.stockFijado(5)));
+        assertTrue(escrituraDiferida.descartes().isEmpty());
+    }
+
+    @Test
+    void unErrorPermanenteSeDescartaSinReintentos() throws Exception {
+        when(productoService.aplicarEscriturasDiferidas(any()))
+                .thenThrow(new DataIntegrityViolationException("stock negativo"));
+        EscrituraDiferida escrituraDiferida = nueva();
+
+        escrituraDiferida.actualizarStock(1L, 5);
+        escrituraDiferida.cerrar();
+
+        verify(productoService, times(2)).aplicarEscriturasDiferidas(any());
+        List<EscrituraDescartadaDTO> descartes = escrituraDiferida.descartes();
+        assertEquals(1, descartes.size());
+        assertEquals(1L, descartes.get(0).getProductoId());
+        assertEquals(1, descartes.get(0).getIntentos());
+    }
+
+    @Test
+    void seDescartaAlAgotarLosReintentos() throws Exception {
+        when(productoService.aplicarEscriturasDiferidas(any())).thenThrow(new QueryTimeoutException("timeout"));
+        EscrituraDiferida escrituraDiferida = nueva();
+
+        escrituraDiferida.liberarStock(1L, 3);
+        escrituraDiferida.cerrar();
+
+        // Un intento original y dos reintentos, cada uno como lote y de a uno
+        verify(productoService, times(6)).aplicarEscriturasDiferidas(any());
+        List<EscrituraDescartadaDTO> descartes = escrituraDiferida.descartes();
+        assertEquals(1, descartes.size());
+        assertEquals(3, descartes.get(0).getIntentos());
+    }
+
+    @Test
+    void unProductoInexistenteSeInformaComoDescartado() throws Exception {
+        when(productoService.aplicarEscriturasDiferidas(any())).thenReturn(Set.of());
+        EscrituraDiferida escrituraDiferida = nueva();
+
+        escrituraDiferida.actualizarStock(99L, 5);
+        escrituraDiferida.cerrar();
+
+        assertEquals(List.of(99L), escrituraDiferida.descartes().stream()
+                .map(EscrituraDescartadaDTO::getProductoId).toList());
+    }
+
+    private EscrituraDiferida nueva() {
+        return new EscrituraDiferida(productoService, properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,60 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.ProductoDTO;
+import com.utn.productos_api.model.Categoria;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EscrituraPendienteTest {
+
+    private final ProductoDTO primero = new ProductoDTO("Mouse", null, 25.0, 10, Categoria.ELECTRONICA);
+    private final ProductoDTO segundo = new ProductoDTO("Mouse inalámbrico", null, 30.0, 12, Categoria.ELECTRONICA);
+
+    @Test
+    void laUltimaActualizacionCompletaGana() {
+        EscrituraPendiente combinada = combinar(
+                EscrituraPendiente.completa(primero),
+                EscrituraPendiente.movimiento(3),
+                EscrituraPendiente.completa(segundo));
+
+        assertSame(segundo, combinada.producto());
+        assertNull(combinada.stock());
+        assertEquals(0, combinada.delta());
+    }
+
+    @Test
+    void losMovimientosDeStockSeSuman() {
+        EscrituraPendiente combinada = combinar(
+                EscrituraPendiente.movimiento(2),
+                EscrituraPendiente.movimiento(3),
+                EscrituraPendiente.movimiento(5));
+
+        assertEquals(10, combinada.delta());
+        assertTrue(combinada.soloStock());
+    }
+
+    @Test
+    void unStockFijadoDescartaLosMovimientosAnterioresPeroConservaLosDatos() {
+        EscrituraPendiente combinada = combinar(
+                EscrituraPendiente.completa(primero),
+                EscrituraPendiente.movimiento(4),
+                EscrituraPendiente.stockFijado(50),
+                EscrituraPendiente.movimiento(1));
+
+        assertSame(primero, combinada.producto());
+        assertEquals(50, combinada.stock());
+        assertEquals(1, combinada.delta());
+    }
+
+    private static EscrituraPendiente combinar(EscrituraPendiente... escrituras) {
+        EscrituraPendiente combinada = escrituras[0];
+        for (int i = 1; i < escrituras.length; i++) {
+            combinada = EscrituraPendiente.combinar(combinada, escrituras[i]);
+        }
+        return combinada;
+    }
+}
@@ -0,0 +1,146 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.EstadisticasCatalogoDTO;
+import com.utn.productos_api.dto.EstadisticasCategoriaDTO;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.event.TipoEventoProducto;
+import com.utn.productos_api.model.Categoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EstadisticasCatalogoTest {
+
+    private EstadisticasCatalogo estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        // Solo se ejercitan las actualizaciones incrementales; la reconciliación usa la base
+        estadisticas = new EstadisticasCatalogo(null);
+        crear(producto(1L, 100.0, 5, Categoria.ELECTRONICA));
+        crear(producto(2L, 300.0, 0, Categoria.ELECTRONICA));
+        crear(producto(3L, 20.0, 10, Categoria.ROPA));
+    }
+
+    @Test
+    void sumaLosProductosCreados() {
+        EstadisticasCategoriaDTO electronica = categoria(Categoria.ELECTRONICA);
+        assertEquals(2, electronica.getCantidad());
+        assertEquals(5, electronica.getStockTotal());
+        assertEquals(500.0, electronica.getValorStock());
+        assertEquals(100.0, electronica.getPrecioMinimo());
+        assertEquals(300.0, electronica.getPrecioMaximo());
+        assertEquals(200.0, electronica.getPrecioPromedio());
+        assertEquals(1, electronica.getSinStock());
+
+        EstadisticasCatalogoDTO total = estadisticas.obtener();
+        assertEquals(3, total.getCantidad());
+        assertEquals(700.0, total.getValorStock());
+    }
+
+    @Test
+    void reflejaCambiosDeStockCategoriaYEliminaciones() {
+        estadisticas.alCambiarProducto(new ProductoEvento(TipoEventoProducto.STOCK,
+                producto(2L, 300.0, 0, Categoria.ELECTRONICA), producto(2L, 300.0, 4, Categoria.ELECTRONICA)));
+        estadisticas.alCambiarProducto(new ProductoEvento(TipoEventoProducto.ACTUALIZADO,
+                producto(1L, 100.0, 5, Categoria.ELECTRONICA), producto(1L, 50.0, 5, Categoria.HOGAR)));
+        estadisticas.alCambiarProducto(new ProductoEvento(TipoEventoProducto.ELIMINADO,
+                producto(3L, 20.0, 10, Categoria.ROPA), null));
+
+        EstadisticasCategoriaDTO electronica = categoria(Categoria.ELECTRONICA);
+        assertEquals(1, electronica.getCantidad());
+        assertEquals(300.0, electronica.getPrecioMinimo());
+        assertEquals(0, electronica.getSinStock());
+        assertEquals(1200.0, electronica.getValorStock());
+        assertEquals(50.0, categoria(Categoria.HOGAR).getPrecioMaximo());
+        assertEquals(0, categoria(Categoria.ROPA).getCantidad());
+        assertNull(categoria(Categoria.ROPA).getPrecioPromedio());
+    }
+
+    @Test
+    void unCommitYaIncluidoEnLaReconciliacionNoSeSumaDosVeces() {
+        // La base ya tiene el producto 4 confirmado, pero su delta todavía no se sumó
+        estadisticas = new EstadisticasCatalogo(new BaseFija(List.of(
+                new Object[]{"ELECTRONICA", 100.0, 1L, 5L, 0L},
+                new Object[]{"ELECTRONICA", 300.0, 1L, 0L, 1L},
+                new Object[]{"ELECTRONICA", 250.0, 1L, 2L, 0L},
+                new Object[]{"ROPA", 20.0, 1L, 10L, 0L})));
+        crear(producto(1L, 100.0, 5, Categoria.ELECTRONICA));
+        crear(producto(2L, 300.0, 0, Categoria.ELECTRONICA));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            crear(producto(4L, 250.0, 2, Categoria.ELECTRONICA));
+            estadisticas.reconciliar();
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(3, categoria(Categoria.ELECTRONICA).getCantidad());
+        assertEquals(1, categoria(Categoria.ROPA).getCantidad());
+
+        // Sin commits en curso, la reconciliación reemplaza la categoría con lo mismo
+        estadisticas.reconciliar();
+        assertEquals(3, categoria(Categoria.ELECTRONICA).getCantidad());
+        assertEquals(1000.0, categoria(Categoria.ELECTRONICA).getValorStock());
+    }
+
+    private void crear(ProductoResponseDTO producto) {
+        estadisticas.alCambiarProducto(new ProductoEvento(TipoEventoProducto.CREADO, null, producto));
+    }
+
+    private EstadisticasCategoriaDTO categoria(Categoria categoria) {
+        return estadisticas.obtener().getCategorias().stream()
+                .filter(dto -> dto.getCategoria() == categoria)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Devuelve siempre las mismas filas de CONSULTA_AGREGADOS
+     */
+    private static final class BaseFija extends JdbcTemplate {
+        private final List<Object[]> filas;
+
+        private BaseFija(List<Object[]> filas) {
+            this.filas = filas;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler manejador) {
+            try {
+                for (Object[] fila : filas) {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getString("categoria")).thenReturn((String) fila[0]);
+                    when(rs.getDouble("precio")).thenReturn((Double) fila[1]);
+                    when(rs.getLong("cantidad")).thenReturn((Long) fila[2]);
+                    when(rs.getLong("stock")).thenReturn((Long) fila[3]);
+                    when(rs.getLong("sin_stock")).thenReturn((Long) fila[4]);
+                    manejador.processRow(rs);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static ProductoResponseDTO producto(Long id, double precio, int stock, Categoria categoria) {
+        return new ProductoResponseDTO(id, "Producto " + id, null, precio, stock, categoria, 0L, null);
+    }
+}
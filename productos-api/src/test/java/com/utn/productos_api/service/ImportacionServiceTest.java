@@ -0,0 +1,92 @@
+package com.utn.productos_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.ErrorImportacionDTO;
+import com.utn.productos_api.dto.EstadoImportacion;
+import com.utn.productos_api.dto.FormatoImportacion;
+import com.utn.productos_api.dto.ImportacionDTO;
+import com.utn.productos_api.dto.ResultadoLoteDTO;
+import com.utn.productos_api.exception.ImportacionNoDisponibleException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportacionServiceTest {
+
+    private static final String FILA = "{\"nombre\":\"Mouse\",\"precio\":25.0,\"stock\":1,\"categoria\":\"ELECTRONICA\"}\n";
+
+    private final ProductoService productoService = mock(ProductoService.class);
+    private final ProductosProperties properties = new ProductosProperties();
+    private final ImportacionService importacionService = nuevo();
+
+    @AfterEach
+    void tearDown() {
+        importacionService.detener();
+    }
+
+    @Test
+    void unIdNdjsonQueNoEsEnteroSeRechazaEnLugarDeLeerseComoCero() {
+        String ndjson = """
+                {"id":"abc","nombre":"Mouse","precio":25.0,"stock":1,"categoria":"ELECTRONICA"}
+                {"id":1.5,"nombre":"Mouse","precio":25.0,"stock":1,"categoria":"ELECTRONICA"}
+                {"id":true,"nombre":"Mouse","precio":25.0,"stock":1,"categoria":"ELECTRONICA"}
+                """;
+
+        ImportacionDTO resultado = importar(ndjson);
+
+        assertEquals(EstadoImportacion.COMPLETADA, resultado.getEstado());
+        assertEquals(3, resultado.getRechazados());
+        assertEquals(List.of(1L, 2L, 3L), resultado.getErrores().stream().map(ErrorImportacionDTO::getLinea).toList());
+        verify(productoService, never()).actualizarProductosEnLote(any());
+    }
+
+    @Test
+    void unaImportacionDeMasSeRechazaSinOcuparHilosNiConexiones() throws Exception {
+        CountDownLatch persistiendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(productoService.crearProductosEnLote(any())).thenAnswer(invocacion -> {
+            persistiendo.countDown();
+            liberar.await();
+            return new ResultadoLoteDTO(1, 1, 0, 0, 0, List.of());
+        });
+
+        CompletableFuture<ImportacionDTO> primera = CompletableFuture.supplyAsync(() -> importar(FILA));
+        try {
+            assertTrue(persistiendo.await(5, TimeUnit.SECONDS));
+            assertThrows(ImportacionNoDisponibleException.class, () -> importar(FILA));
+        } finally {
+            liberar.countDown();
+        }
+        assertEquals(1, primera.get(5, TimeUnit.SECONDS).getCreados());
+
+        // Al terminar la primera se libera el lugar
+        assertEquals(1, importar(FILA).getCreados());
+    }
+
+    private ImportacionDTO importar(String ndjson) {
+        return importacionService.importar(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), FormatoImportacion.NDJSON);
+    }
+
+    private ImportacionService nuevo() {
+        properties.getImportacion().setMaximoSimultaneas(1);
+        properties.getImportacion().setParalelismo(1);
+        return new ImportacionService(productoService, new ObjectMapper(), properties);
+    }
+}
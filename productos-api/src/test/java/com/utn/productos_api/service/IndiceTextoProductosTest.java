@@ -0,0 +1,101 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.model.Categoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceTextoProductosTest {
+
+    private IndiceTextoProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTextoProductos();
+        indice.indexar(producto(1L, "Cafetera Eléctrica", "Prepara café de filtro"));
+        indice.indexar(producto(2L, "Café en grano", "Tostado medio, origen Colombia"));
+        indice.indexar(producto(3L, "Zapatillas Running", "Livianas, ideales para correr"));
+    }
+
+    @Test
+    void ignoraAcentosYMayusculas() {
+        assertEquals(List.of(2L, 1L), indice.buscar("CAFE", 10));
+    }
+
+    @Test
+    void buscaPorPrefijoYExigeTodosLosTerminos() {
+        assertEquals(List.of(3L), indice.buscar("zapat runn", 10));
+        assertTrue(indice.buscar("zapatillas cafe", 10).isEmpty());
+    }
+
+    @Test
+    void reflejaActualizacionesYEliminaciones() {
+        indice.indexar(producto(3L, "Botines de fútbol", "Suela con tapones"));
+        assertTrue(indice.buscar("zapatillas", 10).isEmpty());
+        assertEquals(List.of(3L), indice.buscar("futbol", 10));
+
+        indice.eliminar(3L);
+        assertTrue(indice.buscar("botines", 10).isEmpty());
+    }
+
+    @Test
+    void unaLecturaAnteriorALaBajaNoVuelveAIndexarElProducto() {
+        // La carga inicial leyó el producto 4 antes de su baja, pero lo indexa después
+        ProductoResponseDTO leidoAntes = producto(4L, "Termo de acero", "Mantiene el café caliente");
+        indice.eliminar(4L);
+        indice.indexar(leidoAntes);
+        assertTrue(indice.buscar("termo", 10).isEmpty());
+
+        // Un evento de actualización atrasado tampoco resucita un producto ya eliminado
+        indice.eliminar(1L);
+        indice.indexar(producto(1L, "Cafetera Eléctrica", "Prepara café de filtro", 3L));
+        assertEquals(List.of(2L), indice.buscar("cafe", 10));
+        assertEquals(2, indice.cantidadProductos());
+    }
+
+    @Test
+    void unaVersionViejaNoPisaALaNueva() {
+        indice.indexar(producto(3L, "Botines de fútbol", "Suela con tapones", 2L));
+        indice.indexar(producto(3L, "Zapatillas Running", "Livianas, ideales para correr", 1L));
+        assertEquals(List.of(3L), indice.buscar("botines", 10));
+    }
+
+    @Test
+    void unaCargaDescartaLasMarcasDeBajasAnterioresASuInicio() {
+        indice.eliminar(1L);
+        long carga = indice.iniciarCarga();
+        // Una baja durante la carga sigue protegida hasta la carga siguiente
+        indice.eliminar(2L);
+        indice.terminarCarga(carga);
+        assertEquals(1, indice.cantidadEliminados());
+
+        indice.indexar(producto(2L, "Café en grano", "Tostado medio, origen Colombia", 5L));
+        assertTrue(indice.buscar("grano", 10).isEmpty());
+    }
+
+    @Test
+    void fueraDeUnaCargaLasMarcasDeBajaQuedanAcotadas() {
+        for (long id = 100; id < 100 + 10L * IndiceTextoProductos.BAJAS_POR_BARRIDO; id++) {
+            indice.eliminar(id);
+        }
+        assertTrue(indice.cantidadEliminados() <= 2 * IndiceTextoProductos.BAJAS_POR_BARRIDO);
+
+        // La baja más reciente sigue marcada
+        long ultima = 100 + 10L * IndiceTextoProductos.BAJAS_POR_BARRIDO - 1;
+        indice.indexar(producto(ultima, "Termo de acero", "Mantiene el café caliente"));
+        assertTrue(indice.buscar("termo", 10).isEmpty());
+    }
+
+    private ProductoResponseDTO producto(Long id, String nombre, String descripcion) {
+        return producto(id, nombre, descripcion, 0L);
+    }
+
+    private ProductoResponseDTO producto(Long id, String nombre, String descripcion, Long version) {
+        return new ProductoResponseDTO(id, nombre, descripcion, 100.0, 10, Categoria.HOGAR, version, null);
+    }
+}
@@ -0,0 +1,42 @@
+package com.utn.productos_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LectorCsvTest {
+
+    @Test
+    void leeCamposEntrecomilladosConComasYSaltosDeLinea() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader(
+                "nombre,descripcion,precio\r\n" +
+                "Mouse,\"Inalámbrico, 3 botones\",25\r\n" +
+                "\"Monitor \"\"Pro\"\"\",\"Dos\nlíneas\",300\n" +
+                "Teclado,,40"), 1024);
+
+        assertEquals(List.of("nombre", "descripcion", "precio"), lector.siguienteRegistro());
+        assertEquals(List.of("Mouse", "Inalámbrico, 3 botones", "25"), lector.siguienteRegistro());
+        assertEquals(2, lector.getLinea());
+        assertEquals(List.of("Monitor \"Pro\"", "Dos\nlíneas", "300"), lector.siguienteRegistro());
+        assertEquals(3, lector.getLinea());
+        assertEquals(List.of("Teclado", "", "40"), lector.siguienteRegistro());
+        // El registro anterior ocupó dos líneas
+        assertEquals(5, lector.getLinea());
+        assertNull(lector.siguienteRegistro());
+    }
+
+    @Test
+    void rechazaRegistrosDemasiadoLargosYComillasSinCerrar() {
+        LectorCsv largo = new LectorCsv(new StringReader("a".repeat(20) + "\n"), 10);
+        assertThrows(IOException.class, largo::siguienteRegistro);
+
+        LectorCsv sinCerrar = new LectorCsv(new StringReader("\"abierto,1\n"), 1024);
+        assertThrows(IOException.class, sinCerrar::siguienteRegistro);
+    }
+}
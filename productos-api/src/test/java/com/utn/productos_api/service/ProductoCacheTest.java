@@ -0,0 +1,98 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.config.ProductosProperties;
+import com.utn.productos_api.dto.ProductoResponseDTO;
+import com.utn.productos_api.event.ProductoEvento;
+import com.utn.productos_api.event.TipoEventoProducto;
+import com.utn.productos_api.exception.ProductoNotFoundException;
+import com.utn.productos_api.model.Categoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductoCacheTest {
+
+    private static final int HILOS = 16;
+
+    private ProductoCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductoCache(new ProductosProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void fallosSimultaneosDelMismoIdCompartenUnaCarga() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<ProductoResponseDTO>> resultados = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                resultados.add(executor.submit(() -> cache.obtenerPorId(1L, () -> {
+                    cargas.incrementAndGet();
+                    cargaIniciada.countDown();
+                    esperar(liberarCarga);
+                    return producto(1L);
+                })));
+            }
+            assertTrue(cargaIniciada.await(5, TimeUnit.SECONDS));
+            // Margen para que el resto de los hilos llegue a esperar la carga en curso
+            Thread.sleep(200);
+            liberarCarga.countDown();
+            for (Future<ProductoResponseDTO> resultado : resultados) {
+                assertEquals(1L, resultado.get(5, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void laExcepcionDeLaCargaLlegaATodosYNoQuedaEnCache() {
+        assertThrows(ProductoNotFoundException.class, () -> cache.obtenerPorId(2L, () -> {
+            throw new ProductoNotFoundException(2L);
+        }));
+        assertEquals(2L, cache.obtenerPorId(2L, () -> producto(2L)).getId());
+    }
+
+    @Test
+    void unCambioConfirmadoInvalidaLaEntrada() {
+        cache.obtenerPorId(3L, () -> producto(3L));
+        cache.alCambiarProducto(new ProductoEvento(TipoEventoProducto.ELIMINADO, producto(3L), null));
+
+        AtomicInteger cargas = new AtomicInteger();
+        cache.obtenerPorId(3L, () -> {
+            cargas.incrementAndGet();
+            return producto(3L);
+        });
+        assertEquals(1, cargas.get());
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ProductoResponseDTO producto(Long id) {
+        return new ProductoResponseDTO(id, "Producto " + id, null, 10.0, 1, Categoria.HOGAR, 0L, null);
+    }
+}
@@ -0,0 +1,213 @@
+package com.utn.productos_api.service;
+
+import com.utn.productos_api.dto.ActualizarStockDTO;
+import com.utn.productos_api.dto.ProductoDTO;
+import com.utn.productos_api.exception.PrecondicionFallidaException;
+import com.utn.productos_api.exception.ProductoNotFoundException;
+import com.utn.productos_api.exception.StockInsuficienteException;
+import com.utn.productos_api.model.Categoria;
+import com.utn.productos_api.repository.ProductoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// El volcado periódico del stock en caliente se espacia para que no interfiera con los tests que lo usan
+@SpringBootTest(properties = {
+        "productos.stock-caliente.habilitado=true",
+        "productos.stock-caliente.intervalo-volcado-ms=3600000"
+})
+class ProductoServiceConcurrenciaTest {
+
+    private static final int HILOS = 32;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void reservasConcurrentesNoSobrevenden() throws Exception {
+        Long id = crearProducto(500);
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+
+        ejecutarEnParalelo(2_000, i -> {
+            try {
+                productoService.reservarStock(id, 1);
+                exitosas.incrementAndGet();
+            } catch (StockInsuficienteException e) {
+                rechazadas.incrementAndGet();
+            }
+        });
+
+        assertEquals(500, exitosas.get());
+        assertEquals(1_500, rechazadas.get());
+        assertEquals(0, productoService.obtenerPorId(id).getStock());
+    }
+
+    @Test
+    void reservasYLiberacionesConcurrentesDejanElStockExacto() throws Exception {
+        Long id = crearProducto(10_000);
+
+        // Mitad de las tareas reservan 3 unidades y la otra mitad libera 1
+        ejecutarEnParalelo(4_000, i -> {
+            if (i % 2 == 0) {
+                productoService.reservarStock(id, 3);
+            } else {
+                productoService.liberarStock(id, 1);
+            }
+        });
+
+        assertEquals(10_000 - 2_000 * 3 + 2_000, productoService.obtenerPorId(id).getStock());
+    }
+
+    @Test
+    void soloUnaModificacionConElMismoIfMatchGana() throws Exception {
+        Long id = crearProducto(100);
+        String etag = productoService.calcularEtag(id);
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+
+        ejecutarEnParalelo(200, i -> {
+            ProductoDTO dto = new ProductoDTO("Editor " + i, null, 100.0 + i, 100, Categoria.ELECTRONICA);
+            try {
+                productoService.actualizarProducto(id, dto, etag);
+                exitosas.incrementAndGet();
+            } catch (PrecondicionFallidaException e) {
+                rechazadas.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, exitosas.get());
+        assertEquals(199, rechazadas.get());
+        assertEquals(1L, productoService.obtenerPorId(id).getVersion() - versionDeEtag(etag));
+    }
+
+    @Test
+    void unEtagViejoRespondePrecondicionFallida() {
+        Long id = crearProducto(10);
+        String etag = productoService.calcularEtag(id);
+        productoService.actualizarStock(id, new ActualizarStockDTO(5));
+
+        assertThrows(PrecondicionFallidaException.class,
+                () -> productoService.actualizarStock(id, new ActualizarStockDTO(1), etag));
+        assertEquals(5, productoService.obtenerPorId(id).getStock());
+    }
+
+    private static long versionDeEtag(String etag) {
+        return Long.parseLong(etag.substring(etag.lastIndexOf('-') + 1));
+    }
+
+    private Long crearProducto(int stock) {
+        ProductoDTO dto = new ProductoDTO("Producto concurrente", null, 100.0, stock, Categoria.ELECTRONICA);
+        return productoService.crearProducto(dto).getId();
+    }
+
+    @Test
+    void activarUnProductoInexistenteNoPierdeElStockEnCalienteDeOtros() {
+        Long id = crearProducto(100);
+        productoService.activarStockEnCaliente(id);
+        productoService.reservarStock(id, 30);
+
+        assertThrows(ProductoNotFoundException.class, () -> productoService.activarStockEnCaliente(Long.MAX_VALUE));
+        productoService.desactivarStockEnCaliente(id);
+
+        assertEquals(70, productoRepository.findById(id).orElseThrow().getStock());
+    }
+
+    @Test
+    void activarYDesactivarBajoCargaNoSobrevende() throws Exception {
+        Long id = crearProducto(1_000);
+        AtomicInteger exitosas = new AtomicInteger();
+
+        // Cada 100 tareas, una cambia el modo del producto mientras las demás reservan
+        ejecutarEnParalelo(3_000, i -> {
+            if (i % 100 == 0) {
+                cambiarModo(id, i);
+                return;
+            }
+            try {
+                productoService.reservarStock(id, 1);
+                exitosas.incrementAndGet();
+            } catch (StockInsuficienteException e) {
+                // Stock agotado
+            }
+        });
+        productoService.desactivarStockEnCaliente(id);
+        productoService.volcarStockEnCaliente();
+
+        int stock = productoRepository.findById(id).orElseThrow().getStock();
+        assertTrue(stock >= 0, "stock: " + stock);
+        assertEquals(1_000 - exitosas.get(), stock);
+    }
+
+    @Test
+    void activarYDesactivarBajoCargaNoPierdeMovimientos() throws Exception {
+        Long id = crearProducto(100_000);
+
+        ejecutarEnParalelo(4_000, i -> {
+            if (i % 100 == 0) {
+                cambiarModo(id, i);
+            } else if (i % 2 == 0) {
+                productoService.reservarStock(id, 3);
+            } else {
+                productoService.liberarStock(id, 1);
+            }
+        });
+        productoService.desactivarStockEnCaliente(id);
+        productoService.volcarStockEnCaliente();
+
+        // 1.960 reservas de 3 y 2.000 liberaciones de 1
+        assertEquals(100_000 - 1_960 * 3 + 2_000, productoRepository.findById(id).orElseThrow().getStock());
+    }
+
+    private void cambiarModo(Long id, int numero) {
+        if (numero % 200 == 0) {
+            productoService.activarStockEnCaliente(id);
+        } else {
+            productoService.desactivarStockEnCaliente(id);
+        }
+    }
+
+    private void ejecutarEnParalelo(int tareas, Tarea tarea) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < tareas; i++) {
+                int numero = i;
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    tarea.ejecutar(numero);
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Tarea {
+        void ejecutar(int numero);
+    }
+}